@@ -2,6 +2,8 @@ package br.com.hioktec.minhasfinancas.api.dto;
 
 import java.math.BigDecimal;
 
+import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,4 +23,11 @@ public class LancamentoDTO {
 	private String tipo;
 	private String status;
 	private Long usuario;
+	private Long versao;
+	
+	// usado pelas consultas de projeção (select new), que entregam os enums da entidade.
+	public LancamentoDTO(Long id, String descricao, Integer mes, Integer ano, BigDecimal valor,
+			TipoLancamento tipo, StatusLancamento status, Long usuario, Long versao) {
+		this(id, descricao, mes, ano, valor, tipo.name(), status.name(), usuario, versao);
+	}
 }
@@ -0,0 +1,27 @@
+package br.com.hioktec.minhasfinancas.api.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RecorrenciaDTO {
+	
+	private Long id;
+	private String descricao;
+	private BigDecimal valor;
+	private String tipo;
+	private Integer ano;
+	private Integer mes;
+	private Integer parcelas;
+	private Integer anoFinal;
+	private Integer mesFinal;
+	private Integer ultimaParcela;
+	private Long usuario;
+}
@@ -1,34 +1,82 @@
 package br.com.hioktec.minhasfinancas.api.resource;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.hioktec.minhasfinancas.exception.ConflitoIdempotenciaException;
 import br.com.hioktec.minhasfinancas.exception.RegraNegocioException;
+import br.com.hioktec.minhasfinancas.exception.SobrecargaException;
 import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
 import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+import br.com.hioktec.minhasfinancas.model.enums.FormatoExportacao;
+import br.com.hioktec.minhasfinancas.model.enums.FormatoExtrato;
 import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
 import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.FiltroLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.ResultadoIdempotente;
+import br.com.hioktec.minhasfinancas.request.AlterarLancamentoRequest;
 import br.com.hioktec.minhasfinancas.request.AtualizarLancamentoRequest;
+import br.com.hioktec.minhasfinancas.request.AtualizarStatusLoteRequest;
 import br.com.hioktec.minhasfinancas.request.AtualizarStatusRequest;
 import br.com.hioktec.minhasfinancas.request.CadastroLancamentoRequest;
+import br.com.hioktec.minhasfinancas.security.UsuarioAtual;
+import br.com.hioktec.minhasfinancas.security.UsuarioPrincipal;
+import br.com.hioktec.minhasfinancas.service.IdempotenciaService;
+import br.com.hioktec.minhasfinancas.service.ImportacaoLancamentoService;
 import br.com.hioktec.minhasfinancas.service.LancamentoService;
 import br.com.hioktec.minhasfinancas.service.UsuarioService;
+import br.com.hioktec.minhasfinancas.service.VersaoUsuarioService;
+import br.com.hioktec.minhasfinancas.service.exportacao.EscritorPlanilha;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -36,8 +84,23 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class LancamentoResource {
 	
+	// o cliente guarda a resposta, mas revalida pelo ETag a cada consulta.
+	private static final CacheControl CACHE_REVALIDAR = CacheControl.noCache().cachePrivate();
+	private static final String CABECALHO_IDEMPOTENCIA = "Idempotency-Key";
+	private static final String CABECALHO_REPETIDA = "Idempotent-Replayed";
+	private static final int TAMANHO_MAXIMO_CHAVE = 255;
+	private static final String MENSAGEM_OUTRO_USUARIO = "Lançamento pertence a outro usuário";
+	private static final String FORMATO_MERGE_PATCH = "application/merge-patch+json";
+	private static final Set<String> CAMPOS_ALTERAVEIS = new HashSet<>(
+			Arrays.asList("descricao", "mes", "ano", "valor", "tipo", "status", "usuario", "versao"));
+	
 	private final LancamentoService service; // inserimos final para usar @RequiredArgsConstructor
 	private final UsuarioService usuarioService; // inserimos final para usar @RequiredArgsConstructor
+	private final ObjectMapper objectMapper;
+	private final VersaoUsuarioService versaoUsuarioService;
+	private final ImportacaoLancamentoService importacaoService;
+	private final IdempotenciaService idempotenciaService;
+	private final Validator validator;
 	
 	/* eliminando a necessidade de ficar inserindo as injeções no constuctor usaremos @RequiredArgsConstructor
 	public LancamentoResource(LancamentoService service, UsuarioService usuarioService) {
@@ -46,116 +109,443 @@ public class LancamentoResource {
 	*/
 	
 	// alterado para validação de LancamentoDTO para CadastroLancamentoRequest.
+	// com Idempotency-Key, as novas tentativas do cliente recebem o lançamento já criado, sem gravar de novo.
 	@PostMapping
 	@PreAuthorize("hasAuthority('USUARIO')")
-	public ResponseEntity<?> salvar( @Valid @RequestBody CadastroLancamentoRequest cadastroRequest ) {
+	public ResponseEntity<?> salvar( @Valid @RequestBody CadastroLancamentoRequest cadastroRequest,
+			@RequestHeader(name = CABECALHO_IDEMPOTENCIA, required = false) String chaveIdempotencia,
+			@UsuarioAtual UsuarioPrincipal usuarioAtual ) {
+		if (!usuarioAtual.getId().equals(cadastroRequest.getUsuario())) {
+			return new ResponseEntity<>(MENSAGEM_OUTRO_USUARIO, HttpStatus.FORBIDDEN);
+		}
 		try {
-			Lancamento entidade = converter(cadastroRequest);
-			entidade = service.salvar(entidade);
-			return new ResponseEntity<>(entidade, HttpStatus.CREATED);
+			if (chaveIdempotencia == null || chaveIdempotencia.isEmpty()) {
+				Lancamento entidade = converter(cadastroRequest, usuarioAtual);
+				entidade = service.salvar(entidade);
+				return new ResponseEntity<>(entidade, HttpStatus.CREATED);
+			}
+			if (chaveIdempotencia.length() > TAMANHO_MAXIMO_CHAVE) {
+				return ResponseEntity.badRequest().body("Chave de idempotência inválida");
+			}
+			
+			ResultadoIdempotente<Lancamento> resultado = idempotenciaService.executar(
+					cadastroRequest.getUsuario() + ":" + chaveIdempotencia, 
+					obterAssinatura(cadastroRequest), 
+					() -> service.salvar(converter(cadastroRequest, usuarioAtual)));
+			return ResponseEntity.status(HttpStatus.CREATED)
+					.header(CABECALHO_REPETIDA, String.valueOf(resultado.isRepetida()))
+					.body(resultado.getValor());
 		} catch (RegraNegocioException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (ConflitoIdempotenciaException e) {
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+		} catch (SobrecargaException e) {
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+					.header(HttpHeaders.RETRY_AFTER, "1")
+					.body(e.getMessage());
 		}
 	}
 	
 	@GetMapping("{id}")
 	public ResponseEntity<?> obterLancamento ( @PathVariable("id") Long id ) {
-		return service.obterPorId(id)
-				.map(lancamento -> new ResponseEntity<>(converterDTO(lancamento), HttpStatus.OK))
+		// projeção direta no DTO, sem carregar a entidade e o usuário.
+		return service.obterDTOPorId(id)
+				.map(lancamento -> new ResponseEntity<>(lancamento, HttpStatus.OK))
 				.orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
 	}
 	
 	// alterado para validação de LancamentoDTO para AtualizarLancamentoRequest.
 	@PutMapping("{id}")
 	@PreAuthorize("hasAuthority('USUARIO')")
-	public ResponseEntity<?> atualizar( @PathVariable("id") Long id, @Valid @RequestBody AtualizarLancamentoRequest atualizarRequest) {
-		return service.obterPorId(id).map( entity -> {
-			try {
-				Lancamento lancamento = converter(atualizarRequest);
-				lancamento.setId(entity.getId());
-				service.atualizar(lancamento);
-				return ResponseEntity.ok(lancamento);
-			} catch (RegraNegocioException e) {
-				return ResponseEntity.badRequest().body(e.getMessage());
+	public ResponseEntity<?> atualizar( @PathVariable("id") Long id, @Valid @RequestBody AtualizarLancamentoRequest atualizarRequest,
+			@UsuarioAtual UsuarioPrincipal usuarioAtual) {
+		// o dono é conferido na leitura feita pelo serviço; trocar de usuário não é permitido.
+		if (!usuarioAtual.getId().equals(atualizarRequest.getUsuario())) {
+			return new ResponseEntity<>(MENSAGEM_OUTRO_USUARIO, HttpStatus.FORBIDDEN);
+		}
+		try {
+			return ResponseEntity.ok(service.atualizar(usuarioAtual.getId(), id, converter(atualizarRequest)));
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (AccessDeniedException e) {
+			return new ResponseEntity<>(MENSAGEM_OUTRO_USUARIO, HttpStatus.FORBIDDEN);
+		} catch (OptimisticLockingFailureException e) {
+			return new ResponseEntity<>(
+					"Lançamento alterado por outra requisição. Consulte-o novamente antes de alterar.", HttpStatus.CONFLICT);
+		}
+	}
+	
+	// JSON Merge Patch (RFC 7396): grava apenas os campos enviados, sem carregar o lançamento nem o usuário.
+	@PatchMapping(value = "{id}", consumes = {FORMATO_MERGE_PATCH, MediaType.APPLICATION_JSON_VALUE})
+	@PreAuthorize("hasAuthority('USUARIO')")
+	public ResponseEntity<?> alterar( @PathVariable("id") Long id, @RequestBody JsonNode patch,
+			@UsuarioAtual UsuarioPrincipal usuarioAtual ) {
+		if (!patch.isObject()) {
+			return ResponseEntity.badRequest().body("Informe um objeto JSON com os campos a alterar");
+		}
+		Iterator<Map.Entry<String, JsonNode>> campos = patch.fields();
+		while (campos.hasNext()) {
+			Map.Entry<String, JsonNode> campo = campos.next();
+			if (!CAMPOS_ALTERAVEIS.contains(campo.getKey())) {
+				return ResponseEntity.badRequest().body("Campo não pode ser alterado: " + campo.getKey());
+			}
+			// null no merge patch remove o campo, e nenhum campo do lançamento é opcional.
+			if (campo.getValue().isNull()) {
+				return ResponseEntity.badRequest().body("Campo não pode ser removido: " + campo.getKey());
+			}
+		}
+		
+		try {
+			AlterarLancamentoRequest alterarRequest = objectMapper.treeToValue(patch, AlterarLancamentoRequest.class);
+			Set<ConstraintViolation<AlterarLancamentoRequest>> violacoes = validator.validate(alterarRequest);
+			if (!violacoes.isEmpty()) {
+				ConstraintViolation<AlterarLancamentoRequest> violacao = violacoes.iterator().next();
+				return ResponseEntity.badRequest().body(violacao.getPropertyPath() + " " + violacao.getMessage());
 			}
-		}).orElseGet(() -> 
-			new ResponseEntity<>("Lancamento não encontrado na base de dados", HttpStatus.BAD_REQUEST));
+			if (alterarRequest.getUsuario() != null && !usuarioAtual.getId().equals(alterarRequest.getUsuario())) {
+				return new ResponseEntity<>(MENSAGEM_OUTRO_USUARIO, HttpStatus.FORBIDDEN);
+			}
+			return ResponseEntity.ok(service.alterar(usuarioAtual.getId(), id, alterarRequest.getVersao(), 
+					converter(alterarRequest)));
+		} catch (JsonProcessingException | IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Valores informados inválidos");
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (AccessDeniedException e) {
+			return new ResponseEntity<>(MENSAGEM_OUTRO_USUARIO, HttpStatus.FORBIDDEN);
+		} catch (OptimisticLockingFailureException e) {
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+		}
+	}
+	
+	// fechamento do mês: muitos lançamentos (ids ou ano e mês) com um único update, retornando as contagens.
+	@PutMapping("atualiza-status")
+	@PreAuthorize("hasAuthority('USUARIO')")
+	public ResponseEntity<?> atualizarStatusEmLote(@Valid @RequestBody AtualizarStatusLoteRequest atualizarStatusRequest,
+			@UsuarioAtual UsuarioPrincipal usuarioAtual) {
+		if (!usuarioAtual.getId().equals(atualizarStatusRequest.getUsuario())) {
+			return new ResponseEntity<>(MENSAGEM_OUTRO_USUARIO, HttpStatus.FORBIDDEN);
+		}
+		StatusLancamento status;
+		try {
+			status = StatusLancamento.valueOf(atualizarStatusRequest.getStatus());
+		} catch (IllegalArgumentException e) {
+			return new ResponseEntity<>("Status informado inválido", HttpStatus.BAD_REQUEST);
+		}
+		
+		boolean porIds = atualizarStatusRequest.getIds() != null && !atualizarStatusRequest.getIds().isEmpty();
+		boolean porPeriodo = atualizarStatusRequest.getAno() != null || atualizarStatusRequest.getMes() != null;
+		if (porIds == porPeriodo) {
+			return ResponseEntity.badRequest().body("Informe os ids dos lançamentos ou o período (ano e mês)");
+		}
+		
+		try {
+			return ResponseEntity.ok(porIds
+					? service.atualizarStatus(atualizarStatusRequest.getUsuario(), atualizarStatusRequest.getIds(), status)
+					: service.atualizarStatusNoPeriodo(atualizarStatusRequest.getUsuario(), 
+							atualizarStatusRequest.getAno(), atualizarStatusRequest.getMes(), status));
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (OptimisticLockingFailureException e) {
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+		}
 	}
 	
 	// alterado para validação de AtualizarStatusDTO para AtualizarStatusRequest.
 	@PutMapping("{id}/atualiza-status")
 	@PreAuthorize("hasAuthority('USUARIO')")
-	public ResponseEntity<?> atualizarStatus(@PathVariable("id") Long id, @Valid @RequestBody AtualizarStatusRequest atualizarStatusRequest) {
-		return service.obterPorId(id).map( entity -> {
-			StatusLancamento statusSelecionado = StatusLancamento.valueOf(atualizarStatusRequest.getStatus());
-			if(statusSelecionado == null)
-				return new ResponseEntity<>("Status informado inválido", HttpStatus.BAD_REQUEST);
-			try {
-				entity.setStatus(statusSelecionado);
-				service.atualizar(entity);
-				return ResponseEntity.ok(entity);
-			} catch (RegraNegocioException e) {
-				return ResponseEntity.badRequest().body(e.getMessage());
-			}
-		}).orElseGet(() -> 
-			new ResponseEntity<>("Lancamento não encontrado na base de dados", HttpStatus.BAD_REQUEST));
+	public ResponseEntity<?> atualizarStatus(@PathVariable("id") Long id, @Valid @RequestBody AtualizarStatusRequest atualizarStatusRequest,
+			@UsuarioAtual UsuarioPrincipal usuarioAtual) {
+		StatusLancamento statusSelecionado;
+		try {
+			statusSelecionado = StatusLancamento.valueOf(atualizarStatusRequest.getStatus());
+		} catch (IllegalArgumentException e) {
+			return new ResponseEntity<>("Status informado inválido", HttpStatus.BAD_REQUEST);
+		}
+		// update condicionado à versão, sem carregar a entidade nem regravar as demais colunas.
+		try {
+			return ResponseEntity.ok(service.atualizarStatus(usuarioAtual.getId(), id, atualizarStatusRequest.getVersao(), statusSelecionado));
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (AccessDeniedException e) {
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.FORBIDDEN);
+		} catch (OptimisticLockingFailureException e) {
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+		}
 	}
 		
 	@DeleteMapping("{id}")
 	@PreAuthorize("hasAuthority('USUARIO')")
-	public ResponseEntity<?> deletar( @PathVariable("id") Long id ){
-		return service.obterPorId(id).map( entity -> {
-			service.deletar(entity);
+	public ResponseEntity<?> deletar( @PathVariable("id") Long id, @UsuarioAtual UsuarioPrincipal usuarioAtual ){
+		try {
+			service.deletar(usuarioAtual.getId(), id);
 			return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-		}).orElseGet(() -> 
-			new ResponseEntity<>("Lancamento não encontrado na base de dados", HttpStatus.BAD_REQUEST));
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (AccessDeniedException e) {
+			return new ResponseEntity<>(MENSAGEM_OUTRO_USUARIO, HttpStatus.FORBIDDEN);
+		} catch (OptimisticLockingFailureException e) {
+			return new ResponseEntity<>(
+					"Lançamento alterado por outra requisição. Consulte-o novamente antes de excluir.", HttpStatus.CONFLICT);
+		}
 	}
 	
+	// exclusão em lote pelos ids ou pelos mesmos critérios da busca; com simulacao=true apenas conta.
+	@DeleteMapping
+	@PreAuthorize("hasAuthority('USUARIO')")
+	public ResponseEntity<?> deletarEmLote(
+			@RequestParam(value = "ids", required = false) List<Long> ids,
+			@RequestParam(value = "descricao", required = false) String descricao,
+			@RequestParam(value = "mes", required = false) Integer mes,
+			@RequestParam(value = "ano", required = false) Integer ano,
+			@RequestParam(value = "periodoInicial", required = false) String periodoInicial,
+			@RequestParam(value = "periodoFinal", required = false) String periodoFinal,
+			@RequestParam(value = "valorMinimo", required = false) BigDecimal valorMinimo,
+			@RequestParam(value = "valorMaximo", required = false) BigDecimal valorMaximo,
+			@RequestParam(value = "tipo", required = false) List<String> tipos,
+			@RequestParam(value = "status", required = false) List<String> status,
+			@RequestParam("usuario") Long usuarioId, // sempre requerido
+			@RequestParam(value = "simulacao", required = false, defaultValue = "false") boolean simulacao,
+			@UsuarioAtual UsuarioPrincipal usuarioAtual
+			) {
+		if (!usuarioAtual.getId().equals(usuarioId)) {
+			return new ResponseEntity<>(MENSAGEM_OUTRO_USUARIO, HttpStatus.FORBIDDEN);
+		}
+		boolean porIds = ids != null && !ids.isEmpty();
+		boolean porFiltro = (descricao != null && !descricao.isEmpty()) || mes != null || ano != null 
+				|| periodoInicial != null || periodoFinal != null || valorMinimo != null || valorMaximo != null 
+				|| (tipos != null && !tipos.isEmpty()) || (status != null && !status.isEmpty());
+		// sem nenhum critério além do usuário a exclusão apagaria todo o histórico.
+		if (porIds == porFiltro) {
+			return ResponseEntity.badRequest().body("Informe os ids dos lançamentos ou ao menos um critério de busca");
+		}
+		
+		try {
+			if (porIds) {
+				return ResponseEntity.ok(service.deletar(usuarioId, ids, simulacao));
+			}
+			FiltroLancamento filtro = criarFiltro(usuarioId, descricao, mes, ano, periodoInicial, periodoFinal, 
+					valorMinimo, valorMaximo, tipos, status).build();
+			return ResponseEntity.ok(service.deletar(filtro, simulacao));
+		} catch (IllegalArgumentException | DateTimeParseException e) {
+			return ResponseEntity.badRequest().body("Filtro de exclusão inválido");
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (OptimisticLockingFailureException e) {
+			return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+		}
+	}
+	
+	// tipo e status aceitam listas (ex.: status=PENDENTE,EFETIVADO), períodos no formato ano-mês (ex.: 2019-06)
+	// e a ordenação é uma lista de campos com "-" para decrescente (ex.: ordenacao=-valor,ano).
 	@GetMapping
 	public ResponseEntity<?> buscar(
 			@RequestParam(value = "descricao", required = false) String descricao,
 			@RequestParam(value = "mes", required = false) Integer mes,
-			@RequestParam(value = "ano", required = true) Integer ano,
-			@RequestParam(value = "tipo", required = false) String tipo,
-			@RequestParam(value = "status", required = false) String status,
-			@RequestParam("usuario") Long usuarioId // sempre requerido
+			@RequestParam(value = "ano", required = false) Integer ano,
+			@RequestParam(value = "periodoInicial", required = false) String periodoInicial,
+			@RequestParam(value = "periodoFinal", required = false) String periodoFinal,
+			@RequestParam(value = "valorMinimo", required = false) BigDecimal valorMinimo,
+			@RequestParam(value = "valorMaximo", required = false) BigDecimal valorMaximo,
+			@RequestParam(value = "tipo", required = false) List<String> tipos,
+			@RequestParam(value = "status", required = false) List<String> status,
+			@RequestParam(value = "ordenacao", required = false) List<String> ordenacao,
+			@RequestParam("usuario") Long usuarioId, // sempre requerido
+			@RequestParam(value = "limit", required = false) Integer limite,
+			@RequestParam(value = "cursor", required = false) String cursor,
+			WebRequest request
 			) {
-		Lancamento lancamentoFiltro = new Lancamento();
-		lancamentoFiltro.setDataCadastro(null); // necessário pois é preenchido automaticamente com now(). 
-		lancamentoFiltro.setDescricao(descricao);
-		lancamentoFiltro.setMes(mes);
-		lancamentoFiltro.setAno(ano);
-		if (tipo != null && tipo.length() > 0) {
-			lancamentoFiltro.setTipo(TipoLancamento.valueOf(tipo));
-		}
-		if (status != null && status.length() > 0) {
-			lancamentoFiltro.setStatus(StatusLancamento.valueOf(status));
-		}
-		Optional<Usuario> usuario = usuarioService.obterPorId(usuarioId);
-		if(!usuario.isPresent()) {
+		if(!usuarioService.obterPorId(usuarioId).isPresent()) {
 			return ResponseEntity.badRequest().body("Não foi possível realizar a busca. Usuário não encontrado para o id informado");
-		} else {
-			lancamentoFiltro.setUsuario(usuario.get());
 		}
 		
-		List<Lancamento> lancamentos = service.buscar(lancamentoFiltro);
-		return ResponseEntity.ok(lancamentos);
+		FiltroLancamento filtro;
+		try {
+			filtro = criarFiltro(usuarioId, descricao, mes, ano, periodoInicial, periodoFinal, valorMinimo, valorMaximo, tipos, status)
+					.ordenacao(ordenacao == null ? new ArrayList<>() : ordenacao)
+					.build();
+		} catch (IllegalArgumentException | DateTimeParseException e) {
+			return ResponseEntity.badRequest().body("Filtro de busca inválido");
+		}
+		
+		// a versão dos dados do usuário responde If-None-Match sem consultar os lançamentos.
+		String etag = versaoUsuarioService.obterEtag(usuarioId, "lancamentos");
+		if (request.checkNotModified(etag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CACHE_REVALIDAR).build();
+		}
+		
+		try {
+			// com limit ou cursor a resposta é paginada por keyset, sem eles mantém a lista completa.
+			if (limite != null || cursor != null) {
+				return ResponseEntity.ok().eTag(etag).cacheControl(CACHE_REVALIDAR).body(service.buscar(filtro, cursor, limite));
+			}
+			
+			List<LancamentoDTO> lancamentos = service.buscarDTO(filtro);
+			return ResponseEntity.ok().eTag(etag).cacheControl(CACHE_REVALIDAR).body(lancamentos);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	// pesquisa pelo índice de termos da descrição, ordenada pela relevância.
+	@GetMapping("pesquisa")
+	@PreAuthorize("hasAuthority('USUARIO')")
+	public ResponseEntity<?> pesquisar(
+			@RequestParam("usuario") Long usuarioId,
+			@RequestParam("texto") String texto,
+			@RequestParam(value = "limit", required = false) Integer limite,
+			@UsuarioAtual UsuarioPrincipal usuarioAtual
+			) {
+		// somente os próprios lançamentos; o usuário autenticado já existe, sem consultar usuarios.
+		if (!usuarioAtual.getId().equals(usuarioId)) {
+			return new ResponseEntity<>(MENSAGEM_OUTRO_USUARIO, HttpStatus.FORBIDDEN);
+		}
+		
+		try {
+			return ResponseEntity.ok(service.pesquisar(usuarioId, texto, limite));
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	// extrato bancário (csv ou ofx) lido em stream e gravado em lotes, com o resultado de cada linha.
+	@PostMapping("importar")
+	@PreAuthorize("hasAuthority('USUARIO')")
+	public ResponseEntity<?> importar(
+			@RequestParam("usuario") Long usuarioId,
+			@RequestParam("arquivo") MultipartFile arquivo,
+			@RequestParam(value = "formato", required = false) String formato,
+			@RequestParam(value = "charset", required = false, defaultValue = "UTF-8") String charset,
+			@UsuarioAtual UsuarioPrincipal usuarioAtual
+			) {
+		if (!usuarioAtual.getId().equals(usuarioId)) {
+			return new ResponseEntity<>(MENSAGEM_OUTRO_USUARIO, HttpStatus.FORBIDDEN);
+		}
+		
+		FormatoExtrato formatoExtrato;
+		Charset codificacao;
+		try {
+			formatoExtrato = FormatoExtrato.de(formato, arquivo.getOriginalFilename());
+			codificacao = Charset.forName(charset);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Formato ou codificação do extrato inválido");
+		}
+		
+		try (Reader extrato = new InputStreamReader(arquivo.getInputStream(), codificacao)) {
+			// o usuário autenticado é a referência de todas as linhas do extrato, sem consultar usuarios.
+			return ResponseEntity.ok(importacaoService.importar(usuarioAtual.obterUsuario(), formatoExtrato, extrato));
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	// json/ndjson para integrações e csv/xlsx para planilhas; as linhas são gravadas conforme lidas do cursor.
+	@GetMapping("exportar")
+	@PreAuthorize("hasAuthority('USUARIO')")
+	public ResponseEntity<?> exportar(
+			@RequestParam("usuario") Long usuarioId,
+			@RequestParam(value = "formato", defaultValue = "ndjson") String formato,
+			@RequestParam(value = "ano", required = false) Integer ano,
+			@UsuarioAtual UsuarioPrincipal usuarioAtual
+			) {
+		// somente os próprios lançamentos; o usuário autenticado já existe, sem consultar usuarios.
+		if (!usuarioAtual.getId().equals(usuarioId)) {
+			return new ResponseEntity<>(MENSAGEM_OUTRO_USUARIO, HttpStatus.FORBIDDEN);
+		}
+		FormatoExportacao formatoExportacao;
+		try {
+			formatoExportacao = FormatoExportacao.de(formato);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Formato de exportação inválido");
+		}
+		
+		FiltroLancamento filtro = FiltroLancamento.builder().usuario(usuarioId).ano(ano).build();
+		StreamingResponseBody corpo = formatoExportacao.isPlanilha() 
+				? saida -> exportarPlanilha(filtro, formatoExportacao, saida)
+				: saida -> exportarJson(filtro, formatoExportacao == FormatoExportacao.NDJSON, saida);
+		
+		String nomeArquivo = "lancamentos" + (ano != null ? "-" + ano : "") + "." + formatoExportacao.getExtensao();
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(formatoExportacao.getTipoConteudo()))
+				.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.builder("attachment").filename(nomeArquivo).build().toString())
+				.body(corpo);
 	}
 	
-	private LancamentoDTO converterDTO(Lancamento lancamento) {
-		return LancamentoDTO.builder()
-				.id(lancamento.getId())
-				.descricao(lancamento.getDescricao())
-				.ano(lancamento.getAno())
-				.mes(lancamento.getMes())
-				.valor(lancamento.getValor())
-				.tipo(lancamento.getTipo().name())
-				.status(lancamento.getStatus().name())
-				.usuario(lancamento.getUsuario().getId())
-				.build();
+	private void exportarJson(FiltroLancamento filtro, boolean ndjson, OutputStream saida) throws IOException {
+		JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+		if (ndjson) {
+			gerador.setRootValueSeparator(new SerializedString("\n"));
+		} else {
+			gerador.writeStartArray();
+		}
+		service.exportar(filtro, lancamento -> {
+			try {
+				gerador.writeObject(lancamento);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		if (ndjson) {
+			gerador.writeRaw('\n');
+		} else {
+			gerador.writeEndArray();
+		}
+		gerador.flush();
+	}
+	
+	private void exportarPlanilha(FiltroLancamento filtro, FormatoExportacao formato, OutputStream saida) throws IOException {
+		try (EscritorPlanilha escritor = EscritorPlanilha.de(formato, saida)) {
+			service.exportar(filtro, lancamento -> {
+				try {
+					escritor.escrever(lancamento);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+	}
+	
+	// critérios comuns à busca e à exclusão em lote; lança IllegalArgumentException ou DateTimeParseException se inválidos.
+	private FiltroLancamento.FiltroLancamentoBuilder criarFiltro(Long usuarioId, String descricao, Integer mes, Integer ano,
+			String periodoInicial, String periodoFinal, BigDecimal valorMinimo, BigDecimal valorMaximo, 
+			List<String> tipos, List<String> status) {
+		return FiltroLancamento.builder()
+				.usuario(usuarioId)
+				.descricao(descricao)
+				.ano(ano)
+				.mes(mes)
+				.periodoInicial(periodoInicial == null || periodoInicial.isEmpty() ? null : YearMonth.parse(periodoInicial))
+				.periodoFinal(periodoFinal == null || periodoFinal.isEmpty() ? null : YearMonth.parse(periodoFinal))
+				.valorMinimo(valorMinimo)
+				.valorMaximo(valorMaximo)
+				.tipos(converterEnums(tipos, TipoLancamento.class))
+				.status(converterEnums(status, StatusLancamento.class));
 	}
 	
-	private Lancamento converter(CadastroLancamentoRequest cadastroRequest) {
+	private <E extends Enum<E>> Set<E> converterEnums(List<String> valores, Class<E> tipo) {
+		Set<E> enums = EnumSet.noneOf(tipo);
+		if (valores != null) {
+			valores.stream()
+				.filter(valor -> valor != null && !valor.isEmpty())
+				.forEach(valor -> enums.add(Enum.valueOf(tipo, valor)));
+		}
+		return enums;
+	}
+	
+	// a mesma chave com outro conteúdo é um erro do cliente, não uma nova tentativa.
+	private String obterAssinatura(CadastroLancamentoRequest cadastroRequest) {
+		return String.join("|", cadastroRequest.getDescricao(), 
+				String.valueOf(cadastroRequest.getMes()), 
+				String.valueOf(cadastroRequest.getAno()),
+				cadastroRequest.getValor().stripTrailingZeros().toPlainString(), 
+				cadastroRequest.getTipo(), 
+				String.valueOf(cadastroRequest.getUsuario()));
+	}
+	
+	// o usuário é o autenticado (já conferido com o da requisição), sem consulta ao banco de dados.
+	private Lancamento converter(CadastroLancamentoRequest cadastroRequest, UsuarioPrincipal usuarioAtual) {
 		Lancamento lancamento = new Lancamento();
 		// lancamento.setId(dto.getId()); removido para cadastro novo não utiliza (Gerado pelo banco de dados)
 		lancamento.setDescricao(cadastroRequest.getDescricao());
@@ -170,19 +560,42 @@ public class LancamentoResource {
 		}
 		*/
 		
-		Usuario usuario = usuarioService
-				.obterPorId(cadastroRequest.getUsuario())
-				.orElseThrow(() -> new RegraNegocioException("Usuário não encontrado para o id informado"));
+		lancamento.setUsuario(usuarioAtual.obterUsuario());
+		
+		return lancamento;
+	}
+	
+	// somente os campos informados ficam preenchidos; o usuário leva apenas o id.
+	private Lancamento converter(AlterarLancamentoRequest alterarRequest) {
+		Lancamento lancamento = new Lancamento();
+		lancamento.setDescricao(alterarRequest.getDescricao());
+		lancamento.setMes(alterarRequest.getMes());
+		lancamento.setAno(alterarRequest.getAno());
+		lancamento.setValor(alterarRequest.getValor());
+		
+		if(alterarRequest.getTipo() != null) {
+			lancamento.setTipo(TipoLancamento.valueOf(alterarRequest.getTipo()));
+		}
+		
+		if(alterarRequest.getStatus() != null) {
+			lancamento.setStatus(StatusLancamento.valueOf(alterarRequest.getStatus()));
+		}
 		
-		lancamento.setUsuario(usuario);
+		if(alterarRequest.getUsuario() != null) {
+			Usuario usuario = new Usuario();
+			usuario.setId(alterarRequest.getUsuario());
+			lancamento.setUsuario(usuario);
+		}
 		
 		return lancamento;
 	}
 	
 	// Separamos o converter em cadastrar e atualizar para implementar a validação.
+	// sem o usuário: o serviço atualiza o lançamento já carregado, que mantém o dono.
 	private Lancamento converter(AtualizarLancamentoRequest atualizarRequest) {
 		Lancamento lancamento = new Lancamento();
 		lancamento.setId(atualizarRequest.getId());
+		lancamento.setVersao(atualizarRequest.getVersao());
 		lancamento.setDescricao(atualizarRequest.getDescricao());
 		lancamento.setMes(atualizarRequest.getMes());
 		lancamento.setAno(atualizarRequest.getAno());
@@ -193,12 +606,6 @@ public class LancamentoResource {
 			lancamento.setStatus(StatusLancamento.valueOf(atualizarRequest.getStatus()));
 		}
 		
-		Usuario usuario = usuarioService
-				.obterPorId(atualizarRequest.getUsuario())
-				.orElseThrow(() -> new RegraNegocioException("Usuário não encontrado para o id informado"));
-		
-		lancamento.setUsuario(usuario);
-		
 		return lancamento;
 	}
 	
@@ -0,0 +1,102 @@
+package br.com.hioktec.minhasfinancas.api.resource;
+
+import javax.validation.Valid;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import br.com.hioktec.minhasfinancas.api.dto.RecorrenciaDTO;
+import br.com.hioktec.minhasfinancas.exception.RegraNegocioException;
+import br.com.hioktec.minhasfinancas.model.entity.Recorrencia;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import br.com.hioktec.minhasfinancas.request.CadastroRecorrenciaRequest;
+import br.com.hioktec.minhasfinancas.security.UsuarioAtual;
+import br.com.hioktec.minhasfinancas.security.UsuarioPrincipal;
+import br.com.hioktec.minhasfinancas.service.RecorrenciaService;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/recorrencias")
+@RequiredArgsConstructor
+public class RecorrenciaResource {
+	
+	private static final String MENSAGEM_OUTRO_USUARIO = "Recorrência pertence a outro usuário";
+	
+	private final RecorrenciaService service;
+	
+	// parcelamentos ("12x de 150,00") e contas mensais; as parcelas até o horizonte são geradas em um único lote.
+	@PostMapping
+	@PreAuthorize("hasAuthority('USUARIO')")
+	public ResponseEntity<?> salvar(@Valid @RequestBody CadastroRecorrenciaRequest cadastroRequest,
+			@UsuarioAtual UsuarioPrincipal usuarioAtual) {
+		if (!usuarioAtual.getId().equals(cadastroRequest.getUsuario())) {
+			return new ResponseEntity<>(MENSAGEM_OUTRO_USUARIO, HttpStatus.FORBIDDEN);
+		}
+		try {
+			Recorrencia recorrencia = converter(cadastroRequest, usuarioAtual);
+			recorrencia = service.salvar(recorrencia);
+			return new ResponseEntity<>(converter(recorrencia), HttpStatus.CREATED);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	// gera as parcelas pendentes até o horizonte e retorna quantas foram geradas (zero se já estava em dia).
+	@PostMapping("{id}/gerar")
+	@PreAuthorize("hasAuthority('USUARIO')")
+	public ResponseEntity<?> gerar(@PathVariable("id") Long id, @UsuarioAtual UsuarioPrincipal usuarioAtual) {
+		try {
+			return ResponseEntity.ok(service.gerar(usuarioAtual.getId(), id));
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (AccessDeniedException e) {
+			return new ResponseEntity<>(MENSAGEM_OUTRO_USUARIO, HttpStatus.FORBIDDEN);
+		}
+	}
+	
+	// o usuário autenticado é a referência da recorrência e das parcelas, sem consultar usuarios.
+	private Recorrencia converter(CadastroRecorrenciaRequest cadastroRequest, UsuarioPrincipal usuarioAtual) {
+		TipoLancamento tipo;
+		try {
+			tipo = TipoLancamento.valueOf(cadastroRequest.getTipo());
+		} catch (IllegalArgumentException e) {
+			throw new RegraNegocioException("Informe um Tipo válido.");
+		}
+		
+		return Recorrencia.builder()
+				.descricao(cadastroRequest.getDescricao())
+				.ano(cadastroRequest.getAno())
+				.mes(cadastroRequest.getMes())
+				.valor(cadastroRequest.getValor())
+				.tipo(tipo)
+				.parcelas(cadastroRequest.getParcelas())
+				.anoFinal(cadastroRequest.getAnoFinal())
+				.mesFinal(cadastroRequest.getMesFinal())
+				.usuario(usuarioAtual.obterUsuario())
+				.build();
+	}
+	
+	// a resposta traz só o id do usuário, sem os dados da entidade Usuario.
+	private RecorrenciaDTO converter(Recorrencia recorrencia) {
+		return RecorrenciaDTO.builder()
+				.id(recorrencia.getId())
+				.descricao(recorrencia.getDescricao())
+				.valor(recorrencia.getValor())
+				.tipo(recorrencia.getTipo().name())
+				.ano(recorrencia.getAno())
+				.mes(recorrencia.getMes())
+				.parcelas(recorrencia.getParcelas())
+				.anoFinal(recorrencia.getAnoFinal())
+				.mesFinal(recorrencia.getMesFinal())
+				.ultimaParcela(recorrencia.getUltimaParcela())
+				.usuario(recorrencia.getUsuario().getId())
+				.build();
+	}
+}
@@ -5,18 +5,19 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import javax.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,11 +25,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import br.com.hioktec.minhasfinancas.exception.RegraNegocioException;
+import br.com.hioktec.minhasfinancas.exception.SobrecargaException;
 import br.com.hioktec.minhasfinancas.model.entity.Autoridade;
 import br.com.hioktec.minhasfinancas.model.entity.Usuario;
 import br.com.hioktec.minhasfinancas.model.enums.AutoridadeNome;
@@ -41,8 +45,12 @@ import br.com.hioktec.minhasfinancas.response.UsuarioResponse;
 import br.com.hioktec.minhasfinancas.security.JwtTokenProvider;
 import br.com.hioktec.minhasfinancas.security.UsuarioAtual;
 import br.com.hioktec.minhasfinancas.security.UsuarioPrincipal;
+import br.com.hioktec.minhasfinancas.service.AutenticacaoService;
+import br.com.hioktec.minhasfinancas.service.CachePrincipalService;
 import br.com.hioktec.minhasfinancas.service.LancamentoService;
+import br.com.hioktec.minhasfinancas.service.ResumoMensalService;
 import br.com.hioktec.minhasfinancas.service.UsuarioService;
+import br.com.hioktec.minhasfinancas.service.VersaoUsuarioService;
 import lombok.RequiredArgsConstructor;
 
 @RestController // controller do spring já injeta a dependencia UsuarioService do construtor
@@ -67,8 +75,13 @@ public class UsuarioResource {
 	
 	private final LancamentoService lancamentoService;
 	
-	@Autowired
-	AuthenticationManager authenticationManager;
+	private final ResumoMensalService resumoMensalService;
+	
+	private final VersaoUsuarioService versaoUsuarioService;
+	
+	private final CachePrincipalService cachePrincipalService;
+	
+	private final AutenticacaoService autenticacaoService;
 	
 	@Autowired
 	JwtTokenProvider tokenProvider;
@@ -134,8 +147,9 @@ public class UsuarioResource {
 		}
 	}
 	
+	// assíncrono: a thread do Tomcat é liberada enquanto o BCrypt roda no executor de autenticação.
 	@PostMapping("/autenticar")
-	public ResponseEntity<?> autenticar(@Valid @RequestBody LoginRequest loginRequest) { // mudamos de UsuarioDTO para LoginRequest: JWT
+	public CompletableFuture<ResponseEntity<?>> autenticar(@Valid @RequestBody LoginRequest loginRequest) { // mudamos de UsuarioDTO para LoginRequest: JWT
 		/* removermos esta parte para implementar a segurança JWT
 		 * try {
 		 *	Usuario usuarioAutenticado = service.autenticar(dto.getEmail(), dto.getSenha());
@@ -144,16 +158,23 @@ public class UsuarioResource {
 		 *	return ResponseEntity.badRequest().body(e.getMessage());
 		 * }
 		 */
-		Authentication autenticacao = authenticationManager.authenticate(
-				new UsernamePasswordAuthenticationToken(
-						loginRequest.getNomeUsuarioOuEmail(),
-						loginRequest.getSenha()));
-		
-		SecurityContextHolder.getContext().setAuthentication(autenticacao);
-		
-		String jwt = tokenProvider.gerarToken(autenticacao);
-		
-		return ResponseEntity.ok(new JwtResponse(jwt));
+		try {
+			return autenticacaoService.autenticar(loginRequest.getNomeUsuarioOuEmail(), loginRequest.getSenha())
+					.<ResponseEntity<?>>thenApply(autenticacao ->
+						ResponseEntity.ok(new JwtResponse(tokenProvider.gerarToken(autenticacao))))
+					.exceptionally(e -> {
+						// credenciais inválidas mantêm a resposta 401 de antes.
+						Throwable causa = e instanceof CompletionException ? e.getCause() : e;
+						if (causa instanceof AuthenticationException) {
+							return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(causa.getMessage());
+						}
+						throw new CompletionException(causa);
+					});
+		} catch (SobrecargaException e) {
+			return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+					.header(HttpHeaders.RETRY_AFTER, "1")
+					.body(e.getMessage()));
+		}
 	}
 	
 	@GetMapping("/eu")
@@ -168,16 +189,92 @@ public class UsuarioResource {
 		return new UsuarioResponse(usuarioAtual.getId(), usuarioAtual.getNome(), usuarioAtual.getUsername(), isAdmin);
 	}
 	
+	// logout: o token usado na requisição deixa de ser aceito, mesmo que ainda não tenha expirado.
+	@PostMapping("/sair")
+	@PreAuthorize("hasAuthority('USUARIO')")
+	public ResponseEntity<?> sair(@RequestHeader("autorizacao") String autorizacao) {
+		if (!tokenProvider.revogarToken(tokenProvider.obterTokenDoCabecalho(autorizacao))) {
+			return ResponseEntity.badRequest().body("Token sem identificador (jti): faça login novamente para obter um token revogável.");
+		}
+		return ResponseEntity.noContent().build();
+	}
+	
 	@GetMapping("{id}/saldo")
 	@PreAuthorize("hasAuthority('USUARIO')")
-	public ResponseEntity<?> obterSaldo(@PathVariable("id") Long id) {
+	public ResponseEntity<?> obterSaldo(@PathVariable("id") Long id, WebRequest request) {
 		Optional<Usuario> usuario = service.obterPorId(id);
 		
 		if(!usuario.isPresent())
 			return new ResponseEntity<>(HttpStatus.NOT_FOUND);
 		
+		// o saldo só muda com escritas de lançamentos, então a versão do usuário serve de ETag.
+		String etag = versaoUsuarioService.obterEtag(id, "saldo");
+		CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+		if (request.checkNotModified(etag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+		}
+		
 		BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(id);
-		return ResponseEntity.ok(saldo);
+		return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(saldo);
+	}
+	
+	// realizado, pendente e projetado em uma única consulta agregada.
+	@GetMapping("{id}/saldo/detalhado")
+	@PreAuthorize("hasAuthority('USUARIO')")
+	public ResponseEntity<?> obterSaldoDetalhado(@PathVariable("id") Long id) {
+		if(!service.obterPorId(id).isPresent())
+			return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+		
+		return ResponseEntity.ok(lancamentoService.obterSaldoDetalhadoPorUsuario(id));
+	}
+	
+	// saldo na posição do fim do mês informado.
+	@GetMapping("{id}/saldo/{ano}/{mes}")
+	@PreAuthorize("hasAuthority('USUARIO')")
+	public ResponseEntity<?> obterSaldoPorPeriodo(
+			@PathVariable("id") Long id,
+			@PathVariable("ano") Integer ano,
+			@PathVariable("mes") Integer mes) {
+		if(!service.obterPorId(id).isPresent())
+			return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+		
+		try {
+			return ResponseEntity.ok(lancamentoService.obterSaldoPorUsuarioEPeriodo(id, ano, mes));
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+
+	// compara o saldo materializado com a soma de todos os lançamentos e corrige se houver divergência.
+	@PostMapping("{id}/saldo/reconciliar")
+	@PreAuthorize("hasAuthority('ADMINISTRADOR')")
+	public ResponseEntity<?> reconciliarSaldo(@PathVariable("id") Long id) {
+		if(!service.obterPorId(id).isPresent())
+			return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+
+		return ResponseEntity.ok(lancamentoService.reconciliarSaldoPorUsuario(id));
+	}
+	
+	// os doze meses do ano em uma única consulta aos resumos mensais.
+	@GetMapping("{id}/fluxo-caixa")
+	@PreAuthorize("hasAuthority('USUARIO')")
+	public ResponseEntity<?> obterFluxoCaixa(
+			@PathVariable("id") Long id,
+			@RequestParam(value = "ano", required = true) Integer ano) {
+		if(!service.obterPorId(id).isPresent())
+			return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+		
+		return ResponseEntity.ok(resumoMensalService.obterFluxoCaixa(id, ano));
+	}
+	
+	@PostMapping("{id}/fluxo-caixa/reconstruir")
+	@PreAuthorize("hasAuthority('ADMINISTRADOR')")
+	public ResponseEntity<?> reconstruirFluxoCaixa(@PathVariable("id") Long id) {
+		if(!service.obterPorId(id).isPresent())
+			return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+		
+		resumoMensalService.reconstruir(id);
+		return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 	}
 	
 	// adicionando gerenciamento de usuários pelos admins.
@@ -198,6 +295,20 @@ public class UsuarioResource {
 		return ResponseEntity.ok(usuarios);
 	}
 	
+	// acertos e falhas do cache de usuários autenticados usado pelo filtro JWT.
+	@GetMapping("/cache-autenticacao")
+	@PreAuthorize("hasAuthority('ADMINISTRADOR')")
+	public ResponseEntity<?> obterEstatisticasCacheAutenticacao() {
+		return ResponseEntity.ok(cachePrincipalService.obterEstatisticas());
+	}
+	
+	// verificações de senha concluídas, rejeitadas por fila cheia e tempo médio do executor de autenticação.
+	@GetMapping("/estatisticas-autenticacao")
+	@PreAuthorize("hasAuthority('ADMINISTRADOR')")
+	public ResponseEntity<?> obterEstatisticasAutenticacao() {
+		return ResponseEntity.ok(autenticacaoService.obterEstatisticas());
+	}
+	
 	@GetMapping("{id}")
 	@PreAuthorize("hasAuthority('ADMINISTRADOR')")
 	public ResponseEntity<?> obterUsuario(@PathVariable Long id){
@@ -248,7 +359,9 @@ public class UsuarioResource {
 				
 				usuario.setAutoridades(autoridades);
 				
-				usuario.setSenha(passwordEncoder.encode(usuario.getSenha()));
+				// mesma senha mantém o hash gravado: um novo hash seria tratado como troca de credencial.
+				usuario.setSenha(passwordEncoder.matches(usuario.getSenha(), entity.getSenha())
+						? entity.getSenha() : passwordEncoder.encode(usuario.getSenha()));
 				
 				System.out.println(usuario.toString());
 				Usuario usuarioAtualizado = service.atualizar(usuario);
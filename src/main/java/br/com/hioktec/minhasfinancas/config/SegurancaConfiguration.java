@@ -1,6 +1,7 @@
 package br.com.hioktec.minhasfinancas.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,10 +12,10 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import br.com.hioktec.minhasfinancas.security.CustoBCryptPasswordEncoder;
 import br.com.hioktec.minhasfinancas.security.CustomUserDetailsService;
 import br.com.hioktec.minhasfinancas.security.JwtAuthenticationEntryPoint;
 import br.com.hioktec.minhasfinancas.security.JwtAuthenticationFilter;
@@ -39,9 +40,13 @@ public class SegurancaConfiguration extends WebSecurityConfigurerAdapter{
 		return new JwtAuthenticationFilter();
 	}
 	
+	// custo do BCrypt ajustável pela latência medida do login; hashes com outro custo são regravados no login.
+	@Value("${app.senha.custo:10}")
+	private int custoSenha;
+	
 	@Bean
 	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+		return new CustoBCryptPasswordEncoder(custoSenha);
 	}
 	
 	@Override
@@ -0,0 +1,14 @@
+package br.com.hioktec.minhasfinancas.exception;
+
+public class ConflitoIdempotenciaException extends RuntimeException {
+
+	/**
+	 * serialVersionUID autogerado.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public ConflitoIdempotenciaException(String msg) {
+		super(msg);
+	}
+	
+}
@@ -0,0 +1,14 @@
+package br.com.hioktec.minhasfinancas.exception;
+
+public class SobrecargaException extends RuntimeException {
+
+	/**
+	 * serialVersionUID autogerado.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public SobrecargaException(String msg) {
+		super(msg);
+	}
+	
+}
@@ -0,0 +1,39 @@
+package br.com.hioktec.minhasfinancas.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.hioktec.minhasfinancas.service.RecorrenciaService;
+
+/**
+ * Tarefa agendada que avança as recorrências conforme o horizonte anda com o calendário,
+ * gerando as parcelas que passaram a caber nele, com uma transação por recorrência.
+ * @author rodolfo
+ */
+@Component
+public class GeracaoRecorrenciasJob {
+	
+	private static final Logger logger = LoggerFactory.getLogger(GeracaoRecorrenciasJob.class);
+	
+	private RecorrenciaService recorrenciaService;
+	
+	public GeracaoRecorrenciasJob(RecorrenciaService recorrenciaService) {
+		this.recorrenciaService = recorrenciaService;
+	}
+
+	@Scheduled(cron = "${app.recorrencias.cron:0 0 3 * * *}")
+	public void gerar() {
+		int parcelas = 0;
+		for (Long recorrenciaId : recorrenciaService.obterPendentes()) {
+			try {
+				parcelas += recorrenciaService.gerar(recorrenciaId);
+			} catch (Exception ex) {
+				logger.error("Não foi possível gerar as parcelas da recorrência {}", recorrenciaId, ex);
+			}
+		}
+		logger.info("{} parcelas de recorrências geradas", parcelas);
+	}
+	
+}
@@ -0,0 +1,37 @@
+package br.com.hioktec.minhasfinancas.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.hioktec.minhasfinancas.service.RevogacaoTokenService;
+
+/**
+ * Tarefa agendada que recria o filtro em memória dos tokens revogados a partir da tabela tokens_revogados,
+ * descartando os registros já expirados. A primeira execução ocorre na inicialização; até ela, as verificações
+ * consultam o banco. Também traz as revogações feitas pelas demais instâncias da aplicação.
+ * @author rodolfo
+ */
+@Component
+public class ReconstrucaoFiltroRevogacaoJob {
+	
+	private static final Logger logger = LoggerFactory.getLogger(ReconstrucaoFiltroRevogacaoJob.class);
+	
+	private RevogacaoTokenService revogacaoTokenService;
+	
+	public ReconstrucaoFiltroRevogacaoJob(RevogacaoTokenService revogacaoTokenService) {
+		this.revogacaoTokenService = revogacaoTokenService;
+	}
+	
+	@Scheduled(fixedDelayString = "${app.revogacao.reconstruirMillis:300000}")
+	public void reconstruir() {
+		try {
+			int revogados = revogacaoTokenService.reconstruirFiltro();
+			logger.info("Filtro de tokens revogados reconstruído com {} tokens", revogados);
+		} catch (Exception ex) {
+			logger.error("Não foi possível reconstruir o filtro de tokens revogados", ex);
+		}
+	}
+	
+}
@@ -0,0 +1,49 @@
+package br.com.hioktec.minhasfinancas.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import br.com.hioktec.minhasfinancas.repository.LancamentoRepository;
+import br.com.hioktec.minhasfinancas.service.PesquisaLancamentoService;
+
+/**
+ * Tarefa de carga (backfill) que reconstrói o índice de pesquisa da descrição dos lançamentos.
+ * Executada na inicialização quando a propriedade app.indicePesquisa.reconstruir=true,
+ * com uma transação por usuário.
+ * @author rodolfo
+ */
+@Component
+@ConditionalOnProperty(name = "app.indicePesquisa.reconstruir", havingValue = "true")
+public class ReconstrucaoIndicePesquisaJob implements ApplicationRunner {
+	
+	private static final Logger logger = LoggerFactory.getLogger(ReconstrucaoIndicePesquisaJob.class);
+	
+	private PesquisaLancamentoService pesquisaLancamentoService;
+	
+	private LancamentoRepository lancamentoRepository;
+	
+	public ReconstrucaoIndicePesquisaJob(PesquisaLancamentoService pesquisaLancamentoService,
+			LancamentoRepository lancamentoRepository) {
+		this.pesquisaLancamentoService = pesquisaLancamentoService;
+		this.lancamentoRepository = lancamentoRepository;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		int reconstruidos = 0;
+		for (Long usuarioId : lancamentoRepository.obterUsuariosComLancamentos()) {
+			try {
+				pesquisaLancamentoService.reconstruir(usuarioId);
+				reconstruidos++;
+			} catch (Exception ex) {
+				logger.error("Não foi possível reconstruir o índice de pesquisa do usuário {}", usuarioId, ex);
+			}
+		}
+		logger.info("Índice de pesquisa reconstruído para {} usuários", reconstruidos);
+	}
+	
+}
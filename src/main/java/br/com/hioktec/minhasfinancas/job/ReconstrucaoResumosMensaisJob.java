@@ -0,0 +1,44 @@
+package br.com.hioktec.minhasfinancas.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import br.com.hioktec.minhasfinancas.service.ResumoMensalService;
+
+/**
+ * Tarefa de carga (backfill) que reconstrói os resumos mensais a partir da tabela de lançamentos.
+ * Executada na inicialização quando a propriedade app.resumosMensais.reconstruir=true,
+ * com uma transação por usuário.
+ * @author rodolfo
+ */
+@Component
+@ConditionalOnProperty(name = "app.resumosMensais.reconstruir", havingValue = "true")
+public class ReconstrucaoResumosMensaisJob implements ApplicationRunner {
+	
+	private static final Logger logger = LoggerFactory.getLogger(ReconstrucaoResumosMensaisJob.class);
+	
+	private ResumoMensalService resumoMensalService;
+	
+	public ReconstrucaoResumosMensaisJob(ResumoMensalService resumoMensalService) {
+		this.resumoMensalService = resumoMensalService;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		int reconstruidos = 0;
+		for (Long usuarioId : resumoMensalService.obterUsuariosComLancamentos()) {
+			try {
+				resumoMensalService.reconstruir(usuarioId);
+				reconstruidos++;
+			} catch (Exception ex) {
+				logger.error("Não foi possível reconstruir os resumos mensais do usuário {}", usuarioId, ex);
+			}
+		}
+		logger.info("Resumos mensais reconstruídos para {} usuários", reconstruidos);
+	}
+	
+}
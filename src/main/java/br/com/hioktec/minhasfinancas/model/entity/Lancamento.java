@@ -13,7 +13,13 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.Version;
 import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Digits;
 import javax.validation.constraints.Max;
@@ -25,12 +31,17 @@ import javax.validation.constraints.Size;
 
 import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
 import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.EstadoLancamento;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Table(name = "lancamentos", schema = "financas")
@@ -40,8 +51,10 @@ import lombok.NoArgsConstructor;
 @Builder
 public class Lancamento {
 	
+	// sequência com blocos de 50 ids (pooled): permite agrupar os inserts em lotes jdbc, o que identity impede.
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamentos_seq")
+	@SequenceGenerator(name = "lancamentos_seq", schema = "financas", sequenceName = "lancamentos_seq", allocationSize = 50)
 	@Column(name = "id")
 	private Long id;
 	
@@ -84,10 +97,40 @@ public class Lancamento {
 	@JoinColumn(name = "id_usuario")
 	private Usuario usuario;
 	
+	// recorrência e número da parcela que geraram o lançamento; não mudam nas atualizações.
+	@Column(name = "id_recorrencia", updatable = false)
+	private Long recorrencia;
+	
+	@Column(name = "parcela", updatable = false)
+	private Integer parcela;
+	
+	// controle de concorrência otimista: atualizações com versão desatualizada são rejeitadas.
+	@Version
+	@Column(name = "versao")
+	private Long versao;
+	
 	@Column(name = "data_cadastro")
 	@Convert(converter = Jsr310JpaConverters.LocalDateConverter.class)
 	@Builder.Default
 	private LocalDate dataCadastro = LocalDate.now();
+	
+	// estado lido ou gravado no banco de dados, usado para calcular os deltas dos saldos materializados.
+	@Transient
+	@JsonIgnore
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private EstadoLancamento estadoPersistido;
+	
+	public EstadoLancamento obterEstado() {
+		return new EstadoLancamento(usuario != null ? usuario.getId() : null, ano, mes, tipo, status, valor, descricao);
+	}
+	
+	@PostLoad
+	@PostPersist
+	@PostUpdate
+	public void registrarEstadoPersistido() {
+		this.estadoPersistido = obterEstado();
+	}
 
 }
 
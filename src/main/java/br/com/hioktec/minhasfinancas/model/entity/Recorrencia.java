@@ -0,0 +1,139 @@
+package br.com.hioktec.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Digits;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Modelo de lançamento repetido todo mês: N parcelas, até um mês final ou sem fim.
+ * As parcelas são geradas como lançamentos apenas até o horizonte configurado; ultimaParcela guarda até onde foi gerado.
+ * @author rodolfo
+ */
+@Entity
+@Table(name = "recorrencias", schema = "financas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Recorrencia {
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "id")
+	private Long id;
+	
+	// deixa espaço para o sufixo " (n/N)" das parcelas.
+	@Column(name = "descricao")
+	@NotBlank
+	@Size(max = 240)
+	private String descricao;
+	
+	@Column(name = "valor")
+	@NotNull
+	@DecimalMin(value = "0.01", inclusive = true)
+	@Digits(integer = 16, fraction = 2)
+	private BigDecimal valor;
+	
+	@Column(name = "tipo", length = 20)
+	@NotNull
+	@Enumerated(value = EnumType.STRING)
+	private TipoLancamento tipo;
+	
+	// mês da primeira parcela.
+	@Column(name = "ano")
+	@NotNull
+	private Integer ano;
+	
+	@Column(name = "mes")
+	@NotNull
+	@Min(value = 1)
+	@Max(value = 12)
+	private Integer mes;
+	
+	// quantidade de parcelas; nula para repetir até o mês final ou indefinidamente.
+	@Column(name = "parcelas")
+	private Integer parcelas;
+	
+	@Column(name = "ano_final")
+	private Integer anoFinal;
+	
+	@Column(name = "mes_final")
+	private Integer mesFinal;
+	
+	@Column(name = "ultima_parcela")
+	@NotNull
+	@Builder.Default
+	private Integer ultimaParcela = 0;
+	
+	@ManyToOne
+	@JoinColumn(name = "id_usuario")
+	private Usuario usuario;
+	
+	@Column(name = "data_cadastro")
+	@Convert(converter = Jsr310JpaConverters.LocalDateConverter.class)
+	@Builder.Default
+	private LocalDate dataCadastro = LocalDate.now();
+	
+	public YearMonth obterPeriodoDaParcela(int parcela) {
+		return YearMonth.of(ano, mes).plusMonths(parcela - 1);
+	}
+	
+	// última parcela da regra, ou Integer.MAX_VALUE para as recorrências sem fim.
+	public int obterTotalParcelas() {
+		if (parcelas != null) {
+			return parcelas;
+		}
+		if (anoFinal != null && mesFinal != null) {
+			return (int) ChronoUnit.MONTHS.between(YearMonth.of(ano, mes), YearMonth.of(anoFinal, mesFinal)) + 1;
+		}
+		return Integer.MAX_VALUE;
+	}
+	
+	// última parcela cujo mês não passa do horizonte.
+	public int obterParcelaNoHorizonte(YearMonth horizonte) {
+		long meses = ChronoUnit.MONTHS.between(YearMonth.of(ano, mes), horizonte) + 1;
+		return (int) Math.max(0, Math.min(meses, obterTotalParcelas()));
+	}
+	
+	public Lancamento criarParcela(int parcela) {
+		YearMonth periodo = obterPeriodoDaParcela(parcela);
+		Lancamento lancamento = new Lancamento();
+		lancamento.setDescricao(parcelas != null ? descricao + " (" + parcela + "/" + parcelas + ")" : descricao);
+		lancamento.setAno(periodo.getYear());
+		lancamento.setMes(periodo.getMonthValue());
+		lancamento.setValor(valor);
+		lancamento.setTipo(tipo);
+		lancamento.setUsuario(usuario);
+		lancamento.setRecorrencia(id);
+		lancamento.setParcela(parcela);
+		return lancamento;
+	}
+}
@@ -0,0 +1,37 @@
+package br.com.hioktec.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totais de lançamentos agregados por usuário, ano, mês, tipo e status,
+ * mantidos por delta a cada escrita de lançamento.
+ * @author rodolfo
+ */
+@Entity
+@Table(name = "resumos_mensais", schema = "financas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMensal {
+	
+	@EmbeddedId
+	private ResumoMensalId id;
+	
+	@Column(name = "valor")
+	@NotNull
+	private BigDecimal valor;
+	
+	@Column(name = "quantidade")
+	@NotNull
+	private Long quantidade;
+}
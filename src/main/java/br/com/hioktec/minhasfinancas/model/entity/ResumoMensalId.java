@@ -0,0 +1,44 @@
+package br.com.hioktec.minhasfinancas.model.entity;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+
+import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Chave composta do resumo mensal: usuário, período (ano e mês), tipo e status dos lançamentos.
+ * @author rodolfo
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMensalId implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Column(name = "id_usuario")
+	private Long usuario;
+	
+	@Column(name = "ano")
+	private Integer ano;
+	
+	@Column(name = "mes")
+	private Integer mes;
+	
+	@Column(name = "tipo", length = 20)
+	@Enumerated(value = EnumType.STRING)
+	private TipoLancamento tipo;
+	
+	@Column(name = "status", length = 20)
+	@Enumerated(value = EnumType.STRING)
+	private StatusLancamento status;
+}
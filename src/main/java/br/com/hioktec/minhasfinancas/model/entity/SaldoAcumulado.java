@@ -0,0 +1,33 @@
+package br.com.hioktec.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Soma de prefixos do saldo efetivado: cada linha guarda o saldo do usuário ao final do período,
+ * existindo apenas para os períodos com lançamentos efetivados.
+ * @author rodolfo
+ */
+@Entity
+@Table(name = "saldos_acumulados", schema = "financas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoAcumulado {
+	
+	@EmbeddedId
+	private SaldoAcumuladoId id;
+	
+	@Column(name = "valor")
+	@NotNull
+	private BigDecimal valor;
+}
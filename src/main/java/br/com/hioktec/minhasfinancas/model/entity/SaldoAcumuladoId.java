@@ -0,0 +1,29 @@
+package br.com.hioktec.minhasfinancas.model.entity;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Chave composta do saldo acumulado: usuário e período no formato ano * 100 + mês (ex.: 202003).
+ * @author rodolfo
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoAcumuladoId implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Column(name = "id_usuario")
+	private Long usuario;
+	
+	@Column(name = "periodo")
+	private Integer periodo;
+}
@@ -0,0 +1,42 @@
+package br.com.hioktec.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Saldo materializado por usuário: totais de receitas e despesas efetivadas,
+ * mantidos por delta a cada escrita de lançamento.
+ * @author rodolfo
+ */
+@Entity
+@Table(name = "saldos_usuarios", schema = "financas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoUsuario {
+	
+	@Id
+	@Column(name = "id_usuario")
+	private Long usuarioId;
+	
+	@Column(name = "receitas")
+	@NotNull
+	private BigDecimal receitas;
+	
+	@Column(name = "despesas")
+	@NotNull
+	private BigDecimal despesas;
+	
+	public BigDecimal getSaldo() {
+		return receitas.subtract(despesas);
+	}
+}
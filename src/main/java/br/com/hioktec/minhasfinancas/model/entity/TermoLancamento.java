@@ -0,0 +1,25 @@
+package br.com.hioktec.minhasfinancas.model.entity;
+
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entrada do índice invertido da descrição dos lançamentos: um termo normalizado por lançamento.
+ * Mantido pelo serviço de lançamentos na mesma transação das escritas.
+ * @author rodolfo
+ */
+@Entity
+@Table(name = "lancamentos_termos", schema = "financas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TermoLancamento {
+	
+	@EmbeddedId
+	private TermoLancamentoId id;
+}
@@ -0,0 +1,33 @@
+package br.com.hioktec.minhasfinancas.model.entity;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Chave composta do índice de pesquisa: usuário, termo e lançamento.
+ * A ordem das colunas permite localizar os lançamentos de um termo do usuário por busca no índice.
+ * @author rodolfo
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TermoLancamentoId implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Column(name = "id_usuario")
+	private Long usuario;
+	
+	@Column(name = "termo", length = 60)
+	private String termo;
+	
+	@Column(name = "id_lancamento")
+	private Long lancamento;
+}
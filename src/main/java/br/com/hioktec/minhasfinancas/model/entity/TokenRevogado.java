@@ -0,0 +1,47 @@
+package br.com.hioktec.minhasfinancas.model.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Token JWT revogado antes da expiração, identificado pela declaração jti.
+ * O registro só precisa existir até a expiração do token, quando ele deixaria de ser aceito de qualquer forma.
+ * @author rodolfo
+ */
+@Entity
+@Table(name = "tokens_revogados", schema = "financas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevogado {
+	
+	@Id
+	@Column(name = "jti")
+	private String jti;
+	
+	@Column(name = "id_usuario")
+	@NotNull
+	private Long usuarioId;
+	
+	@Column(name = "expira_em")
+	@Convert(converter = Jsr310JpaConverters.LocalDateTimeConverter.class)
+	@NotNull
+	private LocalDateTime expiraEm;
+	
+	@Column(name = "revogado_em")
+	@Convert(converter = Jsr310JpaConverters.LocalDateTimeConverter.class)
+	@NotNull
+	private LocalDateTime revogadoEm;
+}
@@ -0,0 +1,32 @@
+package br.com.hioktec.minhasfinancas.model.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Versão dos dados financeiros de um usuário, incrementada a cada escrita de lançamento.
+ * Usada como ETag para que consultas repetidas sem alterações sejam respondidas sem reconsultar os lançamentos.
+ * @author rodolfo
+ */
+@Entity
+@Table(name = "versoes_usuarios", schema = "financas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersaoUsuario {
+	
+	@Id
+	@Column(name = "id_usuario")
+	private Long usuarioId;
+	
+	@Column(name = "versao")
+	@NotNull
+	private Long versao;
+}
@@ -0,0 +1,34 @@
+package br.com.hioktec.minhasfinancas.model.enums;
+
+public enum FormatoExportacao {
+	
+	NDJSON("application/x-ndjson", "ndjson"),
+	JSON("application/json", "json"),
+	CSV("text/csv;charset=UTF-8", "csv"),
+	XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+	
+	private final String tipoConteudo;
+	
+	private final String extensao;
+	
+	FormatoExportacao(String tipoConteudo, String extensao) {
+		this.tipoConteudo = tipoConteudo;
+		this.extensao = extensao;
+	}
+	
+	public String getTipoConteudo() {
+		return tipoConteudo;
+	}
+	
+	public String getExtensao() {
+		return extensao;
+	}
+	
+	public boolean isPlanilha() {
+		return this == CSV || this == XLSX;
+	}
+	
+	public static FormatoExportacao de(String formato) {
+		return valueOf(formato.toUpperCase());
+	}
+}
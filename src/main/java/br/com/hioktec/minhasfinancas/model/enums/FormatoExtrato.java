@@ -0,0 +1,18 @@
+package br.com.hioktec.minhasfinancas.model.enums;
+
+public enum FormatoExtrato {
+	
+	CSV,
+	OFX;
+	
+	// formato informado ou, na falta dele, a extensão do nome do arquivo.
+	public static FormatoExtrato de(String formato, String nomeArquivo) {
+		if (formato != null && !formato.isEmpty()) {
+			return valueOf(formato.toUpperCase());
+		}
+		if (nomeArquivo != null && nomeArquivo.lastIndexOf('.') >= 0) {
+			return valueOf(nomeArquivo.substring(nomeArquivo.lastIndexOf('.') + 1).toUpperCase());
+		}
+		throw new IllegalArgumentException("Formato do extrato não informado");
+	}
+}
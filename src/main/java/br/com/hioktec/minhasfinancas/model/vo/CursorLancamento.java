@@ -0,0 +1,46 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.hioktec.minhasfinancas.exception.RegraNegocioException;
+import lombok.Value;
+
+/**
+ * Posição do último lançamento de uma página na ordenação (ano, mês, id).
+ * Trafega codificado em Base64 para que o cliente o trate como um valor opaco.
+ * @author rodolfo
+ */
+@Value
+public class CursorLancamento {
+	
+	private static final String SEPARADOR = ":";
+	
+	private Integer ano;
+	
+	private Integer mes;
+	
+	private Long id;
+	
+	public static CursorLancamento de(LancamentoDTO lancamento) {
+		return new CursorLancamento(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+	}
+	
+	public String codificar() {
+		String posicao = ano + SEPARADOR + mes + SEPARADOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(posicao.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static CursorLancamento decodificar(String cursor) {
+		try {
+			String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARADOR);
+			if (partes.length != 3) {
+				throw new IllegalArgumentException();
+			}
+			return new CursorLancamento(Integer.valueOf(partes[0]), Integer.valueOf(partes[1]), Long.valueOf(partes[2]));
+		} catch (IllegalArgumentException e) {
+			throw new RegraNegocioException("Cursor de paginação inválido.");
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import java.math.BigDecimal;
+
+import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Fotografia imutável dos campos de um lançamento que influenciam os saldos e o índice de pesquisa.
+ * Usada para calcular a diferença (delta) entre o estado gravado e o novo estado nas escritas.
+ * Nas escritas em lote pode representar vários lançamentos do mesmo período, tipo e status, com o valor somado.
+ * @author rodolfo
+ */
+@Value
+@AllArgsConstructor
+public class EstadoLancamento {
+
+	private Long usuario;
+
+	private Integer ano;
+
+	private Integer mes;
+
+	private TipoLancamento tipo;
+
+	private StatusLancamento status;
+
+	private BigDecimal valor;
+	
+	private String descricao;
+	
+	private Long quantidade;
+	
+	public EstadoLancamento(Long usuario, Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status,
+			BigDecimal valor, String descricao) {
+		this(usuario, ano, mes, tipo, status, valor, descricao, 1L);
+	}
+
+	public boolean isEfetivado() {
+		return status == StatusLancamento.EFETIVADO && valor != null;
+	}
+
+	// período no formato ano * 100 + mês, chave do saldo acumulado.
+	public Integer getPeriodo() {
+		return ano != null && mes != null ? ano * 100 + mes : null;
+	}
+	
+	public BigDecimal getReceitaEfetivada() {
+		return isEfetivado() && tipo == TipoLancamento.RECEITA ? valor : BigDecimal.ZERO;
+	}
+
+	public BigDecimal getDespesaEfetivada() {
+		return isEfetivado() && tipo == TipoLancamento.DESPESA ? valor : BigDecimal.ZERO;
+	}
+	
+	public BigDecimal getSaldoEfetivado() {
+		return getReceitaEfetivada().subtract(getDespesaEfetivada());
+	}
+}
@@ -0,0 +1,24 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import lombok.Value;
+
+/**
+ * Contadores do executor dedicado à verificação de senhas desde a inicialização da aplicação.
+ * Rejeitadas são as tentativas recusadas com a fila cheia, respondidas com 429.
+ * @author rodolfo
+ */
+@Value
+public class EstatisticasAutenticacao {
+	
+	private long concluidas;
+	
+	private long credenciaisInvalidas;
+	
+	private long rejeitadas;
+	
+	private int ativas;
+	
+	private int naFila;
+	
+	private long tempoMedioMillis;
+}
@@ -0,0 +1,27 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import lombok.Value;
+
+/**
+ * Contadores de um cache em memória desde a inicialização da aplicação.
+ * Remoções contam as entradas descartadas por validade ou capacidade; invalidações, as descartadas por alteração.
+ * @author rodolfo
+ */
+@Value
+public class EstatisticasCache {
+	
+	private long acertos;
+	
+	private long falhas;
+	
+	private long invalidacoes;
+	
+	private long remocoes;
+	
+	private int tamanho;
+	
+	public double getTaxaAcerto() {
+		long consultas = acertos + falhas;
+		return consultas == 0 ? 0 : (double) acertos / consultas;
+	}
+}
@@ -0,0 +1,69 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Critérios da busca de lançamentos. Campos nulos (ou conjuntos vazios) não restringem a busca.
+ * A ordenação é uma lista de campos, com prefixo "-" para ordem decrescente (ex.: -valor, ano).
+ * @author rodolfo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FiltroLancamento {
+	
+	private Long usuario;
+	
+	private String descricao;
+	
+	private Integer ano;
+	
+	private Integer mes;
+	
+	private YearMonth periodoInicial;
+	
+	private YearMonth periodoFinal;
+	
+	private BigDecimal valorMinimo;
+	
+	private BigDecimal valorMaximo;
+	
+	@Builder.Default
+	private Set<TipoLancamento> tipos = EnumSet.noneOf(TipoLancamento.class);
+	
+	@Builder.Default
+	private Set<StatusLancamento> status = EnumSet.noneOf(StatusLancamento.class);
+	
+	@Builder.Default
+	private List<String> ordenacao = new ArrayList<>();
+	
+	// critérios de igualdade equivalentes aos da antiga busca por exemplo.
+	public static FiltroLancamento de(Lancamento lancamento) {
+		FiltroLancamento filtro = new FiltroLancamento();
+		filtro.setUsuario(lancamento.getUsuario() != null ? lancamento.getUsuario().getId() : null);
+		filtro.setDescricao(lancamento.getDescricao());
+		filtro.setAno(lancamento.getAno());
+		filtro.setMes(lancamento.getMes());
+		if (lancamento.getTipo() != null) {
+			filtro.getTipos().add(lancamento.getTipo());
+		}
+		if (lancamento.getStatus() != null) {
+			filtro.getStatus().add(lancamento.getStatus());
+		}
+		return filtro;
+	}
+}
@@ -0,0 +1,21 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Fluxo de caixa anual de um usuário com os doze meses do ano.
+ * @author rodolfo
+ */
+@Getter
+@AllArgsConstructor
+public class FluxoCaixa {
+	
+	private Long usuario;
+	
+	private Integer ano;
+	
+	private List<FluxoCaixaMensal> meses;
+}
@@ -0,0 +1,33 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import java.math.BigDecimal;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Receitas e despesas de um mês do fluxo de caixa, separadas entre efetivadas e pendentes.
+ * @author rodolfo
+ */
+@Getter
+@Setter
+public class FluxoCaixaMensal {
+	
+	private Integer mes;
+	
+	private BigDecimal receitas = BigDecimal.ZERO;
+	
+	private BigDecimal despesas = BigDecimal.ZERO;
+	
+	private BigDecimal receitasPendentes = BigDecimal.ZERO;
+	
+	private BigDecimal despesasPendentes = BigDecimal.ZERO;
+	
+	public FluxoCaixaMensal(Integer mes) {
+		this.mes = mes;
+	}
+	
+	public BigDecimal getSaldo() {
+		return receitas.subtract(despesas);
+	}
+}
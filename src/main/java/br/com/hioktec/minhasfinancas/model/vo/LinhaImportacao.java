@@ -0,0 +1,25 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import lombok.Value;
+
+/**
+ * Resultado de uma linha do extrato importado: o lançamento gravado ou o motivo da rejeição.
+ * @author rodolfo
+ */
+@Value
+public class LinhaImportacao {
+	
+	private Integer linha;
+	
+	private Long lancamento;
+	
+	private String erro;
+	
+	public static LinhaImportacao importada(Integer linha, Long lancamento) {
+		return new LinhaImportacao(linha, lancamento, null);
+	}
+	
+	public static LinhaImportacao rejeitada(Integer linha, String erro) {
+		return new LinhaImportacao(linha, null, erro);
+	}
+}
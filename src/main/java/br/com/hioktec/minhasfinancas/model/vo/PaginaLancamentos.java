@@ -0,0 +1,19 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Uma página da busca de lançamentos. O próximo cursor é nulo quando não há mais páginas.
+ * @author rodolfo
+ */
+@Getter
+@AllArgsConstructor
+public class PaginaLancamentos {
+	
+	private List<?> itens;
+	
+	private String proximoCursor;
+}
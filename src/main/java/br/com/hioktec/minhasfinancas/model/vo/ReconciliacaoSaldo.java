@@ -0,0 +1,28 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado da comparação entre o saldo materializado e o saldo calculado pela varredura dos lançamentos.
+ * @author rodolfo
+ */
+@Getter
+@AllArgsConstructor
+public class ReconciliacaoSaldo {
+	
+	private Long usuario;
+	
+	private BigDecimal receitasArmazenadas;
+	
+	private BigDecimal despesasArmazenadas;
+	
+	private BigDecimal receitasCalculadas;
+	
+	private BigDecimal despesasCalculadas;
+	
+	// falso quando o saldo armazenado divergia (ou não existia) e foi corrigido.
+	private boolean consistente;
+}
@@ -0,0 +1,20 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Contagens da atualização de status em lote: ignorados são os lançamentos de outro usuário,
+ * inexistentes ou cuja transição para o novo status não é permitida.
+ * @author rodolfo
+ */
+@Getter
+@AllArgsConstructor
+public class ResultadoAtualizacaoStatus {
+	
+	private Integer solicitados;
+	
+	private Integer atualizados;
+	
+	private Integer ignorados;
+}
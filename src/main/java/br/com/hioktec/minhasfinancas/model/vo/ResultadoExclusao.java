@@ -0,0 +1,17 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Quantidade de lançamentos excluídos em lote ou, na simulação, a quantidade que seria excluída.
+ * @author rodolfo
+ */
+@Getter
+@AllArgsConstructor
+public class ResultadoExclusao {
+	
+	private Long quantidade;
+	
+	private Boolean simulacao;
+}
@@ -0,0 +1,18 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado de uma operação protegida por chave de idempotência.
+ * Repetida indica que o valor veio da primeira execução com a mesma chave, sem executar a operação de novo.
+ * @author rodolfo
+ */
+@Getter
+@AllArgsConstructor
+public class ResultadoIdempotente<T> {
+	
+	private T valor;
+	
+	private boolean repetida;
+}
@@ -0,0 +1,21 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Relatório da importação de um extrato com o resultado de cada linha, na ordem do arquivo.
+ * @author rodolfo
+ */
+@Getter
+@AllArgsConstructor
+public class ResultadoImportacao {
+	
+	private Integer importados;
+	
+	private Integer rejeitados;
+	
+	private List<LinhaImportacao> linhas;
+}
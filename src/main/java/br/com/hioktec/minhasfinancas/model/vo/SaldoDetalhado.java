@@ -0,0 +1,57 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Saldo realizado (efetivados), pendente e projetado (efetivados mais pendentes) de um usuário.
+ * Lançamentos cancelados não entram em nenhum dos valores.
+ * @author rodolfo
+ */
+@Getter
+@AllArgsConstructor
+public class SaldoDetalhado {
+	
+	private Long usuario;
+	
+	private BigDecimal receitasEfetivadas;
+	
+	private BigDecimal despesasEfetivadas;
+	
+	private BigDecimal receitasPendentes;
+	
+	private BigDecimal despesasPendentes;
+	
+	public static SaldoDetalhado de(Long usuario, List<TotalLancamento> totais) {
+		return new SaldoDetalhado(
+				usuario,
+				somar(totais, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO),
+				somar(totais, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO),
+				somar(totais, TipoLancamento.RECEITA, StatusLancamento.PENDENTE),
+				somar(totais, TipoLancamento.DESPESA, StatusLancamento.PENDENTE));
+	}
+	
+	public BigDecimal getSaldoRealizado() {
+		return receitasEfetivadas.subtract(despesasEfetivadas);
+	}
+	
+	public BigDecimal getSaldoPendente() {
+		return receitasPendentes.subtract(despesasPendentes);
+	}
+	
+	public BigDecimal getSaldoProjetado() {
+		return getSaldoRealizado().add(getSaldoPendente());
+	}
+	
+	private static BigDecimal somar(List<TotalLancamento> totais, TipoLancamento tipo, StatusLancamento status) {
+		return totais.stream()
+				.filter(total -> total.getTipo() == tipo && total.getStatus() == status && total.getValor() != null)
+				.map(TotalLancamento::getValor)
+				.reduce(BigDecimal.ZERO, BigDecimal::add);
+	}
+}
@@ -0,0 +1,25 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import java.math.BigDecimal;
+
+import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Soma e quantidade de lançamentos de um tipo e status, resultado de consultas agregadas.
+ * @author rodolfo
+ */
+@Getter
+@AllArgsConstructor
+public class TotalLancamento {
+	
+	private TipoLancamento tipo;
+	
+	private StatusLancamento status;
+	
+	private BigDecimal valor;
+	
+	private Long quantidade;
+}
@@ -0,0 +1,25 @@
+package br.com.hioktec.minhasfinancas.model.vo;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Saldo efetivado (receitas menos despesas) de um único período, resultado de consultas agregadas.
+ * @author rodolfo
+ */
+@Getter
+@AllArgsConstructor
+public class TotalPeriodo {
+	
+	private Integer ano;
+	
+	private Integer mes;
+	
+	private BigDecimal valor;
+	
+	public Integer getPeriodo() {
+		return ano * 100 + mes;
+	}
+}
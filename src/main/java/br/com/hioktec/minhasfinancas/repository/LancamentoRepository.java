@@ -1,16 +1,30 @@
 package br.com.hioktec.minhasfinancas.repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
+import javax.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO;
 import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
 import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
 import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.EstadoLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.TotalLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.TotalPeriodo;
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, JpaSpecificationExecutor<Lancamento>,
+		LancamentoRepositoryCustom {
 	
 	@Query( value = 
 			"select sum(l.valor) from Lancamento l join l.usuario u "
@@ -19,5 +33,130 @@ public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
 			@Param("idUsuario") Long usuario, 
 			@Param("tipo") TipoLancamento tipo,
 			@Param("status") StatusLancamento status);
+	
+	// todas as combinações de tipo e status em uma única passada sobre os lançamentos do usuário.
+	@Query( value = 
+			"select new br.com.hioktec.minhasfinancas.model.vo.TotalLancamento(l.tipo, l.status, sum(l.valor), count(l)) "
+			+ "from Lancamento l where l.usuario.id = :idUsuario group by l.tipo, l.status ")
+	List<TotalLancamento> obterTotaisPorUsuarioAgrupadosPorTipoEStatus(@Param("idUsuario") Long usuario);
+	
+	@Query( value = 
+			"select new br.com.hioktec.minhasfinancas.model.vo.TotalLancamento(l.tipo, l.status, sum(l.valor), count(l)) "
+			+ "from Lancamento l where l.usuario.id = :idUsuario and l.ano = :ano and l.mes = :mes "
+			+ "and l.tipo = :tipo and l.status = :status group by l.tipo, l.status ")
+	List<TotalLancamento> obterTotalPorUsuarioEPeriodoETipoEStatus(
+			@Param("idUsuario") Long usuario,
+			@Param("ano") Integer ano,
+			@Param("mes") Integer mes,
+			@Param("tipo") TipoLancamento tipo,
+			@Param("status") StatusLancamento status);
+	
+	@Query( value = 
+			"select new br.com.hioktec.minhasfinancas.model.vo.TotalPeriodo(l.ano, l.mes, "
+			+ "sum(case when l.tipo = :receita then l.valor else -l.valor end)) "
+			+ "from Lancamento l where l.usuario.id = :idUsuario and l.status = :status "
+			+ "group by l.ano, l.mes order by l.ano, l.mes ")
+	List<TotalPeriodo> obterSaldosPorPeriodo(
+			@Param("idUsuario") Long usuario,
+			@Param("status") StatusLancamento status,
+			@Param("receita") TipoLancamento receita);
+	
+	@Query( value = 
+			"select sum(case when l.tipo = :receita then l.valor else -l.valor end) "
+			+ "from Lancamento l where l.usuario.id = :idUsuario and l.status = :status "
+			+ "and (l.ano < :ano or (l.ano = :ano and l.mes <= :mes)) ")
+	BigDecimal obterSaldoAtePeriodo(
+			@Param("idUsuario") Long usuario,
+			@Param("status") StatusLancamento status,
+			@Param("receita") TipoLancamento receita,
+			@Param("ano") Integer ano,
+			@Param("mes") Integer mes);
+	
+	@Query( value = 
+			"select new br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO("
+			+ "l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.usuario.id, l.versao) "
+			+ "from Lancamento l where l.id = :id ")
+	Optional<LancamentoDTO> obterDTOPorId(@Param("id") Long id);
+	
+	@Query( value = 
+			"select new br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO("
+			+ "l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.usuario.id, l.versao) "
+			+ "from Lancamento l where l.usuario.id = :idUsuario and l.id in :ids ")
+	List<LancamentoDTO> obterDTOPorUsuarioEIds(
+			@Param("idUsuario") Long usuario,
+			@Param("ids") Collection<Long> ids);
+	
+	// página seguinte pelo id (keyset): o custo de cada página não cresce com as anteriores.
+	@Query( value = 
+			"select new br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO("
+			+ "l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.usuario.id, l.versao) "
+			+ "from Lancamento l where l.usuario.id = :idUsuario and l.id > :idApos order by l.id ")
+	List<LancamentoDTO> obterDTOPorUsuarioAposId(
+			@Param("idUsuario") Long usuario,
+			@Param("idApos") Long idApos,
+			Pageable pageable);
+	
+	@Query( value = "select distinct l.usuario.id from Lancamento l ")
+	List<Long> obterUsuariosComLancamentos();
+	
+	@Query( value = 
+			"select new br.com.hioktec.minhasfinancas.model.vo.TotalLancamento(l.tipo, l.status, sum(l.valor), count(l)) "
+			+ "from Lancamento l where l.usuario.id = :idUsuario and l.ano = :ano and l.mes = :mes group by l.tipo, l.status ")
+	List<TotalLancamento> obterTotaisPorUsuarioEPeriodo(
+			@Param("idUsuario") Long usuario,
+			@Param("ano") Integer ano,
+			@Param("mes") Integer mes);
+
+	// bloqueia os lançamentos do período até o fim da transação; a soma feita depois não muda até o update.
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query( value = "select l.id from Lancamento l where l.usuario.id = :idUsuario and l.ano = :ano and l.mes = :mes ")
+	List<Long> bloquearPorUsuarioEPeriodo(
+			@Param("idUsuario") Long usuario,
+			@Param("ano") Integer ano,
+			@Param("mes") Integer mes);
+
+	// bloqueia as linhas até o fim da transação, assim a atualização em lote altera exatamente os estados lidos.
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query( value = 
+			"select new br.com.hioktec.minhasfinancas.model.vo.EstadoLancamento("
+			+ "l.usuario.id, l.ano, l.mes, l.tipo, l.status, l.valor, l.descricao) "
+			+ "from Lancamento l where l.usuario.id = :idUsuario and l.id in :ids and l.status in :origens ")
+	List<EstadoLancamento> obterEstadosParaAtualizarStatus(
+			@Param("idUsuario") Long usuario,
+			@Param("ids") Collection<Long> ids,
+			@Param("origens") Collection<StatusLancamento> origens);
+	
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query( value = 
+			"update Lancamento l set l.status = :status, l.versao = l.versao + 1 "
+			+ "where l.usuario.id = :idUsuario and l.id in :ids and l.status in :origens ")
+	int atualizarStatus(
+			@Param("idUsuario") Long usuario,
+			@Param("ids") Collection<Long> ids,
+			@Param("origens") Collection<StatusLancamento> origens,
+			@Param("status") StatusLancamento status);
+	
+	// fechamento do mês em um único update, sem enviar os ids dos lançamentos.
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query( value = 
+			"update Lancamento l set l.status = :status, l.versao = l.versao + 1 "
+			+ "where l.usuario.id = :idUsuario and l.ano = :ano and l.mes = :mes and l.status in :origens ")
+	int atualizarStatusNoPeriodo(
+			@Param("idUsuario") Long usuario,
+			@Param("ano") Integer ano,
+			@Param("mes") Integer mes,
+			@Param("origens") Collection<StatusLancamento> origens,
+			@Param("status") StatusLancamento status);
+	
+	// sem carregar a entidade: só altera a linha se ninguém a modificou desde a versão informada.
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query( value = 
+			"update Lancamento l set l.status = :status, l.versao = l.versao + 1 "
+			+ "where l.id = :id and l.usuario.id = :idUsuario and l.versao = :versao ")
+	int atualizarStatusNaVersao(
+			@Param("id") Long id,
+			@Param("idUsuario") Long idUsuario,
+			@Param("versao") Long versao,
+			@Param("status") StatusLancamento status);
 		
 }
@@ -0,0 +1,40 @@
+package br.com.hioktec.minhasfinancas.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.vo.CursorLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.EstadoLancamento;
+
+public interface LancamentoRepositoryCustom {
+	
+	// projeção direta no DTO, sem carregar a entidade nem o usuário.
+	List<LancamentoDTO> buscarDTO(Specification<Lancamento> especificacao, Sort ordenacao);
+	
+	// lançamentos da especificação ordenados por (ano, mês, id) posteriores ao cursor (nulo para a primeira página).
+	List<LancamentoDTO> buscarPagina(Specification<Lancamento> especificacao, CursorLancamento cursor, int limite);
+	
+	// projeção lida pelo cursor do banco em lotes (fetch size), ordenada por (ano, mês, id); 
+	// deve ser consumida dentro de uma transação e fechada ao final.
+	Stream<LancamentoDTO> obterStreamDTO(Specification<Lancamento> especificacao);
+	
+	// bloqueia (select for update) os lançamentos da especificação até o fim da transação, retornando os ids.
+	List<Long> bloquear(Specification<Lancamento> especificacao);
+	
+	// estados agregados por usuário, período, tipo e status (valor somado e quantidade) dos lançamentos da especificação.
+	List<EstadoLancamento> somarPorPeriodoTipoEStatus(Specification<Lancamento> especificacao);
+	
+	// um único delete com a condição da especificação, sem carregar os lançamentos.
+	int deletar(Specification<Lancamento> especificacao);
+	
+	// update somente das colunas não nulas das alterações, condicionado à versão; o usuário é referenciado pelo id.
+	int alterar(Long id, Long versao, Lancamento alteracoes);
+	
+	// remove do contexto de persistência um lançamento já processado (leituras em stream).
+	void desanexar(Lancamento lancamento);
+}
@@ -0,0 +1,228 @@
+package br.com.hioktec.minhasfinancas.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CompoundSelection;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.CursorLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.EstadoLancamento;
+
+public class LancamentoRepositoryCustomImpl implements LancamentoRepositoryCustom {
+	
+	private static final int TAMANHO_LOTE_CURSOR = 500;
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<LancamentoDTO> buscarDTO(Specification<Lancamento> especificacao, Sort ordenacao) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<LancamentoDTO> query = cb.createQuery(LancamentoDTO.class);
+		Root<Lancamento> lancamento = query.from(Lancamento.class);
+		
+		List<Predicate> predicados = filtrar(cb, query, lancamento, especificacao);
+		
+		query.select(projetar(cb, lancamento))
+			.where(predicados.toArray(new Predicate[0]))
+			.orderBy(QueryUtils.toOrders(ordenacao, lancamento, cb));
+		
+		return entityManager.createQuery(query).getResultList();
+	}
+
+	@Override
+	public List<LancamentoDTO> buscarPagina(Specification<Lancamento> especificacao, CursorLancamento cursor, int limite) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<LancamentoDTO> query = cb.createQuery(LancamentoDTO.class);
+		Root<Lancamento> lancamento = query.from(Lancamento.class);
+		
+		List<Predicate> predicados = filtrar(cb, query, lancamento, especificacao);
+		
+		// keyset: continua depois da última linha entregue, sem offset, então toda página custa o mesmo.
+		// o limite redundante em ano deixa o índice (usuário, ano, mês, id) começar a leitura no cursor,
+		// o que o "or" sozinho não permite: as linhas anteriores do usuário seriam lidas e descartadas.
+		if (cursor != null) {
+			predicados.add(cb.greaterThanOrEqualTo(lancamento.get("ano"), cursor.getAno()));
+			predicados.add(cb.or(
+					cb.greaterThan(lancamento.get("ano"), cursor.getAno()),
+					cb.and(
+							cb.equal(lancamento.get("ano"), cursor.getAno()),
+							cb.greaterThan(lancamento.get("mes"), cursor.getMes())),
+					cb.and(
+							cb.equal(lancamento.get("ano"), cursor.getAno()),
+							cb.equal(lancamento.get("mes"), cursor.getMes()),
+							cb.greaterThan(lancamento.get("id"), cursor.getId()))));
+		}
+		
+		query.select(projetar(cb, lancamento))
+			.where(predicados.toArray(new Predicate[0]))
+			.orderBy(cb.asc(lancamento.get("ano")), cb.asc(lancamento.get("mes")), cb.asc(lancamento.get("id")));
+		
+		return entityManager.createQuery(query)
+				.setMaxResults(limite)
+				.getResultList();
+	}
+
+	@Override
+	public Stream<LancamentoDTO> obterStreamDTO(Specification<Lancamento> especificacao) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<LancamentoDTO> query = cb.createQuery(LancamentoDTO.class);
+		Root<Lancamento> lancamento = query.from(Lancamento.class);
+		
+		query.select(projetar(cb, lancamento))
+			.where(filtrar(cb, query, lancamento, especificacao).toArray(new Predicate[0]))
+			.orderBy(cb.asc(lancamento.get("ano")), cb.asc(lancamento.get("mes")), cb.asc(lancamento.get("id")));
+		
+		// DTOs não entram no contexto de persistência: a memória não cresce com a quantidade de linhas.
+		return entityManager.createQuery(query)
+				.setHint(QueryHints.HINT_FETCH_SIZE, TAMANHO_LOTE_CURSOR)
+				.getResultStream();
+	}
+
+	@Override
+	public List<Long> bloquear(Specification<Lancamento> especificacao) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<Lancamento> lancamento = query.from(Lancamento.class);
+		
+		query.select(lancamento.get("id"))
+			.where(filtrar(cb, query, lancamento, especificacao).toArray(new Predicate[0]));
+		
+		// somente os ids trafegam; o bloqueio vale para as linhas inteiras.
+		return entityManager.createQuery(query)
+				.setLockMode(LockModeType.PESSIMISTIC_WRITE)
+				.getResultList();
+	}
+
+	@Override
+	public List<EstadoLancamento> somarPorPeriodoTipoEStatus(Specification<Lancamento> especificacao) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Lancamento> lancamento = query.from(Lancamento.class);
+		
+		Path<Long> usuario = lancamento.get("usuario").get("id");
+		Path<Integer> ano = lancamento.get("ano");
+		Path<Integer> mes = lancamento.get("mes");
+		Path<TipoLancamento> tipo = lancamento.get("tipo");
+		Path<StatusLancamento> status = lancamento.get("status");
+		Expression<BigDecimal> valor = cb.sum(lancamento.get("valor"));
+		Expression<Long> quantidade = cb.count(lancamento);
+		
+		query.multiselect(usuario, ano, mes, tipo, status, valor, quantidade)
+			.where(filtrar(cb, query, lancamento, especificacao).toArray(new Predicate[0]))
+			.groupBy(usuario, ano, mes, tipo, status);
+		
+		return entityManager.createQuery(query).getResultList().stream()
+				.map(total -> new EstadoLancamento(total.get(usuario), total.get(ano), total.get(mes), total.get(tipo), 
+						total.get(status), total.get(valor), null, total.get(quantidade)))
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public int deletar(Specification<Lancamento> especificacao) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaDelete<Lancamento> delete = cb.createCriteriaDelete(Lancamento.class);
+		Root<Lancamento> lancamento = delete.from(Lancamento.class);
+		
+		delete.where(filtrar(cb, null, lancamento, especificacao).toArray(new Predicate[0]));
+		
+		// como nos deletes @Modifying: grava o pendente antes e descarta as entidades removidas depois.
+		entityManager.flush();
+		int excluidos = entityManager.createQuery(delete).executeUpdate();
+		entityManager.clear();
+		return excluidos;
+	}
+
+	@Override
+	public int alterar(Long id, Long versao, Lancamento alteracoes) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<Lancamento> update = cb.createCriteriaUpdate(Lancamento.class);
+		Root<Lancamento> lancamento = update.from(Lancamento.class);
+		
+		if (alteracoes.getDescricao() != null) {
+			update.set(lancamento.get("descricao"), alteracoes.getDescricao());
+		}
+		if (alteracoes.getMes() != null) {
+			update.set(lancamento.get("mes"), alteracoes.getMes());
+		}
+		if (alteracoes.getAno() != null) {
+			update.set(lancamento.get("ano"), alteracoes.getAno());
+		}
+		if (alteracoes.getValor() != null) {
+			update.set(lancamento.get("valor"), alteracoes.getValor());
+		}
+		if (alteracoes.getTipo() != null) {
+			update.set(lancamento.get("tipo"), alteracoes.getTipo());
+		}
+		if (alteracoes.getStatus() != null) {
+			update.set(lancamento.get("status"), alteracoes.getStatus());
+		}
+		if (alteracoes.getUsuario() != null) {
+			// referência (proxy) pelo id: grava a chave estrangeira sem consultar o usuário.
+			update.set(lancamento.get("usuario"), entityManager.getReference(Usuario.class, alteracoes.getUsuario().getId()));
+		}
+		update.set(lancamento.<Long>get("versao"), cb.sum(lancamento.<Long>get("versao"), 1L))
+			.where(cb.equal(lancamento.get("id"), id), cb.equal(lancamento.get("versao"), versao));
+		
+		// como nos updates @Modifying: grava o pendente antes e descarta as entidades desatualizadas depois.
+		entityManager.flush();
+		int alterados = entityManager.createQuery(update).executeUpdate();
+		entityManager.clear();
+		return alterados;
+	}
+
+	@Override
+	public void desanexar(Lancamento lancamento) {
+		entityManager.detach(lancamento);
+	}
+	
+	// somente as colunas do DTO; o id do usuário vem da chave estrangeira, sem join com usuarios.
+	private CompoundSelection<LancamentoDTO> projetar(CriteriaBuilder cb, Root<Lancamento> lancamento) {
+		return cb.construct(LancamentoDTO.class,
+				lancamento.get("id"),
+				lancamento.get("descricao"),
+				lancamento.get("mes"),
+				lancamento.get("ano"),
+				lancamento.get("valor"),
+				lancamento.get("tipo"),
+				lancamento.get("status"),
+				lancamento.get("usuario").get("id"),
+				lancamento.get("versao"));
+	}
+	
+	private List<Predicate> filtrar(CriteriaBuilder cb, CriteriaQuery<?> query, Root<Lancamento> lancamento, 
+			Specification<Lancamento> especificacao) {
+		List<Predicate> predicados = new ArrayList<>();
+		Predicate predicado = especificacao == null ? null : especificacao.toPredicate(lancamento, query, cb);
+		if (predicado != null) {
+			predicados.add(predicado);
+		}
+		return predicados;
+	}
+
+}
@@ -0,0 +1,111 @@
+package br.com.hioktec.minhasfinancas.repository;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Set;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.FiltroLancamento;
+
+/**
+ * Predicados da busca de lançamentos. Cada critério ausente gera null, que o Specification ignora,
+ * então filtros com os mesmos critérios preenchidos geram a mesma consulta (valores vão como parâmetros).
+ * @author rodolfo
+ */
+public final class LancamentoSpecifications {
+	
+	private LancamentoSpecifications() {
+	}
+	
+	public static Specification<Lancamento> filtrar(FiltroLancamento filtro) {
+		return Specification.where(doUsuario(filtro.getUsuario()))
+				.and(doAno(filtro.getAno()))
+				.and(doMes(filtro.getMes()))
+				.and(noPeriodo(filtro.getPeriodoInicial(), filtro.getPeriodoFinal()))
+				.and(comValorEntre(filtro.getValorMinimo(), filtro.getValorMaximo()))
+				.and(dosTipos(filtro.getTipos()))
+				.and(dosStatus(filtro.getStatus()))
+				.and(comDescricao(filtro.getDescricao()));
+	}
+	
+	public static Specification<Lancamento> doUsuario(Long usuario) {
+		return usuario == null ? null : (root, query, cb) -> cb.equal(root.get("usuario").get("id"), usuario);
+	}
+	
+	public static Specification<Lancamento> dosIds(Collection<Long> ids) {
+		return ids == null || ids.isEmpty() ? null : (root, query, cb) -> root.get("id").in(ids);
+	}
+	
+	public static Specification<Lancamento> doAno(Integer ano) {
+		return ano == null ? null : (root, query, cb) -> cb.equal(root.get("ano"), ano);
+	}
+	
+	public static Specification<Lancamento> doMes(Integer mes) {
+		return mes == null ? null : (root, query, cb) -> cb.equal(root.get("mes"), mes);
+	}
+	
+	// o between no ano é o intervalo que o índice (id_usuario, ano, mes) percorre; os meses das pontas refinam.
+	public static Specification<Lancamento> noPeriodo(YearMonth inicio, YearMonth fim) {
+		if (inicio == null && fim == null) {
+			return null;
+		}
+		return (root, query, cb) -> {
+			if (fim == null) {
+				return cb.and(
+						cb.greaterThanOrEqualTo(root.get("ano"), inicio.getYear()),
+						cb.or(
+								cb.greaterThan(root.get("ano"), inicio.getYear()),
+								cb.greaterThanOrEqualTo(root.get("mes"), inicio.getMonthValue())));
+			}
+			if (inicio == null) {
+				return cb.and(
+						cb.lessThanOrEqualTo(root.get("ano"), fim.getYear()),
+						cb.or(
+								cb.lessThan(root.get("ano"), fim.getYear()),
+								cb.lessThanOrEqualTo(root.get("mes"), fim.getMonthValue())));
+			}
+			return cb.and(
+					cb.between(root.get("ano"), inicio.getYear(), fim.getYear()),
+					cb.or(
+							cb.greaterThan(root.get("ano"), inicio.getYear()),
+							cb.greaterThanOrEqualTo(root.get("mes"), inicio.getMonthValue())),
+					cb.or(
+							cb.lessThan(root.get("ano"), fim.getYear()),
+							cb.lessThanOrEqualTo(root.get("mes"), fim.getMonthValue())));
+		};
+	}
+	
+	public static Specification<Lancamento> comValorEntre(BigDecimal minimo, BigDecimal maximo) {
+		if (minimo == null && maximo == null) {
+			return null;
+		}
+		return (root, query, cb) -> {
+			if (maximo == null) {
+				return cb.greaterThanOrEqualTo(root.get("valor"), minimo);
+			}
+			if (minimo == null) {
+				return cb.lessThanOrEqualTo(root.get("valor"), maximo);
+			}
+			return cb.between(root.get("valor"), minimo, maximo);
+		};
+	}
+	
+	public static Specification<Lancamento> dosTipos(Set<TipoLancamento> tipos) {
+		return tipos == null || tipos.isEmpty() ? null : (root, query, cb) -> root.get("tipo").in(tipos);
+	}
+	
+	public static Specification<Lancamento> dosStatus(Set<StatusLancamento> status) {
+		return status == null || status.isEmpty() ? null : (root, query, cb) -> root.get("status").in(status);
+	}
+	
+	// contém o texto sem diferenciar maiúsculas, como a antiga busca por exemplo.
+	public static Specification<Lancamento> comDescricao(String descricao) {
+		return descricao == null || descricao.isEmpty() ? null 
+				: (root, query, cb) -> cb.like(cb.lower(root.get("descricao")), "%" + descricao.toLowerCase() + "%");
+	}
+}
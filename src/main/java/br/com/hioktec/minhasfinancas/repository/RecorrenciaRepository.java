@@ -0,0 +1,29 @@
+package br.com.hioktec.minhasfinancas.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.hioktec.minhasfinancas.model.entity.Recorrencia;
+
+public interface RecorrenciaRepository extends JpaRepository<Recorrencia, Long> {
+	
+	// bloqueia a recorrência durante a geração, assim gerações simultâneas não disputam as mesmas parcelas.
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query( value = "select r from Recorrencia r where r.id = :id ")
+	Optional<Recorrencia> obterParaGeracao(@Param("id") Long id);
+	
+	// recorrências não encerradas cuja próxima parcela já cabe no horizonte (meses contados como ano * 12 + mes).
+	@Query( value = 
+			"select r.id from Recorrencia r "
+			+ "where r.ano * 12 + r.mes + r.ultimaParcela <= :horizonte "
+			+ "and (r.parcelas is null or r.ultimaParcela < r.parcelas) "
+			+ "and (r.anoFinal is null or r.ano * 12 + r.mes + r.ultimaParcela <= r.anoFinal * 12 + r.mesFinal) ")
+	List<Long> obterPendentesAte(@Param("horizonte") Integer horizonte);
+}
@@ -0,0 +1,65 @@
+package br.com.hioktec.minhasfinancas.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.hioktec.minhasfinancas.model.entity.ResumoMensal;
+import br.com.hioktec.minhasfinancas.model.entity.ResumoMensalId;
+import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, ResumoMensalId> {
+	
+	// retorna 0 quando ainda não existe resumo para a chave informada.
+	@Modifying
+	@Query( value = 
+			"update ResumoMensal r set r.valor = r.valor + :valor, r.quantidade = r.quantidade + :quantidade "
+			+ "where r.id.usuario = :idUsuario and r.id.ano = :ano and r.id.mes = :mes "
+			+ "and r.id.tipo = :tipo and r.id.status = :status ")
+	int acumular(
+			@Param("idUsuario") Long usuario,
+			@Param("ano") Integer ano,
+			@Param("mes") Integer mes,
+			@Param("tipo") TipoLancamento tipo,
+			@Param("status") StatusLancamento status,
+			@Param("valor") BigDecimal valor,
+			@Param("quantidade") Long quantidade);
+	
+	// inserção direta para não manter a entidade no contexto de persistência, que ficaria desatualizada pelos deltas.
+	// retorna 0 quando outra transação inseriu o resumo da chave primeiro.
+	@Modifying
+	@Query( nativeQuery = true, value = 
+			"insert into financas.resumos_mensais (id_usuario, ano, mes, tipo, status, valor, quantidade) "
+			+ "values (:idUsuario, :ano, :mes, :tipo, :status, :valor, :quantidade) on conflict do nothing ")
+	int inserirSeAusente(
+			@Param("idUsuario") Long usuario,
+			@Param("ano") Integer ano,
+			@Param("mes") Integer mes,
+			@Param("tipo") String tipo,
+			@Param("status") String status,
+			@Param("valor") BigDecimal valor,
+			@Param("quantidade") Long quantidade);
+	
+	@Query( value = 
+			"select r from ResumoMensal r where r.id.usuario = :idUsuario and r.id.ano = :ano ")
+	List<ResumoMensal> obterPorUsuarioEAno(
+			@Param("idUsuario") Long usuario,
+			@Param("ano") Integer ano);
+	
+	@Modifying
+	@Query( value = "delete from ResumoMensal r where r.id.usuario = :idUsuario ")
+	int deletarPorUsuario(@Param("idUsuario") Long usuario);
+	
+	@Modifying
+	@Query( nativeQuery = true, value = 
+			"insert into financas.resumos_mensais (id_usuario, ano, mes, tipo, status, valor, quantidade) "
+			+ "select l.id_usuario, l.ano, l.mes, l.tipo, l.status, sum(l.valor), count(*) from financas.lancamentos l "
+			+ "where l.id_usuario = :idUsuario group by l.id_usuario, l.ano, l.mes, l.tipo, l.status ")
+	int reconstruirPorUsuario(@Param("idUsuario") Long usuario);
+	
+}
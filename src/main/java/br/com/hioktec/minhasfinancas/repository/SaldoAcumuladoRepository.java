@@ -0,0 +1,63 @@
+package br.com.hioktec.minhasfinancas.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.hioktec.minhasfinancas.model.entity.SaldoAcumulado;
+import br.com.hioktec.minhasfinancas.model.entity.SaldoAcumuladoId;
+
+public interface SaldoAcumuladoRepository extends JpaRepository<SaldoAcumulado, SaldoAcumuladoId> {
+	
+	// o saldo no período é o da última linha até ele: uma busca no índice da chave primária.
+	@Query( value = 
+			"select s.valor from SaldoAcumulado s where s.id.usuario = :idUsuario and s.id.periodo <= :periodo "
+			+ "order by s.id.periodo desc ")
+	List<BigDecimal> obterValoresAte(
+			@Param("idUsuario") Long usuario,
+			@Param("periodo") Integer periodo,
+			Pageable pageable);
+	
+	// uma alteração no período só afeta o sufixo a partir dele.
+	@Modifying
+	@Query( value = 
+			"update SaldoAcumulado s set s.valor = s.valor + :valor "
+			+ "where s.id.usuario = :idUsuario and s.id.periodo >= :periodo ")
+	int acumularAPartirDe(
+			@Param("idUsuario") Long usuario,
+			@Param("periodo") Integer periodo,
+			@Param("valor") BigDecimal valor);
+	
+	@Query( value = 
+			"select s from SaldoAcumulado s where s.id.usuario = :idUsuario order by s.id.periodo ")
+	List<SaldoAcumulado> obterPorUsuario(@Param("idUsuario") Long usuario);
+	
+	// inserção direta para não manter a entidade no contexto de persistência, que ficaria desatualizada pelos deltas.
+	@Modifying
+	@Query( nativeQuery = true, value = 
+			"insert into financas.saldos_acumulados (id_usuario, periodo, valor) values (:idUsuario, :periodo, :valor) ")
+	int inserir(
+			@Param("idUsuario") Long usuario,
+			@Param("periodo") Integer periodo,
+			@Param("valor") BigDecimal valor);
+	
+	// retorna 0 quando outra transação inseriu a linha do período primeiro.
+	@Modifying
+	@Query( nativeQuery = true, value = 
+			"insert into financas.saldos_acumulados (id_usuario, periodo, valor) values (:idUsuario, :periodo, :valor) "
+			+ "on conflict do nothing ")
+	int inserirSeAusente(
+			@Param("idUsuario") Long usuario,
+			@Param("periodo") Integer periodo,
+			@Param("valor") BigDecimal valor);
+	
+	@Modifying
+	@Query( value = "delete from SaldoAcumulado s where s.id.usuario = :idUsuario ")
+	int deletarPorUsuario(@Param("idUsuario") Long usuario);
+	
+}
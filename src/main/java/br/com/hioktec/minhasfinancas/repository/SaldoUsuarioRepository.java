@@ -0,0 +1,35 @@
+package br.com.hioktec.minhasfinancas.repository;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.hioktec.minhasfinancas.model.entity.SaldoUsuario;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long> {
+	
+	// retorna 0 quando o usuário ainda não tem saldo materializado.
+	@Modifying
+	@Query( value = 
+			"update SaldoUsuario s set s.receitas = s.receitas + :receitas, s.despesas = s.despesas + :despesas "
+			+ "where s.usuarioId = :idUsuario ")
+	int acumular(
+			@Param("idUsuario") Long usuario,
+			@Param("receitas") BigDecimal receitas,
+			@Param("despesas") BigDecimal despesas);
+	
+	// inserção direta para não manter a entidade no contexto de persistência, que ficaria desatualizada pelos deltas.
+	// retorna 0 quando outra transação inseriu o saldo do usuário primeiro.
+	@Modifying
+	@Query( nativeQuery = true, value = 
+			"insert into financas.saldos_usuarios (id_usuario, receitas, despesas) values (:idUsuario, :receitas, :despesas) "
+			+ "on conflict do nothing ")
+	int inserirSeAusente(
+			@Param("idUsuario") Long usuario,
+			@Param("receitas") BigDecimal receitas,
+			@Param("despesas") BigDecimal despesas);
+	
+}
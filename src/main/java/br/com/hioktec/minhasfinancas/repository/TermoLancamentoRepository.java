@@ -0,0 +1,49 @@
+package br.com.hioktec.minhasfinancas.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.hioktec.minhasfinancas.model.entity.TermoLancamento;
+import br.com.hioktec.minhasfinancas.model.entity.TermoLancamentoId;
+
+public interface TermoLancamentoRepository extends JpaRepository<TermoLancamento, TermoLancamentoId>, TermoLancamentoRepositoryCustom {
+	
+	// relevância: quantidade de termos da pesquisa presentes na descrição; empate favorece os mais recentes.
+	@Query( value = 
+			"select t.id.lancamento from TermoLancamento t "
+			+ "where t.id.usuario = :idUsuario and t.id.termo in :termos "
+			+ "group by t.id.lancamento order by count(t) desc, t.id.lancamento desc ")
+	List<Long> pesquisarPorRelevancia(
+			@Param("idUsuario") Long usuario,
+			@Param("termos") Collection<String> termos,
+			Pageable pageable);
+	
+	@Modifying
+	@Query( nativeQuery = true, value = 
+			"insert into financas.lancamentos_termos (id_usuario, termo, id_lancamento) values (:idUsuario, :termo, :idLancamento) ")
+	int inserir(
+			@Param("idUsuario") Long usuario,
+			@Param("termo") String termo,
+			@Param("idLancamento") Long lancamento);
+	
+	// chave primária completa (usuário, termo, lançamento): cada termo é removido por uma busca no índice.
+	@Modifying
+	@Query( value = 
+			"delete from TermoLancamento t "
+			+ "where t.id.usuario = :idUsuario and t.id.termo in :termos and t.id.lancamento = :idLancamento ")
+	int deletarPorLancamento(
+			@Param("idUsuario") Long usuario,
+			@Param("termos") Collection<String> termos,
+			@Param("idLancamento") Long lancamento);
+	
+	@Modifying
+	@Query( value = "delete from TermoLancamento t where t.id.usuario = :idUsuario ")
+	int deletarPorUsuario(@Param("idUsuario") Long usuario);
+	
+}
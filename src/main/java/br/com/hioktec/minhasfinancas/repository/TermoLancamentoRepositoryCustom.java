@@ -0,0 +1,17 @@
+package br.com.hioktec.minhasfinancas.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.entity.TermoLancamentoId;
+
+public interface TermoLancamentoRepositoryCustom {
+	
+	// insere os termos em lotes jdbc, um único comando preparado para todas as linhas.
+	void inserirEmLote(List<TermoLancamentoId> termos);
+	
+	// termos dos lançamentos do usuário selecionados pela especificação, com um delete por subconsulta.
+	int deletarPorEspecificacao(Long usuario, Specification<Lancamento> especificacao);
+}
@@ -0,0 +1,66 @@
+package br.com.hioktec.minhasfinancas.repository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.entity.TermoLancamento;
+import br.com.hioktec.minhasfinancas.model.entity.TermoLancamentoId;
+
+public class TermoLancamentoRepositoryCustomImpl implements TermoLancamentoRepositoryCustom {
+	
+	private static final String INSERIR = 
+			"insert into financas.lancamentos_termos (id_usuario, termo, id_lancamento) values (?, ?, ?)";
+	
+	private JdbcTemplate jdbcTemplate;
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	public TermoLancamentoRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public void inserirEmLote(List<TermoLancamentoId> termos) {
+		if (termos.isEmpty()) {
+			return;
+		}
+		// usa a mesma conexão da transação jpa corrente.
+		jdbcTemplate.batchUpdate(INSERIR, termos.stream()
+				.map(termo -> new Object[] { termo.getUsuario(), termo.getTermo(), termo.getLancamento() })
+				.collect(Collectors.toList()));
+	}
+
+	@Override
+	public int deletarPorEspecificacao(Long usuario, Specification<Lancamento> especificacao) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaDelete<TermoLancamento> delete = cb.createCriteriaDelete(TermoLancamento.class);
+		Root<TermoLancamento> termo = delete.from(TermoLancamento.class);
+		
+		Subquery<Long> ids = delete.subquery(Long.class);
+		Root<Lancamento> lancamento = ids.from(Lancamento.class);
+		ids.select(lancamento.get("id"));
+		Predicate predicado = especificacao.toPredicate(lancamento, null, cb);
+		if (predicado != null) {
+			ids.where(predicado);
+		}
+		
+		// o usuário na condição restringe o delete ao prefixo da chave primária dos termos.
+		delete.where(cb.equal(termo.get("id").get("usuario"), usuario), termo.get("id").get("lancamento").in(ids));
+		entityManager.flush();
+		return entityManager.createQuery(delete).executeUpdate();
+	}
+	
+}
@@ -0,0 +1,22 @@
+package br.com.hioktec.minhasfinancas.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.hioktec.minhasfinancas.model.entity.TokenRevogado;
+
+public interface TokenRevogadoRepository extends JpaRepository<TokenRevogado, String> {
+	
+	@Query( value = "select t.jti from TokenRevogado t where t.expiraEm > :agora ")
+	List<String> obterJtisValidos(@Param("agora") LocalDateTime agora);
+	
+	@Modifying
+	@Query( value = "delete from TokenRevogado t where t.expiraEm <= :agora ")
+	int deletarExpirados(@Param("agora") LocalDateTime agora);
+	
+}
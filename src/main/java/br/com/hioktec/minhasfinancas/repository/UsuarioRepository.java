@@ -2,11 +2,16 @@ package br.com.hioktec.minhasfinancas.repository;
 
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import br.com.hioktec.minhasfinancas.model.entity.Usuario;
 
-public interface UsuarioRepository extends JpaRepository<Usuario, Long>{
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, JpaSpecificationExecutor<Usuario> {
 	
 	/* usaremos o método abaixo ao invés deste!
 	Optional<Usuario> findByEmail(String email); // spring implementará este método em tempo de execução. 
@@ -23,4 +28,13 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long>{
 	
 	Optional<Usuario> findByNomeUsuarioOrEmail(String nomeUsuario, String email); // adisionado para segurança JWT
 	
+	// usuário e autoridades em uma única consulta, para montar o principal sem a carga preguiçosa das autoridades.
+	@EntityGraph(attributePaths = "autoridades")
+	Optional<Usuario> findComAutoridadesById(Long id);
+	
+	// regrava somente o hash da senha, usado quando o custo do BCrypt muda.
+	@Modifying
+	@Query("update Usuario u set u.senha = :senha where u.id = :id")
+	int atualizarSenha(@Param("id") Long id, @Param("senha") String senha);
+	
 }
@@ -0,0 +1,27 @@
+package br.com.hioktec.minhasfinancas.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+
+/**
+ * Predicados da busca de usuários pelos administradores: cada campo preenchido restringe por "contém",
+ * sem diferenciar maiúsculas.
+ * @author rodolfo
+ */
+public final class UsuarioSpecifications {
+	
+	private UsuarioSpecifications() {
+	}
+	
+	public static Specification<Usuario> filtrar(Usuario filtro) {
+		return Specification.where(contem("nome", filtro.getNome()))
+				.and(contem("nomeUsuario", filtro.getNomeUsuario()))
+				.and(contem("email", filtro.getEmail()));
+	}
+	
+	private static Specification<Usuario> contem(String atributo, String valor) {
+		return valor == null || valor.isEmpty() ? null 
+				: (root, query, cb) -> cb.like(cb.lower(root.get(atributo)), "%" + valor.toLowerCase() + "%");
+	}
+}
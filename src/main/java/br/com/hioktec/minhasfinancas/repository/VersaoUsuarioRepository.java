@@ -0,0 +1,30 @@
+package br.com.hioktec.minhasfinancas.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.hioktec.minhasfinancas.model.entity.VersaoUsuario;
+
+public interface VersaoUsuarioRepository extends JpaRepository<VersaoUsuario, Long> {
+	
+	@Query( value = "select v.versao from VersaoUsuario v where v.usuarioId = :idUsuario ")
+	Optional<Long> obterVersao(@Param("idUsuario") Long usuario);
+	
+	// retorna 0 quando o usuário ainda não tem versão registrada.
+	@Modifying
+	@Query( value = "update VersaoUsuario v set v.versao = v.versao + 1 where v.usuarioId = :idUsuario ")
+	int incrementar(@Param("idUsuario") Long usuario);
+	
+	// retorna 0 quando outra transação inseriu a versão do usuário primeiro.
+	@Modifying
+	@Query( nativeQuery = true, value = 
+			"insert into financas.versoes_usuarios (id_usuario, versao) values (:idUsuario, :versao) on conflict do nothing ")
+	int inserirSeAusente(
+			@Param("idUsuario") Long usuario,
+			@Param("versao") Long versao);
+	
+}
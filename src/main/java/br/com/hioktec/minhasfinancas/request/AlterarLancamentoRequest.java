@@ -0,0 +1,49 @@
+package br.com.hioktec.minhasfinancas.request;
+
+import java.math.BigDecimal;
+
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Digits;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Classe que representa uma requisição de alteração parcial (JSON Merge Patch) de um lançamento.
+ * Somente os campos informados são alterados; os ausentes permanecem como estão.
+ * @author rodolfo
+ */
+@Getter
+@Setter
+public class AlterarLancamentoRequest {
+	
+	@Size(min = 1, max = 255)
+	private String descricao;
+	
+	@Min(value = 1)
+	@Max(value = 12)
+	private Integer mes;
+	
+	@Positive
+	@Digits(integer = 4, fraction = 0)
+	private Integer ano;
+	
+	@DecimalMin(value = "0.01", inclusive = true)
+	@Digits(integer = 16, fraction = 2)
+	private BigDecimal valor;
+	
+	@Size(max = 20)
+	private String tipo;
+	
+	@Size(max = 20)
+	private String status;
+	
+	private Long usuario;
+	
+	// versão lida pelo cliente; quando informada, a alteração só ocorre se o lançamento não mudou desde então.
+	private Long versao;
+}
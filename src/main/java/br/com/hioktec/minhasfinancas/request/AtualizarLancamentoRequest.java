@@ -54,5 +54,8 @@ public class AtualizarLancamentoRequest {
 	
 	@NotNull
 	private Long usuario;
+	
+	// versão lida pelo cliente; quando informada, a alteração só ocorre se o lançamento não mudou desde então.
+	private Long versao;
 }
 
@@ -0,0 +1,33 @@
+package br.com.hioktec.minhasfinancas.request;
+
+import java.util.List;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Classe que representa uma requisição de atualização do status de vários lançamentos,
+ * informados pelos ids ou pelo período (ano e mês)
+ * @author rodolfo
+ */
+@Getter
+@Setter
+public class AtualizarStatusLoteRequest {
+	
+	@NotNull
+	private Long usuario;
+	
+	private List<Long> ids;
+	
+	private Integer ano;
+	
+	private Integer mes;
+	
+	@NotBlank
+	@Size(max = 20)
+	private String status;
+}
@@ -17,4 +17,7 @@ public class AtualizarStatusRequest {
 	@NotBlank
 	@Size(max = 20)
 	private String status;
+	
+	// versão lida pelo cliente; quando informada, a alteração só ocorre se o lançamento não mudou desde então.
+	private Long versao;
 }
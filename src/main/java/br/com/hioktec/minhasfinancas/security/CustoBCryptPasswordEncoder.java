@@ -0,0 +1,36 @@
+package br.com.hioktec.minhasfinancas.security;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt com custo configurável que pede a regravação do hash no login sempre que o custo gravado
+ * for diferente do configurado, para mais ou para menos, sem exigir a troca de senha dos usuários.
+ * @author rodolfo
+ */
+public class CustoBCryptPasswordEncoder extends BCryptPasswordEncoder {
+	
+	private static final Pattern CUSTO_BCRYPT = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+	
+	private final int custo;
+	
+	public CustoBCryptPasswordEncoder(int custo) {
+		super(custo);
+		this.custo = custo;
+	}
+	
+	public int getCusto() {
+		return custo;
+	}
+	
+	@Override
+	public boolean upgradeEncoding(String senhaCodificada) {
+		if (senhaCodificada == null) {
+			return false;
+		}
+		Matcher matcher = CUSTO_BCRYPT.matcher(senhaCodificada);
+		return matcher.find() && Integer.parseInt(matcher.group(1)) != custo;
+	}
+}
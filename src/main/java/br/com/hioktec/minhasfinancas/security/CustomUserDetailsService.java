@@ -2,6 +2,7 @@ package br.com.hioktec.minhasfinancas.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -9,17 +10,21 @@ import org.springframework.transaction.annotation.Transactional;
 
 import br.com.hioktec.minhasfinancas.model.entity.Usuario;
 import br.com.hioktec.minhasfinancas.repository.UsuarioRepository;
+import br.com.hioktec.minhasfinancas.service.CachePrincipalService;
 
 /**
  * Classe de serviço utilizado para requisitar detalhes do usuário pelas classes de segurança.
  * @author rodolfo
  */
 @Service
-public class CustomUserDetailsService implements UserDetailsService{
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
 	@Autowired
 	private UsuarioRepository usuarioRepository;
 	
+	@Autowired
+	private CachePrincipalService cachePrincipalService;
+	
 	@Override
 	@Transactional
 	public UserDetails loadUserByUsername(String nomeUsuarioOuEmai) throws UsernameNotFoundException {
@@ -29,9 +34,24 @@ public class CustomUserDetailsService implements UserDetailsService{
 		return UsuarioPrincipal.criar(usuario);
 	}
 	
-	@Transactional
+	// chamado pelo filtro JWT em toda requisição autenticada: o banco só é consultado quando o principal não está em cache.
 	public UserDetails loadUserById(Long id) {
-		Usuario usuario = usuarioRepository.findById(id)
+		return cachePrincipalService.obter(id, this::carregarPrincipal);
+	}
+	
+	// chamado pelo DaoAuthenticationProvider após um login válido quando o hash gravado tem outro custo de BCrypt.
+	@Override
+	@Transactional
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		UsuarioPrincipal principal = (UsuarioPrincipal) user;
+		usuarioRepository.atualizarSenha(principal.getId(), newPassword);
+		cachePrincipalService.invalidar(principal.getId());
+		return new UsuarioPrincipal(principal.getId(), principal.getNome(), principal.getUsername(),
+				principal.getEmail(), newPassword, principal.getAuthorities());
+	}
+	
+	private UsuarioPrincipal carregarPrincipal(Long id) {
+		Usuario usuario = usuarioRepository.findComAutoridadesById(id)
 				.orElseThrow(() -> new UsernameNotFoundException(
 						"Usuario não encontrado com o id: " + id));
 		return UsuarioPrincipal.criar(usuario);
@@ -0,0 +1,69 @@
+package br.com.hioktec.minhasfinancas.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de textos: responde "talvez contenha" ou "certamente não contém" sem guardar os textos.
+ * A consulta percorre os caracteres e lê bits, sem alocar objetos; a inclusão é segura entre threads.
+ * @author rodolfo
+ */
+public class FiltroBloom {
+
+	private final AtomicLongArray bits;
+	
+	private final int quantidadeBits;
+	
+	private final int quantidadeHashes;
+	
+	// dimensionado pela fórmula usual: m = -n ln p / (ln 2)^2 bits e k = m / n ln 2 funções de hash.
+	public FiltroBloom(int elementosEsperados, double taxaFalsoPositivo) {
+		int elementos = Math.max(elementosEsperados, 1);
+		long bitsNecessarios = (long) Math.ceil(-elementos * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+		this.quantidadeBits = (int) Math.max(64, Math.min(bitsNecessarios, Integer.MAX_VALUE - 63));
+		this.quantidadeHashes = Math.max(1, (int) Math.round((double) quantidadeBits / elementos * Math.log(2)));
+		this.bits = new AtomicLongArray((quantidadeBits + 63) / 64);
+	}
+	
+	public void incluir(String valor) {
+		long hash1 = hash(valor, 0xcbf29ce484222325L);
+		long hash2 = hash(valor, 0x84222325cbf29ce4L) | 1;
+		for (int i = 0; i < quantidadeHashes; i++) {
+			int posicao = posicao(hash1 + i * hash2);
+			long mascara = 1L << posicao;
+			int indice = posicao >>> 6;
+			long atual;
+			do {
+				atual = bits.get(indice);
+			} while ((atual & mascara) == 0 && !bits.compareAndSet(indice, atual, atual | mascara));
+		}
+	}
+	
+	public boolean talvezContenha(String valor) {
+		long hash1 = hash(valor, 0xcbf29ce484222325L);
+		long hash2 = hash(valor, 0x84222325cbf29ce4L) | 1;
+		for (int i = 0; i < quantidadeHashes; i++) {
+			int posicao = posicao(hash1 + i * hash2);
+			if ((bits.get(posicao >>> 6) & (1L << posicao)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private int posicao(long hash) {
+		return (int) ((hash >>> 1) % quantidadeBits);
+	}
+	
+	// FNV-1a de 64 bits com mistura final, sobre os caracteres do texto e a semente informada.
+	private static long hash(String valor, long semente) {
+		long hash = semente;
+		for (int i = 0; i < valor.length(); i++) {
+			hash ^= valor.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
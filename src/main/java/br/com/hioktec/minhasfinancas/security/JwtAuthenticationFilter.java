@@ -1,6 +1,7 @@
 package br.com.hioktec.minhasfinancas.security;
 
 import java.io.IOException;
+import java.util.Optional;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -17,6 +18,8 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
+
 /**
  * Filtro para validar o token de autenticação, incluindo o usuario. 
  * @author rodolfo
@@ -36,15 +39,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 			throws ServletException, IOException {
 		try {
 			String jwt = getJwtFromRequest(request);
-			if(StringUtils.hasText(jwt) && tokenProvider.validarToken(jwt)) {
-				Long usuarioId = tokenProvider.getUsuarioIdfromJWT(jwt);
-				
-				UserDetails userDetails = customUserDetailsService.loadUserById(usuarioId);
+			// o token é lido e verificado uma única vez; validação e usuário saem das mesmas declarações.
+			Optional<Claims> claims = StringUtils.hasText(jwt) ? tokenProvider.verificarToken(jwt) : Optional.empty();
+			if(claims.isPresent()) {
+				UserDetails userDetails;
+				if (tokenProvider.isSemEstado()) {
+					// sem acesso ao banco: o usuário e as autoridades vêm das declarações do token verificado.
+					userDetails = tokenProvider.getUsuarioPrincipal(claims.get()).orElse(null);
+				} else {
+					Long usuarioId = tokenProvider.getUsuarioId(claims.get());
+					userDetails = customUserDetailsService.loadUserById(usuarioId);
+				}
 				
-				UsernamePasswordAuthenticationToken autenticacao = 
-						new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-				autenticacao.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-				SecurityContextHolder.getContext().setAuthentication(autenticacao);
+				if (userDetails != null) {
+					UsernamePasswordAuthenticationToken autenticacao = 
+							new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+					autenticacao.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+					SecurityContextHolder.getContext().setAuthentication(autenticacao);
+				}
 			}
 		} catch (Exception ex){
 			logger.error("Não foi possível definir a autenticação do usuário no contexto de segurança", ex);
@@ -53,11 +65,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 	}
 	
 	private String getJwtFromRequest(HttpServletRequest request) {
-		String portadorToken = request.getHeader("autorizacao");
-		if(StringUtils.hasText(portadorToken) && portadorToken.startsWith("Portador ")) {
-			return portadorToken.substring(10, portadorToken.length()-1); // alteramos de 9 para 10 e -1 para remover aspas.
-		}
-		return null;
+		return tokenProvider.obterTokenDoCabecalho(request.getHeader("autorizacao"));
 	}
 	
 }
@@ -1,20 +1,24 @@
 package br.com.hioktec.minhasfinancas.security;
 
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
+import br.com.hioktec.minhasfinancas.service.RevogacaoTokenService;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.SignatureException;
-import io.jsonwebtoken.UnsupportedJwtException;
 
 /**
  * Classe utilitária usada para gerar um JWT depois que um usuário fizer login com sucesso
@@ -24,52 +28,123 @@ import io.jsonwebtoken.UnsupportedJwtException;
 @Component
 public class JwtTokenProvider {
 	
-	private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
-	
 	@Value("${app.jwtSecreto}")
 	private String jwtSegredo;
 	
 	@Value("${app.jwtExpiracao}")
 	private int jwtExpiraEmMs;
 	
+	// no modo sem estado o token leva as autoridades e o filtro não consulta o banco para montar o usuário.
+	@Value("${app.jwtSemEstado:false}")
+	private boolean semEstado;
+	
+	@Value("${app.jwtSemEstadoExpiracao:900000}")
+	private int jwtSemEstadoExpiraEmMs;
+	
+	@Autowired
+	private RevogacaoTokenService revogacaoTokenService;
+	
+	@Autowired
+	private VerificadorJwt verificadorJwt;
+	
+	private static final String CLAIM_NOME = "nome";
+	
+	private static final String CLAIM_NOME_USUARIO = "nomeUsuario";
+	
+	private static final String CLAIM_EMAIL = "email";
+	
+	private static final String CLAIM_AUTORIDADES = "autoridades";
+	
+	// emissão em milissegundos: o iat tem precisão de segundos e não ordena login e revogação no mesmo segundo.
+	private static final String CLAIM_EMITIDO_EM = "emitidoEm";
+	
 	public String gerarToken(Authentication authentication) {
 		UsuarioPrincipal usuarioPrincipal = (UsuarioPrincipal) authentication.getPrincipal();
 		
-		Date agora = new Date();
-		Date dataExpira = new Date(agora.getTime() + jwtExpiraEmMs);
+		Date agora = revogacaoTokenService.novaEmissao();
+		Date dataExpira = new Date(agora.getTime() + (semEstado ? jwtSemEstadoExpiraEmMs : jwtExpiraEmMs));
 		
-		return Jwts.builder()
+		JwtBuilder builder = Jwts.builder()
+				.setId(UUID.randomUUID().toString())
 				.setSubject(Long.toString(usuarioPrincipal.getId()))
-				.setIssuedAt(new Date())
-				.setExpiration(dataExpira)
-				.signWith(SignatureAlgorithm.HS512, jwtSegredo)
-				.compact();
+				.setIssuedAt(agora)
+				.setExpiration(dataExpira);
+		if (semEstado) {
+			builder.claim(CLAIM_EMITIDO_EM, agora.getTime())
+				.claim(CLAIM_NOME, usuarioPrincipal.getNome())
+				.claim(CLAIM_NOME_USUARIO, usuarioPrincipal.getUsername())
+				.claim(CLAIM_EMAIL, usuarioPrincipal.getEmail())
+				.claim(CLAIM_AUTORIDADES, usuarioPrincipal.getAuthorities().stream()
+						.map(GrantedAuthority::getAuthority)
+						.collect(Collectors.toList()));
+		}
+		return builder.signWith(SignatureAlgorithm.HS512, jwtSegredo).compact();
 	}
 	
-	public Long getUsuarioIdfromJWT(String token) {
-		Claims claims = Jwts.parser()
-				.setSigningKey(jwtSegredo)
-				.parseClaimsJws(token)
-				.getBody();
+	public boolean isSemEstado() {
+		return semEstado;
+	}
+	
+	// única leitura do token por requisição: assinatura e validade conferidas pelo verificador, com cache.
+	// o jti revogado é conferido depois do cache, em memória, e só vai ao banco nos positivos do filtro.
+	public Optional<Claims> verificarToken(String token) {
+		Optional<Claims> claims = verificadorJwt.verificar(token);
+		if (claims.isPresent() && revogacaoTokenService.isTokenRevogado(claims.get().getId())) {
+			return Optional.empty();
+		}
+		return claims;
+	}
+	
+	// revoga o token informado até a sua expiração; falso se o token já não era aceito.
+	public boolean revogarToken(String token) {
+		Optional<Claims> claims = verificarToken(token);
+		if (!claims.isPresent() || claims.get().getId() == null) {
+			return false;
+		}
+		revogacaoTokenService.revogarToken(claims.get().getId(), getUsuarioId(claims.get()), claims.get().getExpiration());
+		return true;
+	}
+	
+	// token do cabeçalho "autorizacao" no formato: Portador "token".
+	public String obterTokenDoCabecalho(String portadorToken) {
+		if(StringUtils.hasText(portadorToken) && portadorToken.startsWith("Portador ")) {
+			return portadorToken.substring(10, portadorToken.length()-1); // alteramos de 9 para 10 e -1 para remover aspas.
+		}
+		return null;
+	}
+	
+	// usuário montado somente com as declarações do token; vazio se o token foi revogado ou não traz as autoridades.
+	public Optional<UsuarioPrincipal> getUsuarioPrincipal(Claims claims) {
+		List<?> autoridades = claims.get(CLAIM_AUTORIDADES, List.class);
+		Long usuarioId = getUsuarioId(claims);
+		Long emitidoEm = claims.get(CLAIM_EMITIDO_EM, Long.class);
+		if (autoridades == null || revogacaoTokenService.isRevogado(usuarioId, 
+				emitidoEm != null ? new Date(emitidoEm) : claims.getIssuedAt())) {
+			return Optional.empty();
+		}
+		return Optional.of(new UsuarioPrincipal(
+				usuarioId,
+				claims.get(CLAIM_NOME, String.class),
+				claims.get(CLAIM_NOME_USUARIO, String.class),
+				claims.get(CLAIM_EMAIL, String.class),
+				null,
+				autoridades.stream()
+					.map(autoridade -> new SimpleGrantedAuthority(autoridade.toString()))
+					.collect(Collectors.toList())));
+	}
+	
+	public Long getUsuarioId(Claims claims) {
 		return Long.parseLong(claims.getSubject());
 	}
 	
+	public Long getUsuarioIdfromJWT(String token) {
+		Claims claims = verificarToken(token)
+				.orElseThrow(() -> new IllegalArgumentException("Token JWT inválido"));
+		return getUsuarioId(claims);
+	}
+	
 	public boolean validarToken(String autenToken) {
-		try {
-			Jwts.parser().setSigningKey(jwtSegredo).parseClaimsJws(autenToken);
-			return true;
-		} catch (SignatureException ex) {
-			logger.error("Assinatura JWT inválida");
-		} catch (MalformedJwtException ex) {
-			logger.error("Token JWT inválido");
-		} catch (ExpiredJwtException ex) {
-			logger.error("Token JWT expirado");
-		} catch (UnsupportedJwtException ex) {
-			logger.error("Token JWT não suportado");
-		} catch (IllegalArgumentException ex) {
-			logger.error("A String de declarações do JWT está vazia");
-		}
-		return false;
+		return verificarToken(autenToken).isPresent();
 	}
 	
 }
@@ -55,6 +55,11 @@ public class UsuarioPrincipal implements UserDetails{
 				autoridades);
 	}
 	
+	// usuário já autenticado como referência da chave estrangeira nas escritas, sem consultar usuarios.
+	public Usuario obterUsuario() {
+		return new Usuario(id, nome, nomeUsuario, email, senha);
+	}
+	
 	public Long getId() {
 		return id;
 	}
@@ -0,0 +1,129 @@
+package br.com.hioktec.minhasfinancas.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.impl.TextCodec;
+
+/**
+ * Verifica a assinatura e a validade do JWT com uma única leitura do token, reaproveitando o parser e a chave.
+ * Os tokens verificados recentemente ficam em um cache LRU, pelo hash, até a expiração de cada token.
+ * @author rodolfo
+ */
+@Component
+public class VerificadorJwt {
+
+	private static final Logger logger = LoggerFactory.getLogger(VerificadorJwt.class);
+	
+	private final JwtParser parser;
+	
+	private final Map<String, Verificado> verificados;
+	
+	public VerificadorJwt(@Value("${app.jwtSecreto}") String jwtSegredo,
+			@Value("${app.jwtCache.capacidade:1000}") int capacidade) {
+		// mesma chave usada pelo setSigningKey(String), que decodifica o segredo em Base64 a cada parser criado.
+		SecretKeySpec chave = new SecretKeySpec(TextCodec.BASE64.decode(jwtSegredo), SignatureAlgorithm.HS512.getJcaName());
+		this.parser = Jwts.parser().setSigningKey(chave);
+		// ordem de acesso: o token menos usado recentemente é o primeiro a ser descartado.
+		this.verificados = new LinkedHashMap<String, Verificado>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Verificado> maisAntigo) {
+				return size() > capacidade;
+			}
+		};
+	}
+	
+	// declarações do token com assinatura e validade conferidas; vazio se o token for inválido ou estiver expirado.
+	public Optional<Claims> verificar(String token) {
+		if (!StringUtils.hasText(token)) {
+			logger.error("A String de declarações do JWT está vazia");
+			return Optional.empty();
+		}
+		String hash = calcularHash(token);
+		long agora = System.currentTimeMillis();
+		synchronized (verificados) {
+			Verificado verificado = verificados.get(hash);
+			if (verificado != null) {
+				if (verificado.expiraEm > agora) {
+					return Optional.of(verificado.claims);
+				}
+				verificados.remove(hash);
+			}
+		}
+		
+		Claims claims = ler(token);
+		if (claims == null) {
+			return Optional.empty();
+		}
+		Date expiracao = claims.getExpiration();
+		if (expiracao != null) {
+			synchronized (verificados) {
+				verificados.put(hash, new Verificado(claims, expiracao.getTime()));
+			}
+		}
+		return Optional.of(claims);
+	}
+	
+	private Claims ler(String token) {
+		try {
+			return parser.parseClaimsJws(token).getBody();
+		} catch (SignatureException ex) {
+			logger.error("Assinatura JWT inválida");
+		} catch (MalformedJwtException ex) {
+			logger.error("Token JWT inválido");
+		} catch (ExpiredJwtException ex) {
+			logger.error("Token JWT expirado");
+		} catch (UnsupportedJwtException ex) {
+			logger.error("Token JWT não suportado");
+		} catch (IllegalArgumentException ex) {
+			logger.error("A String de declarações do JWT está vazia");
+		}
+		return null;
+	}
+	
+	// o cache guarda o hash e não o token, que continua sendo uma credencial.
+	private String calcularHash(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private static class Verificado {
+	
+		private final Claims claims;
+		
+		private final long expiraEm;
+		
+		private Verificado(Claims claims, long expiraEm) {
+			this.claims = claims;
+			this.expiraEm = expiraEm;
+		}
+	}
+}
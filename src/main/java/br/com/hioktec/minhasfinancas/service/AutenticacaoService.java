@@ -0,0 +1,15 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.security.core.Authentication;
+
+import br.com.hioktec.minhasfinancas.model.vo.EstatisticasAutenticacao;
+
+public interface AutenticacaoService {
+	
+	// verifica a senha no executor dedicado; lança SobrecargaException quando a fila está cheia.
+	CompletableFuture<Authentication> autenticar(String nomeUsuarioOuEmail, String senha);
+	
+	EstatisticasAutenticacao obterEstatisticas();
+}
@@ -0,0 +1,17 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import java.util.function.Function;
+
+import br.com.hioktec.minhasfinancas.model.vo.EstatisticasCache;
+import br.com.hioktec.minhasfinancas.security.UsuarioPrincipal;
+
+public interface CachePrincipalService {
+	
+	// devolve o principal guardado para o usuário ou o carrega com o carregador informado, guardando o resultado.
+	UsuarioPrincipal obter(Long usuarioId, Function<Long, UsuarioPrincipal> carregador);
+	
+	// descarta o principal do usuário agora e, havendo transação ativa, de novo após o commit.
+	void invalidar(Long usuarioId);
+	
+	EstatisticasCache obterEstatisticas();
+}
@@ -0,0 +1,12 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import java.util.function.Supplier;
+
+import br.com.hioktec.minhasfinancas.model.vo.ResultadoIdempotente;
+
+public interface IdempotenciaService {
+	
+	// executa a operação uma única vez por chave; repetições e chamadas simultâneas recebem o mesmo resultado.
+	// lança SobrecargaException quando todas as chaves guardadas ainda estão em andamento.
+	<T> ResultadoIdempotente<T> executar(String chave, String assinatura, Supplier<T> operacao);
+}
@@ -0,0 +1,13 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import java.io.Reader;
+
+import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+import br.com.hioktec.minhasfinancas.model.enums.FormatoExtrato;
+import br.com.hioktec.minhasfinancas.model.vo.ResultadoImportacao;
+
+public interface ImportacaoLancamentoService {
+	
+	// linhas válidas são gravadas em lotes, as inválidas aparecem no resultado com o motivo.
+	ResultadoImportacao importar(Usuario usuario, FormatoExtrato formato, Reader extrato);
+}
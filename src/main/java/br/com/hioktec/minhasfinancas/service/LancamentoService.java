@@ -1,27 +1,81 @@
 package br.com.hioktec.minhasfinancas.service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO;
 import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
 import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.FiltroLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.PaginaLancamentos;
+import br.com.hioktec.minhasfinancas.model.vo.ReconciliacaoSaldo;
+import br.com.hioktec.minhasfinancas.model.vo.ResultadoAtualizacaoStatus;
+import br.com.hioktec.minhasfinancas.model.vo.ResultadoExclusao;
+import br.com.hioktec.minhasfinancas.model.vo.SaldoDetalhado;
 
 public interface LancamentoService {
 	
 	Lancamento salvar(Lancamento lancamento);
 	
+	// inserts agrupados em lotes jdbc e dados derivados atualizados uma vez por lote.
+	List<Lancamento> salvarLote(List<Lancamento> lancamentos);
+	
 	Lancamento atualizar(Lancamento lancamento);
 	
+	// atualização completa na instância gerenciada, com uma única leitura; a versão informada (opcional) deve ser a atual.
+	// o lançamento deve pertencer ao usuário informado, conferido na mesma leitura.
+	Lancamento atualizar(Long usuarioId, Long id, Lancamento atualizacao);
+	
 	void deletar(Lancamento lancamento);
 	
+	// carrega, confere o dono e exclui na mesma transação.
+	void deletar(Long usuarioId, Long id);
+	
+	// exclusão em lote pelo filtro da busca; na simulação apenas conta os lançamentos que seriam excluídos.
+	ResultadoExclusao deletar(FiltroLancamento filtro, boolean simulacao);
+	
+	ResultadoExclusao deletar(Long usuarioId, Collection<Long> ids, boolean simulacao);
+	
 	List<Lancamento> buscar(Lancamento lancamentoFiltro);
 	
+	List<LancamentoDTO> buscarDTO(FiltroLancamento filtro);
+	
+	PaginaLancamentos buscar(FiltroLancamento filtro, String cursor, Integer limite);
+	
+	List<LancamentoDTO> pesquisar(Long usuarioId, String texto, Integer limite);
+	
+	// entrega os lançamentos do filtro um a um, pelo cursor do banco, sem carregar todos em memória.
+	void exportar(FiltroLancamento filtro, Consumer<LancamentoDTO> consumidor);
+	
 	void atualizarStatus(Lancamento lancamento, StatusLancamento status);
 	
+	// alteração parcial: somente os campos não nulos de alteracoes, num update condicionado à versão.
+	// o lançamento deve pertencer ao usuário informado, conferido na mesma leitura do estado anterior.
+	LancamentoDTO alterar(Long usuarioId, Long id, Long versao, Lancamento alteracoes);
+	
+	// update direto do status condicionado à versão; sem versão informada usa a versão lida no momento.
+	// o lançamento deve pertencer ao usuário informado, conferido na leitura e no próprio update.
+	LancamentoDTO atualizarStatus(Long usuarioId, Long id, Long versao, StatusLancamento status);
+	
+	// um único update para os lançamentos do usuário cuja transição para o status é permitida.
+	ResultadoAtualizacaoStatus atualizarStatus(Long usuarioId, Collection<Long> ids, StatusLancamento status);
+	
+	ResultadoAtualizacaoStatus atualizarStatusNoPeriodo(Long usuarioId, Integer ano, Integer mes, StatusLancamento status);
+	
 	void validar(Lancamento lancamento);
 	
 	Optional<Lancamento> obterPorId(Long id);
 	
+	Optional<LancamentoDTO> obterDTOPorId(Long id);
+	
 	BigDecimal obterSaldoPorUsuario(Long id);
+	
+	BigDecimal obterSaldoPorUsuarioEPeriodo(Long id, Integer ano, Integer mes);
+	
+	SaldoDetalhado obterSaldoDetalhadoPorUsuario(Long id);
+	
+	ReconciliacaoSaldo reconciliarSaldoPorUsuario(Long id);
 }
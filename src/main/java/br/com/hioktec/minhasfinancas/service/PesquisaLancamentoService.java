@@ -0,0 +1,27 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.vo.EstadoLancamento;
+
+public interface PesquisaLancamentoService {
+	
+	// anterior nulo indica inclusão e atual nulo indica exclusão.
+	void registrarAlteracao(Long lancamentoId, EstadoLancamento anterior, EstadoLancamento atual);
+	
+	// inclusões em lote, estado de cada lançamento pelo seu id.
+	void registrarInclusoes(Map<Long, EstadoLancamento> inclusoes);
+	
+	// deve ser chamado antes da exclusão dos lançamentos da especificação.
+	void registrarExclusoes(Long usuarioId, Specification<Lancamento> especificacao);
+	
+	// lançamentos do usuário ordenados pela quantidade de termos do texto encontrados na descrição.
+	List<LancamentoDTO> pesquisar(Long usuarioId, String texto, int limite);
+	
+	void reconstruir(Long usuarioId);
+}
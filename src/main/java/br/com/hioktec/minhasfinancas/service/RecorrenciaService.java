@@ -0,0 +1,21 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import java.util.List;
+
+import br.com.hioktec.minhasfinancas.model.entity.Recorrencia;
+
+public interface RecorrenciaService {
+	
+	// grava a recorrência e já gera as parcelas que cabem no horizonte.
+	Recorrencia salvar(Recorrencia recorrencia);
+	
+	// gera as parcelas ainda não geradas até o horizonte; repetir a geração não duplica parcelas.
+	int gerar(Long recorrenciaId);
+	
+	// como gerar(recorrenciaId), mas somente para o dono da recorrência.
+	int gerar(Long usuarioId, Long recorrenciaId);
+	
+	List<Long> obterPendentes();
+	
+	void validar(Recorrencia recorrencia);
+}
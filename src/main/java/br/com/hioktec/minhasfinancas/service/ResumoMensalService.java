@@ -0,0 +1,21 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import java.util.List;
+
+import br.com.hioktec.minhasfinancas.model.vo.EstadoLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.FluxoCaixa;
+
+public interface ResumoMensalService {
+	
+	// anterior nulo indica inclusão e atual nulo indica exclusão.
+	void registrarAlteracao(EstadoLancamento anterior, EstadoLancamento atual);
+	
+	// alterações em lote (inclusões com anteriores vazio), valores e quantidades somados por resumo antes de aplicados.
+	void registrarAlteracoes(List<EstadoLancamento> anteriores, List<EstadoLancamento> atuais);
+	
+	FluxoCaixa obterFluxoCaixa(Long usuarioId, Integer ano);
+	
+	void reconstruir(Long usuarioId);
+	
+	List<Long> obterUsuariosComLancamentos();
+}
@@ -0,0 +1,24 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import java.util.Date;
+
+public interface RevogacaoTokenService {
+	
+	// invalida os tokens sem estado emitidos até agora para o usuário, que passa a precisar de um novo login.
+	void revogar(Long usuarioId);
+	
+	// verdadeiro para tokens emitidos antes da última revogação do usuário (comparação estrita).
+	boolean isRevogado(Long usuarioId, Date emitidoEm);
+	
+	// instante de emissão de um novo token, em milissegundos e sempre distinto dos instantes de revogação.
+	Date novaEmissao();
+	
+	// grava o jti do token como revogado até a expiração do token.
+	void revogarToken(String jti, Long usuarioId, Date expiraEm);
+	
+	// só consulta o banco quando o filtro em memória indica que o jti talvez esteja revogado.
+	boolean isTokenRevogado(String jti);
+	
+	// remove os registros expirados e recria o filtro em memória com os jtis ainda revogados.
+	int reconstruirFiltro();
+}
@@ -0,0 +1,26 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import br.com.hioktec.minhasfinancas.model.vo.EstadoLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.ReconciliacaoSaldo;
+import br.com.hioktec.minhasfinancas.model.vo.SaldoDetalhado;
+
+public interface SaldoService {
+	
+	// anterior nulo indica inclusão e atual nulo indica exclusão.
+	void registrarAlteracao(EstadoLancamento anterior, EstadoLancamento atual);
+	
+	// alterações em lote (inclusões com anteriores vazio), deltas somados por usuário e período antes de aplicados.
+	void registrarAlteracoes(List<EstadoLancamento> anteriores, List<EstadoLancamento> atuais);
+	
+	BigDecimal obterSaldo(Long usuarioId);
+	
+	// saldo efetivado acumulado até o fim do mês informado.
+	BigDecimal obterSaldoAte(Long usuarioId, Integer ano, Integer mes);
+	
+	SaldoDetalhado obterSaldoDetalhado(Long usuarioId);
+	
+	ReconciliacaoSaldo reconciliar(Long usuarioId);
+}
@@ -0,0 +1,11 @@
+package br.com.hioktec.minhasfinancas.service;
+
+public interface VersaoUsuarioService {
+	
+	void incrementar(Long usuarioId);
+	
+	Long obterVersao(Long usuarioId);
+	
+	// ETag forte do recurso informado na versão atual dos dados do usuário.
+	String obterEtag(Long usuarioId, String recurso);
+}
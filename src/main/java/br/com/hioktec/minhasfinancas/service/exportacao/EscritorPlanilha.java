@@ -0,0 +1,31 @@
+package br.com.hioktec.minhasfinancas.service.exportacao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.hioktec.minhasfinancas.model.enums.FormatoExportacao;
+
+/**
+ * Gravação incremental dos lançamentos exportados em planilha, uma linha por vez, sem acumular em memória.
+ * Ao fechar conclui a planilha, sem fechar a saída recebida.
+ * @author rodolfo
+ */
+public interface EscritorPlanilha extends Closeable {
+	
+	String[] CABECALHO = {"id", "descricao", "ano", "mes", "tipo", "status", "valor"};
+	
+	void escrever(LancamentoDTO lancamento) throws IOException;
+	
+	static EscritorPlanilha de(FormatoExportacao formato, OutputStream saida) throws IOException {
+		switch (formato) {
+		case XLSX:
+			return new EscritorPlanilhaXlsx(saida);
+		case CSV:
+			return new EscritorPlanilhaCsv(saida);
+		default:
+			throw new IllegalArgumentException("Formato de planilha inválido: " + formato);
+		}
+	}
+}
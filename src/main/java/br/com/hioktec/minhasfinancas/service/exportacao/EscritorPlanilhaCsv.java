@@ -0,0 +1,78 @@
+package br.com.hioktec.minhasfinancas.service.exportacao;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+
+import br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO;
+
+/**
+ * CSV separado por ponto e vírgula com vírgula decimal, como esperam as planilhas em português,
+ * e com as mesmas colunas aceitas pela importação de extratos.
+ * @author rodolfo
+ */
+class EscritorPlanilhaCsv implements EscritorPlanilha {
+	
+	private static final char SEPARADOR = ';';
+	
+	private final Writer writer;
+	
+	EscritorPlanilhaCsv(OutputStream saida) throws IOException {
+		this.writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+		// BOM: sem ele o Excel abre o arquivo como Latin-1.
+		writer.write('\uFEFF');
+		escreverLinha(CABECALHO);
+	}
+
+	@Override
+	public void escrever(LancamentoDTO lancamento) throws IOException {
+		escreverLinha(new String[] {
+				String.valueOf(lancamento.getId()),
+				neutralizarFormula(lancamento.getDescricao()),
+				String.valueOf(lancamento.getAno()),
+				String.valueOf(lancamento.getMes()),
+				lancamento.getTipo(),
+				lancamento.getStatus(),
+				lancamento.getValor().setScale(2, RoundingMode.HALF_EVEN).toPlainString().replace('.', ',')
+		});
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.flush();
+	}
+	
+	private void escreverLinha(String[] campos) throws IOException {
+		for (int i = 0; i < campos.length; i++) {
+			if (i > 0) {
+				writer.write(SEPARADOR);
+			}
+			escreverCampo(campos[i]);
+		}
+		writer.write("\r\n");
+	}
+	
+	// texto livre começando por =, +, -, @, tab ou CR seria executado como fórmula pela planilha;
+	// o apóstrofo faz a célula ser lida como texto. O valor não passa por aqui: negativo continua número.
+	private static String neutralizarFormula(String texto) {
+		if (texto == null || texto.isEmpty() || "=+-@\t\r".indexOf(texto.charAt(0)) < 0) {
+			return texto;
+		}
+		return "'" + texto;
+	}
+	
+	private void escreverCampo(String campo) throws IOException {
+		if (campo.indexOf(SEPARADOR) < 0 && campo.indexOf('"') < 0 
+				&& campo.indexOf('\n') < 0 && campo.indexOf('\r') < 0) {
+			writer.write(campo);
+			return;
+		}
+		writer.write('"');
+		writer.write(campo.replace("\"", "\"\""));
+		writer.write('"');
+	}
+}
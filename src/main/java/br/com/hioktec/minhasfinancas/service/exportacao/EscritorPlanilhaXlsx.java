@@ -0,0 +1,80 @@
+package br.com.hioktec.minhasfinancas.service.exportacao;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.xssf.streaming.SXSSFRow;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO;
+
+/**
+ * XLSX gravado com o SXSSF do Apache POI: apenas uma janela de linhas fica em memória,
+ * as anteriores vão para um arquivo temporário compactado até a planilha ser concluída.
+ * @author rodolfo
+ */
+class EscritorPlanilhaXlsx implements EscritorPlanilha {
+	
+	private static final int JANELA_LINHAS = 100;
+	
+	private static final int LIMITE_LINHAS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+	
+	private final OutputStream saida;
+	
+	private final SXSSFWorkbook workbook;
+	
+	private final CellStyle estiloValor;
+	
+	private SXSSFSheet planilha;
+	
+	private int linha;
+	
+	EscritorPlanilhaXlsx(OutputStream saida) {
+		this.saida = saida;
+		this.workbook = new SXSSFWorkbook(JANELA_LINHAS);
+		this.workbook.setCompressTempFiles(true);
+		this.estiloValor = workbook.createCellStyle();
+		this.estiloValor.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+		novaPlanilha();
+	}
+
+	@Override
+	public void escrever(LancamentoDTO lancamento) throws IOException {
+		// acima do limite de linhas do formato os lançamentos continuam em uma nova aba.
+		if (linha == LIMITE_LINHAS) {
+			novaPlanilha();
+		}
+		SXSSFRow row = planilha.createRow(linha++);
+		row.createCell(0).setCellValue(lancamento.getId());
+		row.createCell(1).setCellValue(lancamento.getDescricao());
+		row.createCell(2).setCellValue(lancamento.getAno());
+		row.createCell(3).setCellValue(lancamento.getMes());
+		row.createCell(4).setCellValue(lancamento.getTipo());
+		row.createCell(5).setCellValue(lancamento.getStatus());
+		row.createCell(6).setCellValue(lancamento.getValor().doubleValue());
+		row.getCell(6).setCellStyle(estiloValor);
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			workbook.write(saida);
+			saida.flush();
+		} finally {
+			workbook.dispose();
+			workbook.close();
+		}
+	}
+	
+	private void novaPlanilha() {
+		planilha = workbook.createSheet("Lançamentos " + (workbook.getNumberOfSheets() + 1));
+		linha = 0;
+		SXSSFRow cabecalho = planilha.createRow(linha++);
+		for (int i = 0; i < CABECALHO.length; i++) {
+			cabecalho.createCell(i).setCellValue(CABECALHO[i]);
+		}
+	}
+}
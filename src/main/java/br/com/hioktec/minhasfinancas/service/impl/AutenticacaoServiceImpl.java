@@ -0,0 +1,92 @@
+package br.com.hioktec.minhasfinancas.service.impl;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+
+import br.com.hioktec.minhasfinancas.exception.SobrecargaException;
+import br.com.hioktec.minhasfinancas.model.vo.EstatisticasAutenticacao;
+import br.com.hioktec.minhasfinancas.service.AutenticacaoService;
+
+@Service
+public class AutenticacaoServiceImpl implements AutenticacaoService {
+	
+	private AuthenticationManager authenticationManager;
+	
+	// o BCrypt é caro de propósito: uma rajada de logins ocupa só estas threads, e não as do Tomcat.
+	private ThreadPoolExecutor executor;
+	
+	private final AtomicLong concluidas = new AtomicLong();
+	
+	private final AtomicLong credenciaisInvalidas = new AtomicLong();
+	
+	private final AtomicLong rejeitadas = new AtomicLong();
+	
+	private final AtomicLong tempoTotalNanos = new AtomicLong();
+	
+	public AutenticacaoServiceImpl(AuthenticationManager authenticationManager,
+			@Value("${app.autenticacao.threads:4}") int threads,
+			@Value("${app.autenticacao.fila:50}") int fila) {
+		this.authenticationManager = authenticationManager;
+		AtomicInteger contador = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(fila),
+				tarefa -> {
+					Thread thread = new Thread(tarefa, "autenticacao-" + contador.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+	
+	@Override
+	public CompletableFuture<Authentication> autenticar(String nomeUsuarioOuEmail, String senha) {
+		try {
+			return CompletableFuture.supplyAsync(() -> verificar(nomeUsuarioOuEmail, senha), executor);
+		} catch (RejectedExecutionException e) {
+			rejeitadas.incrementAndGet();
+			throw new SobrecargaException("Muitas tentativas de login simultâneas. Tente novamente em instantes.");
+		}
+	}
+	
+	@Override
+	public EstatisticasAutenticacao obterEstatisticas() {
+		long total = concluidas.get() + credenciaisInvalidas.get();
+		return new EstatisticasAutenticacao(concluidas.get(), credenciaisInvalidas.get(), rejeitadas.get(),
+				executor.getActiveCount(), executor.getQueue().size(),
+				total == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(tempoTotalNanos.get() / total));
+	}
+	
+	@PreDestroy
+	public void encerrar() {
+		executor.shutdown();
+	}
+	
+	private Authentication verificar(String nomeUsuarioOuEmail, String senha) {
+		long inicio = System.nanoTime();
+		try {
+			Authentication autenticacao = authenticationManager.authenticate(
+					new UsernamePasswordAuthenticationToken(nomeUsuarioOuEmail, senha));
+			concluidas.incrementAndGet();
+			return autenticacao;
+		} catch (AuthenticationException e) {
+			credenciaisInvalidas.incrementAndGet();
+			throw e;
+		} finally {
+			tempoTotalNanos.addAndGet(System.nanoTime() - inicio);
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package br.com.hioktec.minhasfinancas.service.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Cache com validade fixa por registro e quantidade máxima de registros, descartando primeiro os mais antigos.
+ * Valores ainda não descartáveis (ex.: operações em andamento) ficam fixos até deixarem de sê-lo.
+ * Não é seguro entre threads: quem o usa sincroniza no próprio cache, inclusive nas operações compostas.
+ * @author rodolfo
+ */
+class CacheLimitado<K, V> {
+
+	// ordem de inserção: como a validade é fixa, o primeiro registro é sempre o próximo a expirar.
+	private final Map<K, Registro<V>> registros = new LinkedHashMap<>();
+	
+	private final long validadeMillis;
+	
+	private final int capacidade;
+	
+	private final Predicate<V> descartavel;
+	
+	private long remocoes;
+	
+	CacheLimitado(long validadeMillis, int capacidade) {
+		this(validadeMillis, capacidade, valor -> true);
+	}
+	
+	CacheLimitado(long validadeMillis, int capacidade, Predicate<V> descartavel) {
+		this.validadeMillis = validadeMillis;
+		this.capacidade = capacidade;
+		this.descartavel = descartavel;
+	}
+	
+	// valor ainda válido da chave, ou nulo; os registros expirados são descartados antes da consulta.
+	V obter(K chave) {
+		removerExpirados(System.currentTimeMillis());
+		Registro<V> registro = registros.get(chave);
+		return registro != null ? registro.valor : null;
+	}
+	
+	// regravado ao final da ordem, com a validade contada a partir de agora; 
+	// retorna falso (sem guardar) se todos os registros estão fixos e não há espaço.
+	boolean guardar(K chave, V valor) {
+		registros.remove(chave);
+		registros.put(chave, new Registro<>(valor, System.currentTimeMillis() + validadeMillis));
+		removerExcedentes();
+		if (registros.size() > capacidade) {
+			registros.remove(chave);
+			return false;
+		}
+		return true;
+	}
+	
+	boolean remover(K chave) {
+		return registros.remove(chave) != null;
+	}
+	
+	// só remove se a chave ainda guardar o mesmo valor.
+	boolean remover(K chave, V valor) {
+		Registro<V> registro = registros.get(chave);
+		return registro != null && registro.valor == valor && registros.remove(chave) != null;
+	}
+	
+	int tamanho() {
+		return registros.size();
+	}
+	
+	// registros descartados por expiração ou por exceder a capacidade.
+	long obterRemocoes() {
+		return remocoes;
+	}
+	
+	// os fixos expirados são mantidos e pulados, a varredura segue até o primeiro registro ainda válido.
+	private void removerExpirados(long agora) {
+		Iterator<Registro<V>> iterator = registros.values().iterator();
+		while (iterator.hasNext()) {
+			Registro<V> registro = iterator.next();
+			if (registro.expiraEm > agora) {
+				return;
+			}
+			if (descartavel.test(registro.valor)) {
+				iterator.remove();
+				remocoes++;
+			}
+		}
+	}
+	
+	private void removerExcedentes() {
+		Iterator<Registro<V>> iterator = registros.values().iterator();
+		while (registros.size() > capacidade && iterator.hasNext()) {
+			if (descartavel.test(iterator.next().valor)) {
+				iterator.remove();
+				remocoes++;
+			}
+		}
+	}
+	
+	private static class Registro<V> {
+	
+		private final V valor;
+		
+		private final long expiraEm;
+		
+		private Registro(V valor, long expiraEm) {
+			this.valor = valor;
+			this.expiraEm = expiraEm;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package br.com.hioktec.minhasfinancas.service.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.hioktec.minhasfinancas.model.vo.EstatisticasCache;
+import br.com.hioktec.minhasfinancas.security.UsuarioPrincipal;
+import br.com.hioktec.minhasfinancas.service.CachePrincipalService;
+
+@Service
+public class CachePrincipalServiceImpl implements CachePrincipalService {
+
+	private final CacheLimitado<Long, UsuarioPrincipal> registros;
+	
+	// incrementada a cada invalidação: um carregamento iniciado antes dela não é guardado, pois pode estar desatualizado.
+	private long geracao;
+	
+	private long acertos;
+	
+	private long falhas;
+	
+	private long invalidacoes;
+	
+	public CachePrincipalServiceImpl(@Value("${app.cache.principal.validadeSegundos:300}") long validadeSegundos,
+			@Value("${app.cache.principal.capacidade:10000}") int capacidade) {
+		this.registros = new CacheLimitado<>(TimeUnit.SECONDS.toMillis(validadeSegundos), capacidade);
+	}
+	
+	@Override
+	public UsuarioPrincipal obter(Long usuarioId, Function<Long, UsuarioPrincipal> carregador) {
+		long geracaoCarregamento;
+		synchronized (registros) {
+			UsuarioPrincipal principal = registros.obter(usuarioId);
+			if (principal != null) {
+				acertos++;
+				return principal;
+			}
+			falhas++;
+			geracaoCarregamento = geracao;
+		}
+		
+		// consulta fora do bloqueio: o carregamento de um usuário não segura as requisições dos demais.
+		UsuarioPrincipal principal = carregador.apply(usuarioId);
+		
+		synchronized (registros) {
+			if (geracaoCarregamento == geracao) {
+				registros.guardar(usuarioId, principal);
+			}
+		}
+		return principal;
+	}
+	
+	@Override
+	public void invalidar(Long usuarioId) {
+		remover(usuarioId);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			// um carregamento concorrente ainda pode ler o estado anterior até o commit.
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					remover(usuarioId);
+				}
+			});
+		}
+	}
+	
+	@Override
+	public EstatisticasCache obterEstatisticas() {
+		synchronized (registros) {
+			return new EstatisticasCache(acertos, falhas, invalidacoes, registros.obterRemocoes(), registros.tamanho());
+		}
+	}
+	
+	private void remover(Long usuarioId) {
+		synchronized (registros) {
+			geracao++;
+			if (registros.remover(usuarioId)) {
+				invalidacoes++;
+			}
+		}
+	}
+}
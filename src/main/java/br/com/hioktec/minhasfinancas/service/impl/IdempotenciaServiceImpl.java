@@ -0,0 +1,100 @@
+package br.com.hioktec.minhasfinancas.service.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.com.hioktec.minhasfinancas.exception.ConflitoIdempotenciaException;
+import br.com.hioktec.minhasfinancas.exception.SobrecargaException;
+import br.com.hioktec.minhasfinancas.model.vo.ResultadoIdempotente;
+import br.com.hioktec.minhasfinancas.service.IdempotenciaService;
+
+@Service
+public class IdempotenciaServiceImpl implements IdempotenciaService {
+	
+	private final CacheLimitado<String, Registro> registros;
+	
+	private long esperaMillis;
+	
+	public IdempotenciaServiceImpl(@Value("${app.idempotencia.validadeMinutos:1440}") long validadeMinutos,
+			@Value("${app.idempotencia.capacidade:10000}") int capacidade,
+			@Value("${app.idempotencia.esperaSegundos:30}") long esperaSegundos) {
+		// uma chave em andamento não pode ser descartada, senão a repetição executaria a operação de novo.
+		this.registros = new CacheLimitado<>(TimeUnit.MINUTES.toMillis(validadeMinutos), capacidade, 
+				registro -> registro.resultado.isDone());
+		this.esperaMillis = TimeUnit.SECONDS.toMillis(esperaSegundos);
+	}
+
+	@Override
+	public <T> ResultadoIdempotente<T> executar(String chave, String assinatura, Supplier<T> operacao) {
+		Registro registro;
+		boolean primeiraExecucao = false;
+		synchronized (registros) {
+			registro = registros.obter(chave);
+			if (registro == null) {
+				registro = new Registro(assinatura);
+				if (!registros.guardar(chave, registro)) {
+					throw new SobrecargaException("Muitas requisições com chave de idempotência em andamento. Tente novamente em instantes.");
+				}
+				primeiraExecucao = true;
+			}
+		}
+		
+		if (!registro.assinatura.equals(assinatura)) {
+			throw new ConflitoIdempotenciaException("Chave de idempotência já utilizada em outra requisição.");
+		}
+		
+		if (primeiraExecucao) {
+			return new ResultadoIdempotente<>(executarPrimeira(chave, registro, operacao), false);
+		}
+		return new ResultadoIdempotente<>(aguardar(registro), true);
+	}
+	
+	private <T> T executarPrimeira(String chave, Registro registro, Supplier<T> operacao) {
+		try {
+			T valor = operacao.get();
+			registro.resultado.complete(valor);
+			return valor;
+		} catch (RuntimeException e) {
+			// falhas não ficam guardadas: a próxima tentativa com a mesma chave executa novamente.
+			synchronized (registros) {
+				registros.remover(chave, registro);
+			}
+			registro.resultado.completeExceptionally(e);
+			throw e;
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private <T> T aguardar(Registro registro) {
+		try {
+			return (T) registro.resultado.get(esperaMillis, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} catch (TimeoutException e) {
+			throw new ConflitoIdempotenciaException("Requisição com a mesma chave de idempotência ainda em andamento.");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ConflitoIdempotenciaException("Requisição com a mesma chave de idempotência ainda em andamento.");
+		}
+	}
+	
+	private static class Registro {
+		
+		private final String assinatura;
+		
+		private final CompletableFuture<Object> resultado = new CompletableFuture<>();
+		
+		private Registro(String assinatura) {
+			this.assinatura = assinatura;
+		}
+	}
+}
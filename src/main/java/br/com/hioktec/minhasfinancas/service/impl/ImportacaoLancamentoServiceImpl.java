@@ -0,0 +1,104 @@
+package br.com.hioktec.minhasfinancas.service.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.hioktec.minhasfinancas.exception.RegraNegocioException;
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+import br.com.hioktec.minhasfinancas.model.enums.FormatoExtrato;
+import br.com.hioktec.minhasfinancas.model.vo.LinhaImportacao;
+import br.com.hioktec.minhasfinancas.model.vo.ResultadoImportacao;
+import br.com.hioktec.minhasfinancas.service.ImportacaoLancamentoService;
+import br.com.hioktec.minhasfinancas.service.LancamentoService;
+import br.com.hioktec.minhasfinancas.service.importacao.LeitorExtrato;
+import br.com.hioktec.minhasfinancas.service.importacao.LinhaExtrato;
+
+@Service
+public class ImportacaoLancamentoServiceImpl implements ImportacaoLancamentoService {
+	
+	private LancamentoService lancamentoService;
+	
+	private Validator validator;
+	
+	private int tamanhoLote;
+	
+	public ImportacaoLancamentoServiceImpl(LancamentoService lancamentoService, Validator validator,
+			@Value("${app.importacao.tamanhoLote:50}") int tamanhoLote) {
+		this.lancamentoService = lancamentoService;
+		this.validator = validator;
+		this.tamanhoLote = tamanhoLote;
+	}
+
+	@Override
+	@Transactional
+	public ResultadoImportacao importar(Usuario usuario, FormatoExtrato formato, Reader extrato) {
+		List<LinhaImportacao> linhas = new ArrayList<>();
+		List<Lancamento> lote = new ArrayList<>(tamanhoLote);
+		List<Integer> numerosLote = new ArrayList<>(tamanhoLote);
+		
+		try (LeitorExtrato leitor = LeitorExtrato.de(formato, extrato)) {
+			LinhaExtrato linha;
+			while ((linha = leitor.proxima()) != null) {
+				if (linha.getErro() != null) {
+					linhas.add(LinhaImportacao.rejeitada(linha.getNumero(), linha.getErro()));
+					continue;
+				}
+				
+				Lancamento lancamento = linha.paraLancamento(usuario);
+				try {
+					lancamentoService.validar(lancamento);
+				} catch (RegraNegocioException e) {
+					linhas.add(LinhaImportacao.rejeitada(linha.getNumero(), e.getMessage()));
+					continue;
+				}
+				// restrições da entidade (tamanho da descrição, casas decimais, dígitos do ano): 
+				// falhariam somente no flush do lote e desfariam toda a importação.
+				Set<ConstraintViolation<Lancamento>> violacoes = validator.validate(lancamento);
+				if (!violacoes.isEmpty()) {
+					ConstraintViolation<Lancamento> violacao = violacoes.iterator().next();
+					linhas.add(LinhaImportacao.rejeitada(linha.getNumero(), violacao.getPropertyPath() + " " + violacao.getMessage()));
+					continue;
+				}
+				
+				lote.add(lancamento);
+				numerosLote.add(linha.getNumero());
+				if (lote.size() == tamanhoLote) {
+					gravar(lote, numerosLote, linhas);
+				}
+			}
+			gravar(lote, numerosLote, linhas);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		
+		linhas.sort(Comparator.comparing(LinhaImportacao::getLinha));
+		int importados = (int) linhas.stream().filter(linha -> linha.getErro() == null).count();
+		return new ResultadoImportacao(importados, linhas.size() - importados, linhas);
+	}
+	
+	private void gravar(List<Lancamento> lote, List<Integer> numerosLote, List<LinhaImportacao> linhas) {
+		if (lote.isEmpty()) {
+			return;
+		}
+		List<Lancamento> salvos = lancamentoService.salvarLote(lote);
+		for (int i = 0; i < salvos.size(); i++) {
+			linhas.add(LinhaImportacao.importada(numerosLote.get(i), salvos.get(i).getId()));
+		}
+		lote.clear();
+		numerosLote.clear();
+	}
+	
+}
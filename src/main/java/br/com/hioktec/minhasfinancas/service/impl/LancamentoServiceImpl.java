@@ -1,30 +1,93 @@
 package br.com.hioktec.minhasfinancas.service.impl;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
-import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO;
 import br.com.hioktec.minhasfinancas.exception.RegraNegocioException;
 import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.entity.Usuario;
 import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
 import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.CursorLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.EstadoLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.FiltroLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.PaginaLancamentos;
+import br.com.hioktec.minhasfinancas.model.vo.ReconciliacaoSaldo;
+import br.com.hioktec.minhasfinancas.model.vo.ResultadoAtualizacaoStatus;
+import br.com.hioktec.minhasfinancas.model.vo.ResultadoExclusao;
+import br.com.hioktec.minhasfinancas.model.vo.SaldoDetalhado;
+import br.com.hioktec.minhasfinancas.model.vo.TotalLancamento;
 import br.com.hioktec.minhasfinancas.repository.LancamentoRepository;
+import br.com.hioktec.minhasfinancas.repository.LancamentoSpecifications;
 import br.com.hioktec.minhasfinancas.service.LancamentoService;
+import br.com.hioktec.minhasfinancas.service.PesquisaLancamentoService;
+import br.com.hioktec.minhasfinancas.service.ResumoMensalService;
+import br.com.hioktec.minhasfinancas.service.SaldoService;
+import br.com.hioktec.minhasfinancas.service.VersaoUsuarioService;
 
 @Service
 public class LancamentoServiceImpl implements LancamentoService{
 	
 	private LancamentoRepository repository;
 	
-	public LancamentoServiceImpl(LancamentoRepository repository) {
+	private SaldoService saldoService;
+	
+	private ResumoMensalService resumoMensalService;
+	
+	private PesquisaLancamentoService pesquisaLancamentoService;
+	
+	private VersaoUsuarioService versaoUsuarioService;
+	
+	private static final int LIMITE_PADRAO = 50;
+	
+	private static final int LIMITE_MAXIMO = 500;
+	
+	private static final int LIMITE_ATUALIZACAO_LOTE = 1000;
+	
+	// transições em lote: pendentes são efetivados ou cancelados, efetivados e cancelados podem voltar a pendente.
+	private static final Map<StatusLancamento, Set<StatusLancamento>> ORIGENS_PERMITIDAS = new EnumMap<>(StatusLancamento.class);
+	
+	static {
+		ORIGENS_PERMITIDAS.put(StatusLancamento.EFETIVADO, EnumSet.of(StatusLancamento.PENDENTE));
+		ORIGENS_PERMITIDAS.put(StatusLancamento.CANCELADO, EnumSet.of(StatusLancamento.PENDENTE));
+		ORIGENS_PERMITIDAS.put(StatusLancamento.PENDENTE, EnumSet.of(StatusLancamento.EFETIVADO, StatusLancamento.CANCELADO));
+	}
+	
+	private static final Set<String> CAMPOS_ORDENACAO = 
+			new HashSet<>(Arrays.asList("ano", "mes", "valor", "descricao", "tipo", "status"));
+	
+	public LancamentoServiceImpl(LancamentoRepository repository, SaldoService saldoService,
+			ResumoMensalService resumoMensalService, PesquisaLancamentoService pesquisaLancamentoService,
+			VersaoUsuarioService versaoUsuarioService) {
 		this.repository = repository;
+		this.saldoService = saldoService;
+		this.resumoMensalService = resumoMensalService;
+		this.pesquisaLancamentoService = pesquisaLancamentoService;
+		this.versaoUsuarioService = versaoUsuarioService;
 	}
 
 	@Override
@@ -32,7 +95,33 @@ public class LancamentoServiceImpl implements LancamentoService{
 	public Lancamento salvar(Lancamento lancamento) {
 		validar(lancamento);
 		lancamento.setStatus(StatusLancamento.PENDENTE);
-		return repository.save(lancamento);
+		Lancamento lancamentoSalvo = repository.save(lancamento);
+		registrarAlteracao(null, lancamentoSalvo);
+		return lancamentoSalvo;
+	}
+
+	@Override
+	@Transactional
+	public List<Lancamento> salvarLote(List<Lancamento> lancamentos) {
+		for (Lancamento lancamento : lancamentos) {
+			validar(lancamento);
+			lancamento.setStatus(StatusLancamento.PENDENTE);
+		}
+		// os ids vêm da sequência em blocos, então o flush envia os inserts em lotes jdbc.
+		List<Lancamento> lancamentosSalvos = repository.saveAll(lancamentos);
+		repository.flush();
+		
+		Map<Long, EstadoLancamento> inclusoes = new LinkedHashMap<>();
+		lancamentosSalvos.forEach(lancamento -> inclusoes.put(lancamento.getId(), lancamento.obterEstado()));
+		List<EstadoLancamento> estados = new ArrayList<>(inclusoes.values());
+		saldoService.registrarAlteracoes(Collections.emptyList(), estados);
+		resumoMensalService.registrarAlteracoes(Collections.emptyList(), estados);
+		pesquisaLancamentoService.registrarInclusoes(inclusoes);
+		estados.stream().map(EstadoLancamento::getUsuario).distinct().forEach(versaoUsuarioService::incrementar);
+		
+		// lotes seguintes não precisam destes lançamentos no contexto de persistência.
+		lancamentosSalvos.forEach(repository::desanexar);
+		return lancamentosSalvos;
 	}
 
 	@Override
@@ -40,36 +129,140 @@ public class LancamentoServiceImpl implements LancamentoService{
 	public Lancamento atualizar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
 		validar(lancamento);
-		return repository.save(lancamento);
+		// o merge devolve a instância gerenciada, cujo estado persistido foi registrado ao ser carregada.
+		Lancamento lancamentoAtualizado = repository.save(lancamento);
+		registrarAlteracao(lancamentoAtualizado.getEstadoPersistido(), lancamentoAtualizado);
+		return lancamentoAtualizado;
+	}
+
+	@Override
+	@Transactional
+	public Lancamento atualizar(Long usuarioId, Long id, Lancamento atualizacao) {
+		Lancamento lancamento = repository.findById(id)
+				.orElseThrow(() -> new RegraNegocioException("Lancamento não encontrado na base de dados"));
+		if (!lancamento.getUsuario().getId().equals(usuarioId)) {
+			throw new AccessDeniedException("Lançamento pertence a outro usuário");
+		}
+		if (atualizacao.getVersao() != null && !atualizacao.getVersao().equals(lancamento.getVersao())) {
+			throw new OptimisticLockingFailureException(
+					"Lançamento alterado por outra requisição. Consulte-o novamente antes de alterar.");
+		}
+		
+		// a instância já está gerenciada: o update sai pela verificação de alterações, sem o merge de uma cópia.
+		lancamento.setDescricao(atualizacao.getDescricao());
+		lancamento.setMes(atualizacao.getMes());
+		lancamento.setAno(atualizacao.getAno());
+		lancamento.setValor(atualizacao.getValor());
+		lancamento.setTipo(atualizacao.getTipo());
+		if (atualizacao.getStatus() != null) {
+			lancamento.setStatus(atualizacao.getStatus());
+		}
+		validar(lancamento);
+		registrarAlteracao(lancamento.getEstadoPersistido(), lancamento);
+		return lancamento;
 	}
 
 	@Override
 	@Transactional
 	public void deletar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
+		EstadoLancamento estadoAnterior = lancamento.getEstadoPersistido() != null 
+				? lancamento.getEstadoPersistido() 
+				: lancamento.obterEstado();
 		repository.delete(lancamento);
+		propagarAlteracao(lancamento.getId(), estadoAnterior, null);
+	}
+
+	@Override
+	@Transactional
+	public void deletar(Long usuarioId, Long id) {
+		Lancamento lancamento = repository.findById(id)
+				.orElseThrow(() -> new RegraNegocioException("Lancamento não encontrado na base de dados"));
+		if (!lancamento.getUsuario().getId().equals(usuarioId)) {
+			throw new AccessDeniedException("Lançamento pertence a outro usuário");
+		}
+		deletar(lancamento);
+	}
+
+	@Override
+	@Transactional
+	public ResultadoExclusao deletar(FiltroLancamento filtro, boolean simulacao) {
+		Objects.requireNonNull(filtro.getUsuario());
+		return deletar(filtro.getUsuario(), LancamentoSpecifications.filtrar(filtro), simulacao);
+	}
+
+	@Override
+	@Transactional
+	public ResultadoExclusao deletar(Long usuarioId, Collection<Long> ids, boolean simulacao) {
+		Set<Long> distintos = new HashSet<>(ids);
+		if (distintos.isEmpty()) {
+			return new ResultadoExclusao(0L, simulacao);
+		}
+		if (distintos.size() > LIMITE_ATUALIZACAO_LOTE) {
+			throw new RegraNegocioException("Informe no máximo " + LIMITE_ATUALIZACAO_LOTE + " lançamentos.");
+		}
+		return deletar(usuarioId, 
+				Specification.where(LancamentoSpecifications.doUsuario(usuarioId)).and(LancamentoSpecifications.dosIds(distintos)), 
+				simulacao);
 	}
 
 	@Override
 	@Transactional(readOnly = true)
 	public List<Lancamento> buscar(Lancamento lancamentoFiltro) {
+		// os critérios do exemplo viram predicados de especificação, com os valores como parâmetros.
+		return repository.findAll(LancamentoSpecifications.filtrar(FiltroLancamento.de(lancamentoFiltro)));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<LancamentoDTO> buscarDTO(FiltroLancamento filtro) {
+		// projeção no DTO, sem carregar as entidades nem o usuário de cada linha.
+		return repository.buscarDTO(LancamentoSpecifications.filtrar(filtro), ordenar(filtro.getOrdenacao()));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PaginaLancamentos buscar(FiltroLancamento filtro, String cursor, Integer limite) {
+		int tamanho = limite == null ? LIMITE_PADRAO : limite;
+		if(tamanho < 1 || tamanho > LIMITE_MAXIMO) {
+			throw new RegraNegocioException("Informe um limite entre 1 e " + LIMITE_MAXIMO + ".");
+		}
+		if(!filtro.getOrdenacao().isEmpty()) {
+			throw new RegraNegocioException("A busca paginada é sempre ordenada por ano, mês e id.");
+		}
 		
-		/* sem api Example do spring data seria assim:
-		String sql = "select * from lancamento where 1 = 1";
+		CursorLancamento posicao = cursor == null || cursor.isEmpty() ? null : CursorLancamento.decodificar(cursor);
+		// uma linha a mais indica se existe próxima página sem precisar de count.
+		List<LancamentoDTO> lancamentos = repository.buscarPagina(LancamentoSpecifications.filtrar(filtro), posicao, tamanho + 1);
 		
-		if(lancamentoFiltro.getDescricao() != null) {
-			sql = sql + " and descricao = " + lancamentoFiltro.getDescricao();
+		if(lancamentos.size() <= tamanho) {
+			return new PaginaLancamentos(lancamentos, null);
+		}
+		
+		List<LancamentoDTO> pagina = lancamentos.subList(0, tamanho);
+		return new PaginaLancamentos(pagina, CursorLancamento.de(pagina.get(tamanho - 1)).codificar());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<LancamentoDTO> pesquisar(Long usuarioId, String texto, Integer limite) {
+		int tamanho = limite == null ? LIMITE_PADRAO : limite;
+		if(tamanho < 1 || tamanho > LIMITE_MAXIMO) {
+			throw new RegraNegocioException("Informe um limite entre 1 e " + LIMITE_MAXIMO + ".");
+		}
+		if(texto == null || texto.trim().isEmpty()) {
+			throw new RegraNegocioException("Informe um texto para a pesquisa.");
+		}
+		return pesquisaLancamentoService.pesquisar(usuarioId, texto, tamanho);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportar(FiltroLancamento filtro, Consumer<LancamentoDTO> consumidor) {
+		Objects.requireNonNull(filtro.getUsuario());
+		try (Stream<LancamentoDTO> lancamentos = repository.obterStreamDTO(LancamentoSpecifications.filtrar(filtro))) {
+			lancamentos.forEach(consumidor);
 		}
-		.
-		.
-		.
-		*/
-		Example<Lancamento> example = Example.of(
-				lancamentoFiltro, 
-				ExampleMatcher.matching()
-					.withIgnoreCase()
-					.withStringMatcher(StringMatcher.CONTAINING));
-		return repository.findAll(example);
 	}
 
 	@Override
@@ -78,6 +271,154 @@ public class LancamentoServiceImpl implements LancamentoService{
 		atualizar(lancamento);
 	}
 
+	@Override
+	@Transactional
+	public LancamentoDTO alterar(Long usuarioId, Long id, Long versao, Lancamento alteracoes) {
+		LancamentoDTO lancamento = repository.obterDTOPorId(id)
+				.orElseThrow(() -> new RegraNegocioException("Lancamento não encontrado na base de dados"));
+		if (!lancamento.getUsuario().equals(usuarioId)) {
+			throw new AccessDeniedException("Lançamento pertence a outro usuário");
+		}
+		Long versaoEsperada = versao != null ? versao : lancamento.getVersao();
+		if (!versaoEsperada.equals(lancamento.getVersao())) {
+			throw new OptimisticLockingFailureException(
+					"Lançamento alterado por outra requisição. Consulte-o novamente antes de alterar.");
+		}
+		
+		// o resultado da alteração passa pelas mesmas validações do cadastro e da atualização completa.
+		EstadoLancamento estadoAnterior = obterEstado(lancamento);
+		Usuario usuario = new Usuario();
+		usuario.setId(alteracoes.getUsuario() != null ? alteracoes.getUsuario().getId() : lancamento.getUsuario());
+		Lancamento alterado = Lancamento.builder()
+				.id(id)
+				.descricao(alteracoes.getDescricao() != null ? alteracoes.getDescricao() : lancamento.getDescricao())
+				.mes(alteracoes.getMes() != null ? alteracoes.getMes() : lancamento.getMes())
+				.ano(alteracoes.getAno() != null ? alteracoes.getAno() : lancamento.getAno())
+				.valor(alteracoes.getValor() != null ? alteracoes.getValor() : lancamento.getValor())
+				.tipo(alteracoes.getTipo() != null ? alteracoes.getTipo() : estadoAnterior.getTipo())
+				.status(alteracoes.getStatus() != null ? alteracoes.getStatus() : estadoAnterior.getStatus())
+				.usuario(usuario)
+				.build();
+		validar(alterado);
+		
+		int alterados;
+		try {
+			alterados = repository.alterar(id, versaoEsperada, alteracoes);
+		} catch (DataIntegrityViolationException e) {
+			throw new RegraNegocioException("Usuário não encontrado para o id informado");
+		}
+		if (alterados == 0) {
+			throw new OptimisticLockingFailureException(
+					"Lançamento alterado por outra requisição. Consulte-o novamente antes de alterar.");
+		}
+		propagarAlteracao(id, estadoAnterior, alterado.obterEstado());
+		
+		return new LancamentoDTO(id, alterado.getDescricao(), alterado.getMes(), alterado.getAno(), alterado.getValor(), 
+				alterado.getTipo(), alterado.getStatus(), usuario.getId(), versaoEsperada + 1);
+	}
+
+	@Override
+	@Transactional
+	public LancamentoDTO atualizarStatus(Long usuarioId, Long id, Long versao, StatusLancamento status) {
+		// projeção sem carregar a entidade: o estado anterior é necessário para os deltas dos dados derivados.
+		LancamentoDTO lancamento = repository.obterDTOPorId(id)
+				.orElseThrow(() -> new RegraNegocioException("Lancamento não encontrado na base de dados"));
+		if (!lancamento.getUsuario().equals(usuarioId)) {
+			throw new AccessDeniedException("Lançamento pertence a outro usuário");
+		}
+		Long versaoEsperada = versao != null ? versao : lancamento.getVersao();
+		
+		// toda escrita incrementa a versão, então o estado lido é exatamente o que o update substitui.
+		if (!versaoEsperada.equals(lancamento.getVersao()) 
+				|| repository.atualizarStatusNaVersao(id, usuarioId, versaoEsperada, status) == 0) {
+			throw new OptimisticLockingFailureException(
+					"Lançamento alterado por outra requisição. Consulte-o novamente antes de alterar.");
+		}
+		
+		EstadoLancamento estadoAnterior = obterEstado(lancamento);
+		EstadoLancamento estadoAtual = new EstadoLancamento(lancamento.getUsuario(), lancamento.getAno(), 
+				lancamento.getMes(), estadoAnterior.getTipo(), status, lancamento.getValor(), lancamento.getDescricao());
+		propagarAlteracao(id, estadoAnterior, estadoAtual);
+		
+		lancamento.setStatus(status.name());
+		lancamento.setVersao(versaoEsperada + 1);
+		return lancamento;
+	}
+
+	@Override
+	@Transactional
+	public ResultadoAtualizacaoStatus atualizarStatus(Long usuarioId, Collection<Long> ids, StatusLancamento status) {
+		Set<Long> distintos = new HashSet<>(ids);
+		if (distintos.isEmpty()) {
+			return new ResultadoAtualizacaoStatus(0, 0, 0);
+		}
+		if (distintos.size() > LIMITE_ATUALIZACAO_LOTE) {
+			throw new RegraNegocioException("Informe no máximo " + LIMITE_ATUALIZACAO_LOTE + " lançamentos.");
+		}
+		
+		// a mesma condição (usuário, ids e status de origem) seleciona os estados anteriores e filtra o update.
+		Set<StatusLancamento> origens = ORIGENS_PERMITIDAS.get(status);
+		List<EstadoLancamento> anteriores = repository.obterEstadosParaAtualizarStatus(usuarioId, distintos, origens);
+		if (anteriores.isEmpty()) {
+			return new ResultadoAtualizacaoStatus(distintos.size(), 0, distintos.size());
+		}
+		int atualizados = repository.atualizarStatus(usuarioId, distintos, origens, status);
+		
+		List<EstadoLancamento> atuais = anteriores.stream()
+				.map(anterior -> new EstadoLancamento(anterior.getUsuario(), anterior.getAno(), anterior.getMes(),
+						anterior.getTipo(), status, anterior.getValor(), anterior.getDescricao()))
+				.collect(Collectors.toList());
+		saldoService.registrarAlteracoes(anteriores, atuais);
+		resumoMensalService.registrarAlteracoes(anteriores, atuais);
+		versaoUsuarioService.incrementar(usuarioId);
+		
+		return new ResultadoAtualizacaoStatus(distintos.size(), atualizados, distintos.size() - atualizados);
+	}
+
+	@Override
+	@Transactional
+	public ResultadoAtualizacaoStatus atualizarStatusNoPeriodo(Long usuarioId, Integer ano, Integer mes, StatusLancamento status) {
+		if(mes == null || mes < 1 || mes > 12 || ano == null) {
+			throw new RegraNegocioException("Informe um Ano e Mês válidos.");
+		}
+		
+		// com as linhas do período bloqueadas, valor, tipo e status não mudam entre a soma e o update.
+		repository.bloquearPorUsuarioEPeriodo(usuarioId, ano, mes);
+
+		// totais por tipo e status do período: dão as contagens e os deltas dos dados derivados sem ler cada lançamento.
+		Set<StatusLancamento> origens = ORIGENS_PERMITIDAS.get(status);
+		List<TotalLancamento> totais = repository.obterTotaisPorUsuarioEPeriodo(usuarioId, ano, mes);
+		List<EstadoLancamento> anteriores = new ArrayList<>();
+		List<EstadoLancamento> atuais = new ArrayList<>();
+		long solicitados = 0;
+		long esperados = 0;
+		for (TotalLancamento total : totais) {
+			solicitados += total.getQuantidade();
+			if (origens.contains(total.getStatus())) {
+				esperados += total.getQuantidade();
+				anteriores.add(new EstadoLancamento(usuarioId, ano, mes, total.getTipo(), total.getStatus(), 
+						total.getValor(), null, total.getQuantidade()));
+				atuais.add(new EstadoLancamento(usuarioId, ano, mes, total.getTipo(), status, 
+						total.getValor(), null, total.getQuantidade()));
+			}
+		}
+		if (esperados == 0) {
+			return new ResultadoAtualizacaoStatus((int) solicitados, 0, (int) solicitados);
+		}
+		
+		// lançamentos incluídos no período depois do bloqueio não entraram na soma, e os deltas não valeriam mais.
+		int atualizados = repository.atualizarStatusNoPeriodo(usuarioId, ano, mes, origens, status);
+		if (atualizados != esperados) {
+			throw new OptimisticLockingFailureException(
+					"Lançamentos do período alterados por outra requisição. Tente novamente.");
+		}
+		saldoService.registrarAlteracoes(anteriores, atuais);
+		resumoMensalService.registrarAlteracoes(anteriores, atuais);
+		versaoUsuarioService.incrementar(usuarioId);
+		
+		return new ResultadoAtualizacaoStatus((int) solicitados, atualizados, (int) solicitados - atualizados);
+	}
+
 	@Override
 	public void validar(Lancamento lancamento) {
 		
@@ -112,22 +453,113 @@ public class LancamentoServiceImpl implements LancamentoService{
 		return repository.findById(id);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<LancamentoDTO> obterDTOPorId(Long id) {
+		return repository.obterDTOPorId(id);
+	}
+
 	@Override
 	@Transactional(readOnly = true)
 	public BigDecimal obterSaldoPorUsuario(Long id) {
+		// consulta por chave primária no saldo materializado ao invés de somar todos os lançamentos.
+		return saldoService.obterSaldo(id);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public BigDecimal obterSaldoPorUsuarioEPeriodo(Long id, Integer ano, Integer mes) {
+		if(mes < 1 || mes > 12) {
+			throw new RegraNegocioException("Informe um Mês válido.");
+		}
+		// uma busca no saldo acumulado por período ao invés de somar os lançamentos até a data.
+		return saldoService.obterSaldoAte(id, ano, mes);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public SaldoDetalhado obterSaldoDetalhadoPorUsuario(Long id) {
+		return saldoService.obterSaldoDetalhado(id);
+	}
+
+	@Override
+	@Transactional
+	public ReconciliacaoSaldo reconciliarSaldoPorUsuario(Long id) {
+		return saldoService.reconciliar(id);
+	}
+	
+	// campos permitidos para ordenação, com "-" para decrescente; sem campos segue a ordem do índice (ano, mês, id).
+	private Sort ordenar(List<String> campos) {
+		if(campos == null || campos.isEmpty()) {
+			return Sort.by("ano", "mes", "id");
+		}
 		
-		BigDecimal receitas = repository.obterSaldoPorTipoLancamentoEUsuarioEStatus(id, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO);
-		BigDecimal despesas = repository.obterSaldoPorTipoLancamentoEUsuarioEStatus(id, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO);
+		List<Sort.Order> ordens = new ArrayList<>();
+		for (String campo : campos) {
+			boolean decrescente = campo.startsWith("-");
+			String propriedade = decrescente ? campo.substring(1) : campo;
+			if(!CAMPOS_ORDENACAO.contains(propriedade)) {
+				throw new RegraNegocioException("Campo de ordenação inválido: " + propriedade);
+			}
+			ordens.add(decrescente ? Sort.Order.desc(propriedade) : Sort.Order.asc(propriedade));
+		}
+		// o id desempata para a ordem ser estável.
+		ordens.add(Sort.Order.asc("id"));
+		return Sort.by(ordens);
+	}
+	
+	// deltas dos dados derivados por uma soma agrupada das linhas bloqueadas; termos e lançamentos removidos por um delete cada.
+	private ResultadoExclusao deletar(Long usuarioId, Specification<Lancamento> especificacao, boolean simulacao) {
+		if (simulacao) {
+			return new ResultadoExclusao(repository.count(especificacao), true);
+		}
 		
-		if(receitas == null) {
-			receitas = BigDecimal.ZERO;
+		// com as linhas bloqueadas, valor, tipo e status não mudam entre a soma e o delete.
+		if (repository.bloquear(especificacao).isEmpty()) {
+			return new ResultadoExclusao(0L, false);
+		}
+		List<EstadoLancamento> anteriores = repository.somarPorPeriodoTipoEStatus(especificacao);
+		long esperados = anteriores.stream().mapToLong(EstadoLancamento::getQuantidade).sum();
+		if (esperados == 0) {
+			return new ResultadoExclusao(0L, false);
 		}
 		
-		if(despesas == null) {
-			despesas = BigDecimal.ZERO;
+		pesquisaLancamentoService.registrarExclusoes(usuarioId, especificacao);
+		long excluidos = repository.deletar(especificacao);
+		// lançamentos incluídos na especificação depois do bloqueio não entraram na soma, e os deltas não valeriam mais.
+		if (excluidos != esperados) {
+			throw new OptimisticLockingFailureException("Lançamentos alterados por outra requisição. Tente novamente.");
 		}
+		saldoService.registrarAlteracoes(anteriores, Collections.emptyList());
+		resumoMensalService.registrarAlteracoes(anteriores, Collections.emptyList());
+		versaoUsuarioService.incrementar(usuarioId);
 		
-		return receitas.subtract(despesas);
+		return new ResultadoExclusao(excluidos, false);
+	}
+	
+	private EstadoLancamento obterEstado(LancamentoDTO lancamento) {
+		return new EstadoLancamento(lancamento.getUsuario(), lancamento.getAno(), lancamento.getMes(), 
+				TipoLancamento.valueOf(lancamento.getTipo()), StatusLancamento.valueOf(lancamento.getStatus()), 
+				lancamento.getValor(), lancamento.getDescricao());
+	}
+	
+	private void registrarAlteracao(EstadoLancamento estadoAnterior, Lancamento lancamento) {
+		propagarAlteracao(lancamento.getId(), estadoAnterior, lancamento.obterEstado());
+		lancamento.registrarEstadoPersistido();
+	}
+	
+	// mantém os dados derivados (saldo, resumos mensais, índice de pesquisa e versão) na mesma transação da escrita.
+	private void propagarAlteracao(Long lancamentoId, EstadoLancamento estadoAnterior, EstadoLancamento estadoAtual) {
+		saldoService.registrarAlteracao(estadoAnterior, estadoAtual);
+		resumoMensalService.registrarAlteracao(estadoAnterior, estadoAtual);
+		pesquisaLancamentoService.registrarAlteracao(lancamentoId, estadoAnterior, estadoAtual);
+		
+		Long usuarioAnterior = estadoAnterior != null ? estadoAnterior.getUsuario() : null;
+		Long usuarioAtual = estadoAtual != null ? estadoAtual.getUsuario() : null;
+		versaoUsuarioService.incrementar(usuarioAtual != null ? usuarioAtual : usuarioAnterior);
+		if (usuarioAnterior != null && usuarioAtual != null && !usuarioAnterior.equals(usuarioAtual)) {
+			versaoUsuarioService.incrementar(usuarioAnterior);
+		}
 	}
 	
 }
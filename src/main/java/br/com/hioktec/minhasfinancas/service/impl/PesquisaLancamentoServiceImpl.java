@@ -0,0 +1,155 @@
+package br.com.hioktec.minhasfinancas.service.impl;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.entity.TermoLancamentoId;
+import br.com.hioktec.minhasfinancas.model.vo.EstadoLancamento;
+import br.com.hioktec.minhasfinancas.repository.LancamentoRepository;
+import br.com.hioktec.minhasfinancas.repository.TermoLancamentoRepository;
+import br.com.hioktec.minhasfinancas.service.PesquisaLancamentoService;
+
+@Service
+public class PesquisaLancamentoServiceImpl implements PesquisaLancamentoService {
+	
+	private static final int TAMANHO_MINIMO_TERMO = 2;
+	
+	private static final int TAMANHO_MAXIMO_TERMO = 60;
+	
+	private static final int TAMANHO_LOTE = 500;
+	
+	private TermoLancamentoRepository repository;
+	
+	private LancamentoRepository lancamentoRepository;
+	
+	public PesquisaLancamentoServiceImpl(TermoLancamentoRepository repository, LancamentoRepository lancamentoRepository) {
+		this.repository = repository;
+		this.lancamentoRepository = lancamentoRepository;
+	}
+
+	@Override
+	@Transactional
+	public void registrarAlteracao(Long lancamentoId, EstadoLancamento anterior, EstadoLancamento atual) {
+		if (anterior != null && atual != null 
+				&& Objects.equals(anterior.getUsuario(), atual.getUsuario())
+				&& Objects.equals(anterior.getDescricao(), atual.getDescricao())) {
+			return;
+		}
+		
+		if (anterior != null) {
+			// os termos indexados são os da descrição anterior, o que evita varrer a tabela pelo id do lançamento.
+			Set<String> termos = extrairTermos(anterior.getDescricao());
+			if (anterior.getUsuario() != null && !termos.isEmpty()) {
+				repository.deletarPorLancamento(anterior.getUsuario(), termos, lancamentoId);
+			}
+		}
+		
+		if (atual != null) {
+			indexar(atual.getUsuario(), lancamentoId, atual.getDescricao());
+		}
+	}
+
+	@Override
+	@Transactional
+	public void registrarInclusoes(Map<Long, EstadoLancamento> inclusoes) {
+		List<TermoLancamentoId> termos = new ArrayList<>();
+		inclusoes.forEach((lancamentoId, estado) -> {
+			if (estado.getUsuario() != null) {
+				extrairTermos(estado.getDescricao()).forEach(termo -> 
+					termos.add(new TermoLancamentoId(estado.getUsuario(), termo, lancamentoId)));
+			}
+		});
+		repository.inserirEmLote(termos);
+	}
+
+	@Override
+	@Transactional
+	public void registrarExclusoes(Long usuarioId, Specification<Lancamento> especificacao) {
+		repository.deletarPorEspecificacao(usuarioId, especificacao);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<LancamentoDTO> pesquisar(Long usuarioId, String texto, int limite) {
+		Set<String> termos = extrairTermos(texto);
+		if (termos.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		List<Long> ids = repository.pesquisarPorRelevancia(usuarioId, termos, PageRequest.of(0, limite));
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		// a consulta por ids não preserva a ordem, que é restaurada pela posição na lista de relevância.
+		Map<Long, Integer> posicoes = new HashMap<>();
+		for (int i = 0; i < ids.size(); i++) {
+			posicoes.put(ids.get(i), i);
+		}
+		List<LancamentoDTO> lancamentos = lancamentoRepository.obterDTOPorUsuarioEIds(usuarioId, ids);
+		lancamentos.sort(Comparator.comparing(lancamento -> posicoes.get(lancamento.getId())));
+		return lancamentos;
+	}
+
+	@Override
+	@Transactional
+	public void reconstruir(Long usuarioId) {
+		repository.deletarPorUsuario(usuarioId);
+		// lido em páginas de projeções, sem carregar todos os lançamentos do usuário de uma vez.
+		Long ultimoId = Long.MIN_VALUE;
+		List<LancamentoDTO> pagina;
+		do {
+			pagina = lancamentoRepository.obterDTOPorUsuarioAposId(usuarioId, ultimoId, PageRequest.of(0, TAMANHO_LOTE));
+			List<TermoLancamentoId> termos = new ArrayList<>();
+			for (LancamentoDTO lancamento : pagina) {
+				extrairTermos(lancamento.getDescricao()).forEach(termo -> 
+					termos.add(new TermoLancamentoId(usuarioId, termo, lancamento.getId())));
+				ultimoId = lancamento.getId();
+			}
+			repository.inserirEmLote(termos);
+		} while (pagina.size() == TAMANHO_LOTE);
+	}
+	
+	private void indexar(Long usuarioId, Long lancamentoId, String descricao) {
+		if (usuarioId == null) {
+			return;
+		}
+		for (String termo : extrairTermos(descricao)) {
+			repository.inserir(usuarioId, termo, lancamentoId);
+		}
+	}
+	
+	// minúsculas, sem acentos e separado por qualquer caractere que não seja letra ou número.
+	static Set<String> extrairTermos(String texto) {
+		if (texto == null) {
+			return Collections.emptySet();
+		}
+		String normalizado = Normalizer.normalize(texto, Normalizer.Form.NFD)
+				.replaceAll("\\p{M}", "")
+				.toLowerCase();
+		
+		Set<String> termos = new LinkedHashSet<>();
+		for (String termo : normalizado.split("[^\\p{L}\\p{N}]+")) {
+			if (termo.length() >= TAMANHO_MINIMO_TERMO) {
+				termos.add(termo.length() > TAMANHO_MAXIMO_TERMO ? termo.substring(0, TAMANHO_MAXIMO_TERMO) : termo);
+			}
+		}
+		return termos;
+	}
+	
+}
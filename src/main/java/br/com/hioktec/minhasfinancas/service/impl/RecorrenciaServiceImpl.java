@@ -0,0 +1,141 @@
+package br.com.hioktec.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.hioktec.minhasfinancas.exception.RegraNegocioException;
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.entity.Recorrencia;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import br.com.hioktec.minhasfinancas.repository.RecorrenciaRepository;
+import br.com.hioktec.minhasfinancas.service.LancamentoService;
+import br.com.hioktec.minhasfinancas.service.RecorrenciaService;
+
+@Service
+public class RecorrenciaServiceImpl implements RecorrenciaService {
+	
+	private static final int LIMITE_PARCELAS = 360;
+	
+	private RecorrenciaRepository repository;
+	
+	private LancamentoService lancamentoService;
+	
+	private int horizonteMeses;
+	
+	public RecorrenciaServiceImpl(RecorrenciaRepository repository, LancamentoService lancamentoService,
+			@Value("${app.recorrencias.horizonteMeses:12}") int horizonteMeses) {
+		this.repository = repository;
+		this.lancamentoService = lancamentoService;
+		this.horizonteMeses = horizonteMeses;
+	}
+
+	@Override
+	@Transactional
+	public Recorrencia salvar(Recorrencia recorrencia) {
+		validar(recorrencia);
+		recorrencia.setUltimaParcela(0);
+		Recorrencia recorrenciaSalva = repository.save(recorrencia);
+		gerar(recorrenciaSalva);
+		return recorrenciaSalva;
+	}
+
+	@Override
+	@Transactional
+	public int gerar(Long recorrenciaId) {
+		Recorrencia recorrencia = repository.obterParaGeracao(recorrenciaId)
+				.orElseThrow(() -> new RegraNegocioException("Recorrência não encontrada para o id informado."));
+		return gerar(recorrencia);
+	}
+
+	@Override
+	@Transactional
+	public int gerar(Long usuarioId, Long recorrenciaId) {
+		Recorrencia recorrencia = repository.obterParaGeracao(recorrenciaId)
+				.orElseThrow(() -> new RegraNegocioException("Recorrência não encontrada para o id informado."));
+		if (!recorrencia.getUsuario().getId().equals(usuarioId)) {
+			throw new AccessDeniedException("Recorrência pertence a outro usuário");
+		}
+		return gerar(recorrencia);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Long> obterPendentes() {
+		YearMonth horizonte = obterHorizonte();
+		return repository.obterPendentesAte(horizonte.getYear() * 12 + horizonte.getMonthValue());
+	}
+
+	@Override
+	public void validar(Recorrencia recorrencia) {
+		
+		if(recorrencia.getDescricao() == null || recorrencia.getDescricao().trim().equals("")) {
+			throw new RegraNegocioException("Informe uma Descrição válida.");
+		}
+		
+		if(recorrencia.getMes() == null || recorrencia.getMes() < 1 || recorrencia.getMes() > 12) {
+			throw new RegraNegocioException("Informe um Mês válido (número inteiro).");
+		}
+		
+		if(recorrencia.getAno() == null || recorrencia.getAno().toString().length() < 4) {
+			throw new RegraNegocioException("Informe um Ano válido (número inteiro com 4 casas).");
+		}
+		
+		if(recorrencia.getUsuario() == null || recorrencia.getUsuario().getId() == null) {
+			throw new RegraNegocioException("Informe um Usuário.");
+		}
+		
+		if(recorrencia.getValor() == null || recorrencia.getValor().compareTo(BigDecimal.ZERO) < 1) {
+			throw new RegraNegocioException("Informe um Valor válido (número positivo).");
+		}
+		
+		if(recorrencia.getTipo() != TipoLancamento.DESPESA && recorrencia.getTipo() != TipoLancamento.RECEITA) {
+			throw new RegraNegocioException("Informe um Tipo válido.");
+		}
+		
+		if(recorrencia.getParcelas() != null && (recorrencia.getAnoFinal() != null || recorrencia.getMesFinal() != null)) {
+			throw new RegraNegocioException("Informe a quantidade de parcelas ou o mês final, não ambos.");
+		}
+		
+		if(recorrencia.getParcelas() != null && (recorrencia.getParcelas() < 1 || recorrencia.getParcelas() > LIMITE_PARCELAS)) {
+			throw new RegraNegocioException("Informe uma quantidade de parcelas entre 1 e " + LIMITE_PARCELAS + ".");
+		}
+		
+		if((recorrencia.getAnoFinal() == null) != (recorrencia.getMesFinal() == null)) {
+			throw new RegraNegocioException("Informe o Ano e o Mês final.");
+		}
+		
+		if(recorrencia.getAnoFinal() != null && (recorrencia.getMesFinal() < 1 || recorrencia.getMesFinal() > 12
+				|| YearMonth.of(recorrencia.getAnoFinal(), recorrencia.getMesFinal())
+					.isBefore(YearMonth.of(recorrencia.getAno(), recorrencia.getMes())))) {
+			throw new RegraNegocioException("Informe um mês final válido, igual ou posterior ao mês inicial.");
+		}
+	}
+	
+	// as parcelas seguintes à última gerada entram em um único lote; as além do horizonte ficam para depois.
+	private int gerar(Recorrencia recorrencia) {
+		int ultimaParcela = recorrencia.obterParcelaNoHorizonte(obterHorizonte());
+		if (ultimaParcela <= recorrencia.getUltimaParcela()) {
+			return 0;
+		}
+		
+		List<Lancamento> parcelas = new ArrayList<>();
+		for (int parcela = recorrencia.getUltimaParcela() + 1; parcela <= ultimaParcela; parcela++) {
+			parcelas.add(recorrencia.criarParcela(parcela));
+		}
+		lancamentoService.salvarLote(parcelas);
+		recorrencia.setUltimaParcela(ultimaParcela);
+		return parcelas.size();
+	}
+	
+	private YearMonth obterHorizonte() {
+		return YearMonth.now().plusMonths(horizonteMeses);
+	}
+	
+}
@@ -0,0 +1,139 @@
+package br.com.hioktec.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.hioktec.minhasfinancas.model.entity.ResumoMensal;
+import br.com.hioktec.minhasfinancas.model.entity.ResumoMensalId;
+import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.EstadoLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.FluxoCaixa;
+import br.com.hioktec.minhasfinancas.model.vo.FluxoCaixaMensal;
+import br.com.hioktec.minhasfinancas.model.vo.TotalLancamento;
+import br.com.hioktec.minhasfinancas.repository.LancamentoRepository;
+import br.com.hioktec.minhasfinancas.repository.ResumoMensalRepository;
+import br.com.hioktec.minhasfinancas.service.ResumoMensalService;
+
+@Service
+public class ResumoMensalServiceImpl implements ResumoMensalService {
+	
+	private ResumoMensalRepository repository;
+	
+	private LancamentoRepository lancamentoRepository;
+	
+	public ResumoMensalServiceImpl(ResumoMensalRepository repository, LancamentoRepository lancamentoRepository) {
+		this.repository = repository;
+		this.lancamentoRepository = lancamentoRepository;
+	}
+
+	@Override
+	@Transactional
+	public void registrarAlteracao(EstadoLancamento anterior, EstadoLancamento atual) {
+		if (anterior != null && atual != null && Objects.equals(chave(anterior), chave(atual))) {
+			aplicar(chave(atual), atual.getValor().subtract(anterior.getValor()), 0L);
+			return;
+		}
+		
+		if (anterior != null) {
+			aplicar(chave(anterior), anterior.getValor().negate(), -1L);
+		}
+		
+		if (atual != null) {
+			aplicar(chave(atual), atual.getValor(), 1L);
+		}
+	}
+
+	@Override
+	@Transactional
+	public void registrarAlteracoes(List<EstadoLancamento> anteriores, List<EstadoLancamento> atuais) {
+		Map<ResumoMensalId, BigDecimal> valores = new LinkedHashMap<>();
+		Map<ResumoMensalId, Long> quantidades = new HashMap<>();
+		for (EstadoLancamento estado : anteriores) {
+			valores.merge(chave(estado), estado.getValor().negate(), BigDecimal::add);
+			quantidades.merge(chave(estado), -estado.getQuantidade(), Long::sum);
+		}
+		for (EstadoLancamento estado : atuais) {
+			valores.merge(chave(estado), estado.getValor(), BigDecimal::add);
+			quantidades.merge(chave(estado), estado.getQuantidade(), Long::sum);
+		}
+		valores.forEach((id, valor) -> aplicar(id, valor, quantidades.get(id)));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public FluxoCaixa obterFluxoCaixa(Long usuarioId, Integer ano) {
+		List<FluxoCaixaMensal> meses = new ArrayList<>();
+		for (int mes = 1; mes <= 12; mes++) {
+			meses.add(new FluxoCaixaMensal(mes));
+		}
+		
+		for (ResumoMensal resumo : repository.obterPorUsuarioEAno(usuarioId, ano)) {
+			FluxoCaixaMensal fluxoMensal = meses.get(resumo.getId().getMes() - 1);
+			boolean receita = resumo.getId().getTipo() == TipoLancamento.RECEITA;
+			
+			if (resumo.getId().getStatus() == StatusLancamento.EFETIVADO) {
+				if (receita) {
+					fluxoMensal.setReceitas(fluxoMensal.getReceitas().add(resumo.getValor()));
+				} else {
+					fluxoMensal.setDespesas(fluxoMensal.getDespesas().add(resumo.getValor()));
+				}
+			} else if (resumo.getId().getStatus() == StatusLancamento.PENDENTE) {
+				if (receita) {
+					fluxoMensal.setReceitasPendentes(fluxoMensal.getReceitasPendentes().add(resumo.getValor()));
+				} else {
+					fluxoMensal.setDespesasPendentes(fluxoMensal.getDespesasPendentes().add(resumo.getValor()));
+				}
+			}
+		}
+		
+		return new FluxoCaixa(usuarioId, ano, meses);
+	}
+
+	@Override
+	@Transactional
+	public void reconstruir(Long usuarioId) {
+		repository.deletarPorUsuario(usuarioId);
+		repository.reconstruirPorUsuario(usuarioId);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Long> obterUsuariosComLancamentos() {
+		return lancamentoRepository.obterUsuariosComLancamentos();
+	}
+	
+	private void aplicar(ResumoMensalId id, BigDecimal valor, Long quantidade) {
+		if (id.getUsuario() == null || (valor.signum() == 0 && quantidade == 0)) {
+			return;
+		}
+		
+		if (repository.acumular(id.getUsuario(), id.getAno(), id.getMes(), id.getTipo(), id.getStatus(), valor, quantidade) == 0) {
+			// a consulta já enxerga a escrita corrente (flush automático), por isso o delta não é somado.
+			List<TotalLancamento> totais = lancamentoRepository.obterTotalPorUsuarioEPeriodoETipoEStatus(
+					id.getUsuario(), id.getAno(), id.getMes(), id.getTipo(), id.getStatus());
+			
+			int inseridos = repository.inserirSeAusente(id.getUsuario(), id.getAno(), id.getMes(), id.getTipo().name(),
+					id.getStatus().name(),
+					totais.isEmpty() ? BigDecimal.ZERO : totais.get(0).getValor(),
+					totais.isEmpty() ? 0L : totais.get(0).getQuantidade());
+			if (inseridos == 0) {
+				// outra transação criou o resumo ao mesmo tempo, sem enxergar esta escrita: o delta é somado ao dela.
+				repository.acumular(id.getUsuario(), id.getAno(), id.getMes(), id.getTipo(), id.getStatus(), valor, quantidade);
+			}
+		}
+	}
+	
+	private ResumoMensalId chave(EstadoLancamento estado) {
+		return new ResumoMensalId(estado.getUsuario(), estado.getAno(), estado.getMes(), estado.getTipo(), estado.getStatus());
+	}
+	
+}
@@ -0,0 +1,163 @@
+package br.com.hioktec.minhasfinancas.service.impl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.hioktec.minhasfinancas.model.entity.TokenRevogado;
+import br.com.hioktec.minhasfinancas.repository.TokenRevogadoRepository;
+import br.com.hioktec.minhasfinancas.security.FiltroBloom;
+import br.com.hioktec.minhasfinancas.service.RevogacaoTokenService;
+
+@Service
+public class RevogacaoTokenServiceImpl implements RevogacaoTokenService {
+	
+	private static final Logger logger = LoggerFactory.getLogger(RevogacaoTokenServiceImpl.class);
+	
+	// instante da última revogação de cada usuário, em milissegundos como a emissão dos tokens.
+	private final Map<Long, Long> revogadosEm = new ConcurrentHashMap<>();
+	
+	// emissões e revogações recebem instantes crescentes e distintos: no mesmo milissegundo, a ordem entre elas é preservada.
+	private final AtomicLong ultimoInstante = new AtomicLong();
+	
+	private long validadeTokenMillis;
+	
+	private TokenRevogadoRepository tokenRevogadoRepository;
+	
+	private int capacidadeMinima;
+	
+	private double taxaFalsoPositivo;
+	
+	// nulo até a primeira reconstrução: enquanto isso toda verificação consulta o banco.
+	private volatile FiltroBloom filtro;
+	
+	// jtis revogados desde o início da reconstrução em andamento, incluídos no novo filtro antes da troca.
+	private final Set<String> recentes = new HashSet<>();
+	
+	// recentes acima da folga do filtro (reconstruções falhando): o filtro é descartado e a reconstrução em andamento não é instalada.
+	private boolean recentesDescartados;
+	
+	public RevogacaoTokenServiceImpl(@Value("${app.jwtSemEstadoExpiracao:900000}") long validadeTokenMillis,
+			TokenRevogadoRepository tokenRevogadoRepository,
+			@Value("${app.revogacao.capacidadeMinima:10000}") int capacidadeMinima,
+			@Value("${app.revogacao.taxaFalsoPositivo:0.01}") double taxaFalsoPositivo) {
+		this.validadeTokenMillis = validadeTokenMillis;
+		this.tokenRevogadoRepository = tokenRevogadoRepository;
+		this.capacidadeMinima = capacidadeMinima;
+		this.taxaFalsoPositivo = taxaFalsoPositivo;
+	}
+	
+	@Override
+	public void revogar(Long usuarioId) {
+		registrar(usuarioId);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			// um login concorrente ainda pode ler as autoridades anteriores até o commit.
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					registrar(usuarioId);
+				}
+			});
+		}
+	}
+	
+	@Override
+	public boolean isRevogado(Long usuarioId, Date emitidoEm) {
+		Long revogadoEm = revogadosEm.get(usuarioId);
+		// um login feito logo depois da revogação tem instante maior e é aceito.
+		return revogadoEm != null && (emitidoEm == null || emitidoEm.getTime() < revogadoEm);
+	}
+	
+	@Override
+	public Date novaEmissao() {
+		return new Date(obterInstante());
+	}
+	
+	@Override
+	@Transactional
+	public void revogarToken(String jti, Long usuarioId, Date expiraEm) {
+		Objects.requireNonNull(jti);
+		tokenRevogadoRepository.save(new TokenRevogado(jti, usuarioId,
+				LocalDateTime.ofInstant(expiraEm.toInstant(), ZoneId.systemDefault()), LocalDateTime.now()));
+		synchronized (recentes) {
+			if (recentesDescartados) {
+				return;
+			}
+			if (recentes.size() >= capacidadeMinima) {
+				logger.warn("{} tokens revogados sem reconstrução do filtro; as verificações passam a consultar o banco",
+						recentes.size());
+				filtro = null;
+				recentes.clear();
+				recentesDescartados = true;
+				return;
+			}
+			if (filtro != null) {
+				filtro.incluir(jti);
+			}
+			recentes.add(jti);
+		}
+	}
+	
+	@Override
+	public boolean isTokenRevogado(String jti) {
+		if (jti == null) {
+			// tokens emitidos antes do jti não podem ser revogados individualmente; expiram normalmente.
+			return false;
+		}
+		FiltroBloom atual = filtro;
+		if (atual != null && !atual.talvezContenha(jti)) {
+			return false;
+		}
+		return tokenRevogadoRepository.existsById(jti);
+	}
+	
+	@Override
+	@Transactional
+	public int reconstruirFiltro() {
+		LocalDateTime agora = LocalDateTime.now();
+		tokenRevogadoRepository.deletarExpirados(agora);
+		List<String> jtis = tokenRevogadoRepository.obterJtisValidos(agora);
+		
+		// folga para as revogações feitas até a próxima reconstrução sem elevar a taxa de falsos positivos.
+		FiltroBloom novo = new FiltroBloom(Math.max(capacidadeMinima, jtis.size() * 2), taxaFalsoPositivo);
+		jtis.forEach(novo::incluir);
+		synchronized (recentes) {
+			if (recentesDescartados) {
+				// revogações feitas durante esta leitura podem ter ficado de fora: o filtro volta na próxima reconstrução.
+				recentesDescartados = false;
+				logger.warn("Filtro de tokens revogados não instalado após descarte das revogações recentes");
+			} else {
+				recentes.forEach(novo::incluir);
+				filtro = novo;
+			}
+			recentes.clear();
+		}
+		return jtis.size();
+	}
+	
+	private void registrar(Long usuarioId) {
+		long agora = obterInstante();
+		// revogações mais antigas que a validade do token não barram mais nenhum token ainda aceito.
+		revogadosEm.values().removeIf(revogadoEm -> revogadoEm < agora - validadeTokenMillis);
+		revogadosEm.put(usuarioId, agora);
+	}
+	
+	private long obterInstante() {
+		return ultimoInstante.updateAndGet(ultimo -> Math.max(ultimo + 1, System.currentTimeMillis()));
+	}
+}
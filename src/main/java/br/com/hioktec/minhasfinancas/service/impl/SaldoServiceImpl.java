@@ -0,0 +1,241 @@
+package br.com.hioktec.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.hioktec.minhasfinancas.model.entity.SaldoAcumulado;
+import br.com.hioktec.minhasfinancas.model.entity.SaldoAcumuladoId;
+import br.com.hioktec.minhasfinancas.model.entity.SaldoUsuario;
+import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.EstadoLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.ReconciliacaoSaldo;
+import br.com.hioktec.minhasfinancas.model.vo.SaldoDetalhado;
+import br.com.hioktec.minhasfinancas.model.vo.TotalPeriodo;
+import br.com.hioktec.minhasfinancas.repository.LancamentoRepository;
+import br.com.hioktec.minhasfinancas.repository.SaldoAcumuladoRepository;
+import br.com.hioktec.minhasfinancas.repository.SaldoUsuarioRepository;
+import br.com.hioktec.minhasfinancas.service.SaldoService;
+
+@Service
+public class SaldoServiceImpl implements SaldoService {
+	
+	private SaldoUsuarioRepository repository;
+	
+	private SaldoAcumuladoRepository saldoAcumuladoRepository;
+	
+	private LancamentoRepository lancamentoRepository;
+	
+	public SaldoServiceImpl(SaldoUsuarioRepository repository, SaldoAcumuladoRepository saldoAcumuladoRepository,
+			LancamentoRepository lancamentoRepository) {
+		this.repository = repository;
+		this.saldoAcumuladoRepository = saldoAcumuladoRepository;
+		this.lancamentoRepository = lancamentoRepository;
+	}
+
+	@Override
+	@Transactional
+	public void registrarAlteracao(EstadoLancamento anterior, EstadoLancamento atual) {
+		if (anterior != null && atual != null && Objects.equals(anterior.getUsuario(), atual.getUsuario())) {
+			Map<Integer, BigDecimal> deltasPorPeriodo = new TreeMap<>();
+			acumularDelta(deltasPorPeriodo, anterior.getPeriodo(), anterior.getSaldoEfetivado().negate());
+			acumularDelta(deltasPorPeriodo, atual.getPeriodo(), atual.getSaldoEfetivado());
+			aplicar(atual.getUsuario(),
+					atual.getReceitaEfetivada().subtract(anterior.getReceitaEfetivada()),
+					atual.getDespesaEfetivada().subtract(anterior.getDespesaEfetivada()),
+					deltasPorPeriodo);
+			return;
+		}
+		
+		if (anterior != null) {
+			Map<Integer, BigDecimal> deltasPorPeriodo = new TreeMap<>();
+			acumularDelta(deltasPorPeriodo, anterior.getPeriodo(), anterior.getSaldoEfetivado().negate());
+			aplicar(anterior.getUsuario(), anterior.getReceitaEfetivada().negate(), anterior.getDespesaEfetivada().negate(),
+					deltasPorPeriodo);
+		}
+		
+		if (atual != null) {
+			Map<Integer, BigDecimal> deltasPorPeriodo = new TreeMap<>();
+			acumularDelta(deltasPorPeriodo, atual.getPeriodo(), atual.getSaldoEfetivado());
+			aplicar(atual.getUsuario(), atual.getReceitaEfetivada(), atual.getDespesaEfetivada(), deltasPorPeriodo);
+		}
+	}
+
+	@Override
+	@Transactional
+	public void registrarAlteracoes(List<EstadoLancamento> anteriores, List<EstadoLancamento> atuais) {
+		Map<Long, BigDecimal> receitas = new LinkedHashMap<>();
+		Map<Long, BigDecimal> despesas = new HashMap<>();
+		Map<Long, Map<Integer, BigDecimal>> deltasPorUsuario = new HashMap<>();
+		somarDeltas(anteriores, -1, receitas, despesas, deltasPorUsuario);
+		somarDeltas(atuais, 1, receitas, despesas, deltasPorUsuario);
+		
+		receitas.forEach((usuarioId, receita) -> 
+			aplicar(usuarioId, receita, despesas.get(usuarioId), deltasPorUsuario.get(usuarioId)));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public BigDecimal obterSaldo(Long usuarioId) {
+		// sem saldo materializado (usuário sem escritas desde a criação da tabela) recorre à varredura.
+		return repository.findById(usuarioId)
+				.map(SaldoUsuario::getSaldo)
+				.orElseGet(() -> calcular(usuarioId).getSaldo());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public BigDecimal obterSaldoAte(Long usuarioId, Integer ano, Integer mes) {
+		// o saldo acumulado só é confiável depois que o saldo materializado do usuário foi inicializado.
+		if (!repository.existsById(usuarioId)) {
+			BigDecimal saldo = lancamentoRepository.obterSaldoAtePeriodo(
+					usuarioId, StatusLancamento.EFETIVADO, TipoLancamento.RECEITA, ano, mes);
+			return saldo == null ? BigDecimal.ZERO : saldo;
+		}
+		
+		List<BigDecimal> valores = saldoAcumuladoRepository.obterValoresAte(usuarioId, ano * 100 + mes, PageRequest.of(0, 1));
+		return valores.isEmpty() ? BigDecimal.ZERO : valores.get(0);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public SaldoDetalhado obterSaldoDetalhado(Long usuarioId) {
+		// realizado, pendente e projetado saem da mesma agregação para serem coerentes entre si.
+		return calcularDetalhado(usuarioId);
+	}
+
+	@Override
+	@Transactional
+	public ReconciliacaoSaldo reconciliar(Long usuarioId) {
+		SaldoUsuario calculado = calcular(usuarioId);
+		Optional<SaldoUsuario> armazenado = repository.findById(usuarioId);
+		
+		boolean consistente = armazenado
+				.map(saldo -> saldo.getReceitas().compareTo(calculado.getReceitas()) == 0
+						&& saldo.getDespesas().compareTo(calculado.getDespesas()) == 0)
+				.orElse(false);
+		consistente = consistente && saldosAcumuladosConsistentes(usuarioId);
+		
+		ReconciliacaoSaldo reconciliacao = new ReconciliacaoSaldo(
+				usuarioId,
+				armazenado.map(SaldoUsuario::getReceitas).orElse(null),
+				armazenado.map(SaldoUsuario::getDespesas).orElse(null),
+				calculado.getReceitas(),
+				calculado.getDespesas(),
+				consistente);
+		
+		if (!consistente) {
+			repository.save(calculado);
+			reconstruirSaldosAcumulados(usuarioId);
+		}
+		
+		return reconciliacao;
+	}
+	
+	private void aplicar(Long usuarioId, BigDecimal receitas, BigDecimal despesas, Map<Integer, BigDecimal> deltasPorPeriodo) {
+		deltasPorPeriodo.values().removeIf(delta -> delta.signum() == 0);
+		if (usuarioId == null || (receitas.signum() == 0 && despesas.signum() == 0 && deltasPorPeriodo.isEmpty())) {
+			return;
+		}
+		
+		// também serve para saber se o usuário já tem saldo materializado.
+		if (repository.acumular(usuarioId, receitas, despesas) == 0) {
+			// a varredura já enxerga a escrita corrente (flush automático), por isso o delta não é somado.
+			SaldoUsuario saldo = calcular(usuarioId);
+			if (repository.inserirSeAusente(usuarioId, saldo.getReceitas(), saldo.getDespesas()) == 1) {
+				reconstruirSaldosAcumulados(usuarioId);
+				return;
+			}
+			// outra transação inicializou o saldo ao mesmo tempo, sem enxergar esta escrita: o delta é somado ao dela.
+			repository.acumular(usuarioId, receitas, despesas);
+		}
+		
+		deltasPorPeriodo.forEach((periodo, delta) -> acumularAPartirDe(usuarioId, periodo, delta));
+	}
+	
+	private void acumularAPartirDe(Long usuarioId, Integer periodo, BigDecimal delta) {
+		if (!saldoAcumuladoRepository.existsById(new SaldoAcumuladoId(usuarioId, periodo))) {
+			// período ainda sem linha: começa com o saldo do período anterior e recebe o delta junto com o sufixo.
+			// se outra transação criar a linha antes, a inserção é ignorada e o delta é somado à linha dela.
+			List<BigDecimal> valores = saldoAcumuladoRepository.obterValoresAte(usuarioId, periodo, PageRequest.of(0, 1));
+			saldoAcumuladoRepository.inserirSeAusente(usuarioId, periodo, valores.isEmpty() ? BigDecimal.ZERO : valores.get(0));
+		}
+		saldoAcumuladoRepository.acumularAPartirDe(usuarioId, periodo, delta);
+	}
+	
+	private void somarDeltas(List<EstadoLancamento> estados, int sinal, Map<Long, BigDecimal> receitas,
+			Map<Long, BigDecimal> despesas, Map<Long, Map<Integer, BigDecimal>> deltasPorUsuario) {
+		BigDecimal multiplicador = BigDecimal.valueOf(sinal);
+		for (EstadoLancamento estado : estados) {
+			if (estado.getUsuario() == null) {
+				continue;
+			}
+			receitas.merge(estado.getUsuario(), estado.getReceitaEfetivada().multiply(multiplicador), BigDecimal::add);
+			despesas.merge(estado.getUsuario(), estado.getDespesaEfetivada().multiply(multiplicador), BigDecimal::add);
+			acumularDelta(deltasPorUsuario.computeIfAbsent(estado.getUsuario(), usuario -> new TreeMap<>()),
+					estado.getPeriodo(), estado.getSaldoEfetivado().multiply(multiplicador));
+		}
+	}
+	
+	private void acumularDelta(Map<Integer, BigDecimal> deltasPorPeriodo, Integer periodo, BigDecimal delta) {
+		if (periodo != null) {
+			deltasPorPeriodo.merge(periodo, delta, BigDecimal::add);
+		}
+	}
+	
+	private void reconstruirSaldosAcumulados(Long usuarioId) {
+		saldoAcumuladoRepository.deletarPorUsuario(usuarioId);
+		BigDecimal acumulado = BigDecimal.ZERO;
+		for (TotalPeriodo total : calcularSaldosPorPeriodo(usuarioId)) {
+			acumulado = acumulado.add(total.getValor());
+			saldoAcumuladoRepository.inserir(usuarioId, total.getPeriodo(), acumulado);
+		}
+	}
+	
+	private boolean saldosAcumuladosConsistentes(Long usuarioId) {
+		List<SaldoAcumulado> armazenados = saldoAcumuladoRepository.obterPorUsuario(usuarioId);
+		Map<Integer, BigDecimal> calculados = new TreeMap<>();
+		BigDecimal acumulado = BigDecimal.ZERO;
+		for (TotalPeriodo total : calcularSaldosPorPeriodo(usuarioId)) {
+			acumulado = acumulado.add(total.getValor());
+			calculados.put(total.getPeriodo(), acumulado);
+		}
+		
+		// linhas de períodos cujos lançamentos deixaram de ser efetivados continuam válidas se repetirem o saldo anterior.
+		BigDecimal anterior = BigDecimal.ZERO;
+		for (SaldoAcumulado saldo : armazenados) {
+			BigDecimal esperado = calculados.containsKey(saldo.getId().getPeriodo()) 
+					? calculados.remove(saldo.getId().getPeriodo()) 
+					: anterior;
+			if (saldo.getValor().compareTo(esperado) != 0) {
+				return false;
+			}
+			anterior = esperado;
+		}
+		return calculados.isEmpty();
+	}
+	
+	private List<TotalPeriodo> calcularSaldosPorPeriodo(Long usuarioId) {
+		return lancamentoRepository.obterSaldosPorPeriodo(usuarioId, StatusLancamento.EFETIVADO, TipoLancamento.RECEITA);
+	}
+	
+	private SaldoUsuario calcular(Long usuarioId) {
+		SaldoDetalhado detalhado = calcularDetalhado(usuarioId);
+		return new SaldoUsuario(usuarioId, detalhado.getReceitasEfetivadas(), detalhado.getDespesasEfetivadas());
+	}
+	
+	private SaldoDetalhado calcularDetalhado(Long usuarioId) {
+		return SaldoDetalhado.de(usuarioId, lancamentoRepository.obterTotaisPorUsuarioAgrupadosPorTipoEStatus(usuarioId));
+	}
+	
+}
@@ -3,15 +3,19 @@ package br.com.hioktec.minhasfinancas.service.impl;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
-import org.springframework.data.domain.ExampleMatcher.StringMatcher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import br.com.hioktec.minhasfinancas.model.entity.Autoridade;
 import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+import br.com.hioktec.minhasfinancas.model.enums.AutoridadeNome;
 import br.com.hioktec.minhasfinancas.repository.UsuarioRepository;
+import br.com.hioktec.minhasfinancas.repository.UsuarioSpecifications;
+import br.com.hioktec.minhasfinancas.service.CachePrincipalService;
+import br.com.hioktec.minhasfinancas.service.RevogacaoTokenService;
 import br.com.hioktec.minhasfinancas.service.UsuarioService;
 
 @Service // bean gerenciado
@@ -19,10 +23,17 @@ public class UsuarioServiceImpl implements UsuarioService {
 	
 	private UsuarioRepository repository;
 	
+	private CachePrincipalService cachePrincipalService;
+	
+	private RevogacaoTokenService revogacaoTokenService;
+	
 	// @Autowired não necessário mais nesta versão do spring boot pois implementamos UsuarioRepository de jpaRepository e declaramos a dependência.
-	public UsuarioServiceImpl(UsuarioRepository repository) {
+	public UsuarioServiceImpl(UsuarioRepository repository, CachePrincipalService cachePrincipalService,
+			RevogacaoTokenService revogacaoTokenService) {
 		super();
 		this.repository = repository;
+		this.cachePrincipalService = cachePrincipalService;
+		this.revogacaoTokenService = revogacaoTokenService;
 	}
 
 	/* removemos para implementar segunrança JWT
@@ -78,18 +89,20 @@ public class UsuarioServiceImpl implements UsuarioService {
 	@Override
 	@Transactional(readOnly = true)
 	public List<Usuario> buscar(Usuario usuarioFiltro) {
-		Example<Usuario> example = Example.of(
-				usuarioFiltro,
-				ExampleMatcher.matching()
-					.withIgnoreCase()
-					.withStringMatcher(StringMatcher.CONTAINING));
-		return repository.findAll(example);
+		return repository.findAll(UsuarioSpecifications.filtrar(usuarioFiltro));
 	}
 
 	@Override
 	@Transactional
 	public Usuario atualizar(Usuario usuario) {
 		Objects.requireNonNull(usuario.getId());
+		cachePrincipalService.invalidar(usuario.getId());
+		// os tokens sem estado já emitidos só deixam de valer se a senha ou as autoridades mudarem.
+		Optional<Usuario> anterior = repository.findComAutoridadesById(usuario.getId());
+		if (!anterior.isPresent() || !Objects.equals(anterior.get().getSenha(), usuario.getSenha())
+				|| !obterNomesAutoridades(anterior.get()).equals(obterNomesAutoridades(usuario))) {
+			revogacaoTokenService.revogar(usuario.getId());
+		}
 		return repository.save(usuario);
 	}
 
@@ -97,6 +110,12 @@ public class UsuarioServiceImpl implements UsuarioService {
 	@Transactional
 	public void deletar(Usuario usuario) {
 		Objects.requireNonNull(usuario.getId());
+		cachePrincipalService.invalidar(usuario.getId());
+		revogacaoTokenService.revogar(usuario.getId());
 		repository.delete(usuario);		
 	}
+	
+	private Set<AutoridadeNome> obterNomesAutoridades(Usuario usuario) {
+		return usuario.getAutoridades().stream().map(Autoridade::getNome).collect(Collectors.toSet());
+	}
 }
@@ -0,0 +1,40 @@
+package br.com.hioktec.minhasfinancas.service.impl;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.hioktec.minhasfinancas.repository.VersaoUsuarioRepository;
+import br.com.hioktec.minhasfinancas.service.VersaoUsuarioService;
+
+@Service
+public class VersaoUsuarioServiceImpl implements VersaoUsuarioService {
+	
+	private VersaoUsuarioRepository repository;
+	
+	public VersaoUsuarioServiceImpl(VersaoUsuarioRepository repository) {
+		this.repository = repository;
+	}
+
+	@Override
+	@Transactional
+	public void incrementar(Long usuarioId) {
+		if (usuarioId != null && repository.incrementar(usuarioId) == 0 && repository.inserirSeAusente(usuarioId, 1L) == 0) {
+			// outra transação registrou a primeira versão ao mesmo tempo: esta escrita também precisa mudar a versão.
+			repository.incrementar(usuarioId);
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Long obterVersao(Long usuarioId) {
+		// sem registro o usuário não teve escritas desde a criação da tabela: versão zero.
+		return repository.obterVersao(usuarioId).orElse(0L);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public String obterEtag(Long usuarioId, String recurso) {
+		return "\"" + recurso + "-" + usuarioId + "-" + obterVersao(usuarioId) + "\"";
+	}
+	
+}
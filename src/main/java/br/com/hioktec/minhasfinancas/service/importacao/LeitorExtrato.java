@@ -0,0 +1,26 @@
+package br.com.hioktec.minhasfinancas.service.importacao;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+import br.com.hioktec.minhasfinancas.model.enums.FormatoExtrato;
+
+/**
+ * Leitura sequencial das transações de um extrato, uma por vez, sem carregar o arquivo em memória.
+ * @author rodolfo
+ */
+public interface LeitorExtrato extends Closeable {
+	
+	// próxima transação do extrato ou nulo no fim do arquivo.
+	LinhaExtrato proxima() throws IOException;
+	
+	static LeitorExtrato de(FormatoExtrato formato, Reader reader) throws IOException {
+		switch (formato) {
+		case OFX:
+			return new LeitorExtratoOfx(reader);
+		default:
+			return new LeitorExtratoCsv(reader);
+		}
+	}
+}
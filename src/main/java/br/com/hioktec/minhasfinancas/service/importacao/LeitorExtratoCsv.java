@@ -0,0 +1,147 @@
+package br.com.hioktec.minhasfinancas.service.importacao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.com.hioktec.minhasfinancas.exception.RegraNegocioException;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Extrato em CSV separado por vírgula ou ponto e vírgula, com cabeçalho na primeira linha.
+ * Colunas: descricao, valor e data (aaaa-mm-dd ou dd/mm/aaaa) ou ano e mes; tipo é opcional.
+ * @author rodolfo
+ */
+public class LeitorExtratoCsv implements LeitorExtrato {
+	
+	private static final DateTimeFormatter DATA_BRASILEIRA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+	
+	private final BufferedReader reader;
+	
+	private final char separador;
+	
+	private final Map<String, Integer> colunas = new HashMap<>();
+	
+	private int numero;
+	
+	public LeitorExtratoCsv(Reader reader) throws IOException {
+		this.reader = new BufferedReader(reader);
+		
+		String cabecalho = lerLinha();
+		while (cabecalho != null && cabecalho.trim().isEmpty()) {
+			cabecalho = lerLinha();
+		}
+		if (cabecalho == null) {
+			throw new RegraNegocioException("Arquivo CSV vazio.");
+		}
+		
+		// marca de ordem de bytes (BOM) gravada por planilhas no início do arquivo.
+		cabecalho = cabecalho.replace("\uFEFF", "");
+		this.separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+		List<String> nomes = separar(cabecalho);
+		for (int i = 0; i < nomes.size(); i++) {
+			colunas.put(normalizar(nomes.get(i)), i);
+		}
+		
+		if (!colunas.containsKey("descricao") || !colunas.containsKey("valor") 
+				|| !(colunas.containsKey("data") || (colunas.containsKey("ano") && colunas.containsKey("mes")))) {
+			throw new RegraNegocioException("Cabeçalho do CSV inválido: informe as colunas descricao, valor e data (ou ano e mes).");
+		}
+	}
+
+	@Override
+	public LinhaExtrato proxima() throws IOException {
+		String linha = lerLinha();
+		while (linha != null && linha.trim().isEmpty()) {
+			linha = lerLinha();
+		}
+		if (linha == null) {
+			return null;
+		}
+		
+		List<String> campos = separar(linha);
+		if (campos.size() < colunas.size()) {
+			return LinhaExtrato.rejeitada(numero, "Quantidade de colunas diferente do cabeçalho.");
+		}
+		
+		try {
+			Integer ano;
+			Integer mes;
+			if (colunas.containsKey("data")) {
+				LocalDate data = converterData(campo(campos, "data"));
+				ano = data.getYear();
+				mes = data.getMonthValue();
+			} else {
+				ano = Integer.valueOf(campo(campos, "ano"));
+				mes = Integer.valueOf(campo(campos, "mes"));
+			}
+			BigDecimal valor = LinhaExtrato.converterValor(campo(campos, "valor"));
+			String tipo = colunas.containsKey("tipo") ? campo(campos, "tipo") : "";
+			
+			return new LinhaExtrato(numero, campo(campos, "descricao"), ano, mes, valor,
+					tipo.isEmpty() ? null : TipoLancamento.valueOf(tipo.toUpperCase()), null);
+		} catch (DateTimeParseException e) {
+			return LinhaExtrato.rejeitada(numero, "Data inválida.");
+		} catch (NumberFormatException e) {
+			return LinhaExtrato.rejeitada(numero, "Número inválido.");
+		} catch (IllegalArgumentException e) {
+			return LinhaExtrato.rejeitada(numero, "Tipo inválido.");
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+	
+	private String lerLinha() throws IOException {
+		numero++;
+		return reader.readLine();
+	}
+	
+	private String campo(List<String> campos, String coluna) {
+		return campos.get(colunas.get(coluna)).trim();
+	}
+	
+	private LocalDate converterData(String texto) {
+		return texto.indexOf('/') >= 0 ? LocalDate.parse(texto, DATA_BRASILEIRA) : LocalDate.parse(texto);
+	}
+	
+	// campos entre aspas podem conter o separador; aspas duplicadas representam uma aspa.
+	private List<String> separar(String linha) {
+		List<String> campos = new ArrayList<>();
+		StringBuilder campo = new StringBuilder();
+		boolean entreAspas = false;
+		for (int i = 0; i < linha.length(); i++) {
+			char c = linha.charAt(i);
+			if (c == '"') {
+				if (entreAspas && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+					campo.append('"');
+					i++;
+				} else {
+					entreAspas = !entreAspas;
+				}
+			} else if (c == separador && !entreAspas) {
+				campos.add(campo.toString());
+				campo.setLength(0);
+			} else {
+				campo.append(c);
+			}
+		}
+		campos.add(campo.toString());
+		return campos;
+	}
+	
+	private static String normalizar(String nome) {
+		return Normalizer.normalize(nome.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase();
+	}
+}
@@ -0,0 +1,91 @@
+package br.com.hioktec.minhasfinancas.service.importacao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extrato em OFX (SGML da versão 1 ou XML da versão 2), lido linha a linha.
+ * Cada bloco STMTTRN vira uma transação, com data de DTPOSTED, valor de TRNAMT e descrição de MEMO ou NAME.
+ * @author rodolfo
+ */
+public class LeitorExtratoOfx implements LeitorExtrato {
+	
+	private static final Pattern ELEMENTO = Pattern.compile("<(/?)([A-Za-z0-9.]+)>([^<]*)");
+	
+	private static final String TRANSACAO = "STMTTRN";
+	
+	private final BufferedReader reader;
+	
+	// o XML pode ter várias transações na mesma linha.
+	private final Queue<LinhaExtrato> lidas = new ArrayDeque<>();
+	
+	private Map<String, String> transacao;
+	
+	private int numero;
+	
+	private int numeroTransacao;
+	
+	public LeitorExtratoOfx(Reader reader) {
+		this.reader = new BufferedReader(reader);
+	}
+
+	@Override
+	public LinhaExtrato proxima() throws IOException {
+		String linha;
+		while (lidas.isEmpty() && (linha = reader.readLine()) != null) {
+			numero++;
+			Matcher elemento = ELEMENTO.matcher(linha);
+			while (elemento.find()) {
+				boolean fechamento = !elemento.group(1).isEmpty();
+				String nome = elemento.group(2).toUpperCase();
+				String valor = elemento.group(3).trim();
+				
+				if (nome.equals(TRANSACAO)) {
+					if (fechamento && transacao != null) {
+						lidas.add(converter());
+						transacao = null;
+					} else if (!fechamento) {
+						transacao = new HashMap<>();
+						numeroTransacao = numero;
+					}
+				} else if (transacao != null && !fechamento && !valor.isEmpty()) {
+					transacao.put(nome, valor);
+				}
+			}
+		}
+		return lidas.poll();
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+	
+	private LinhaExtrato converter() {
+		String data = transacao.get("DTPOSTED");
+		String valor = transacao.get("TRNAMT");
+		String descricao = transacao.containsKey("MEMO") ? transacao.get("MEMO") : transacao.get("NAME");
+		if (data == null || data.length() < 8 || valor == null) {
+			return LinhaExtrato.rejeitada(numeroTransacao, "Transação sem DTPOSTED ou TRNAMT.");
+		}
+		
+		try {
+			return new LinhaExtrato(numeroTransacao, descricao == null ? null : decodificar(descricao),
+					Integer.valueOf(data.substring(0, 4)), Integer.valueOf(data.substring(4, 6)),
+					LinhaExtrato.converterValor(valor), null, null);
+		} catch (NumberFormatException e) {
+			return LinhaExtrato.rejeitada(numeroTransacao, "Número inválido.");
+		}
+	}
+	
+	private static String decodificar(String texto) {
+		return texto.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace("&amp;", "&");
+	}
+}
@@ -0,0 +1,55 @@
+package br.com.hioktec.minhasfinancas.service.importacao;
+
+import java.math.BigDecimal;
+
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import lombok.Value;
+
+/**
+ * Transação lida de um extrato bancário, ou o erro que impediu a leitura da linha.
+ * Sem tipo informado o sinal do valor decide entre receita (positivo) e despesa (negativo).
+ * @author rodolfo
+ */
+@Value
+public class LinhaExtrato {
+	
+	private int numero;
+	
+	private String descricao;
+	
+	private Integer ano;
+	
+	private Integer mes;
+	
+	private BigDecimal valor;
+	
+	private TipoLancamento tipo;
+	
+	private String erro;
+	
+	public static LinhaExtrato rejeitada(int numero, String erro) {
+		return new LinhaExtrato(numero, null, null, null, null, null, erro);
+	}
+	
+	public Lancamento paraLancamento(Usuario usuario) {
+		Lancamento lancamento = new Lancamento();
+		lancamento.setDescricao(descricao);
+		lancamento.setAno(ano);
+		lancamento.setMes(mes);
+		lancamento.setValor(valor.abs());
+		lancamento.setTipo(tipo != null ? tipo : valor.signum() < 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA);
+		lancamento.setUsuario(usuario);
+		return lancamento;
+	}
+	
+	// aceita "1234.56", "-45,10" e "1.234,56" (separador decimal brasileiro).
+	static BigDecimal converterValor(String texto) {
+		String valor = texto.replace("R$", "").replace(" ", "").trim();
+		if (valor.indexOf(',') >= 0) {
+			valor = valor.replace(".", "").replace(',', '.');
+		}
+		return new BigDecimal(valor);
+	}
+}
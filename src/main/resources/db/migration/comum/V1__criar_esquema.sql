@@ -0,0 +1,76 @@
+-- esquema inicial: tabelas de usuários, autoridades, lançamentos e dados derivados.
+-- bancos criados antes das migrações pelo hibernate (ddl-auto) recebem o baseline 0 e passam por esta versão:
+-- as tabelas que já existem são mantidas e as que faltam, como as derivadas, são criadas.
+
+create table if not exists financas.usuarios (
+	id bigint generated by default as identity,
+	nome varchar(40),
+	nome_usuario varchar(20),
+	email varchar(40),
+	senha varchar(100),
+	constraint pk_usuarios primary key (id),
+	constraint uk_usuarios_nome_usuario unique (nome_usuario),
+	constraint uk_usuarios_email unique (email)
+);
+
+create table if not exists financas.autoridades (
+	id bigint generated by default as identity,
+	nome varchar(255),
+	constraint pk_autoridades primary key (id),
+	constraint uk_autoridades_nome unique (nome)
+);
+
+create table if not exists financas.autoridades_usuarios (
+	usuario_id bigint not null,
+	autoridade_id bigint not null,
+	constraint pk_autoridades_usuarios primary key (usuario_id, autoridade_id),
+	constraint fk_autoridades_usuarios_usuario foreign key (usuario_id) references financas.usuarios (id),
+	constraint fk_autoridades_usuarios_autoridade foreign key (autoridade_id) references financas.autoridades (id)
+);
+
+create table if not exists financas.lancamentos (
+	id bigint generated by default as identity,
+	descricao varchar(255),
+	mes integer not null check (mes >= 1 and mes <= 12),
+	ano integer not null,
+	valor decimal(18,2) not null,
+	tipo varchar(20) not null,
+	status varchar(20) not null,
+	id_usuario bigint,
+	data_cadastro timestamp,
+	constraint pk_lancamentos primary key (id),
+	constraint fk_lancamentos_usuario foreign key (id_usuario) references financas.usuarios (id)
+);
+
+-- nas tabelas derivadas o usuário é a primeira coluna da chave, pois todo acesso é por usuário.
+create table if not exists financas.saldos_usuarios (
+	id_usuario bigint not null,
+	receitas decimal(19,2) not null,
+	despesas decimal(19,2) not null,
+	constraint pk_saldos_usuarios primary key (id_usuario)
+);
+
+create table if not exists financas.saldos_acumulados (
+	id_usuario bigint not null,
+	periodo integer not null,
+	valor decimal(19,2) not null,
+	constraint pk_saldos_acumulados primary key (id_usuario, periodo)
+);
+
+create table if not exists financas.resumos_mensais (
+	id_usuario bigint not null,
+	ano integer not null,
+	mes integer not null,
+	tipo varchar(20) not null,
+	status varchar(20) not null,
+	valor decimal(19,2) not null,
+	quantidade bigint not null,
+	constraint pk_resumos_mensais primary key (id_usuario, ano, mes, tipo, status)
+);
+
+create table if not exists financas.lancamentos_termos (
+	id_usuario bigint not null,
+	termo varchar(60) not null,
+	id_lancamento bigint not null,
+	constraint pk_lancamentos_termos primary key (id_usuario, termo, id_lancamento)
+);
@@ -0,0 +1,6 @@
+-- autoridades exigidas pelo cadastro de usuários; não duplica se já tiverem sido inseridas manualmente.
+insert into financas.autoridades (nome)
+	select 'USUARIO' where not exists (select 1 from financas.autoridades where nome = 'USUARIO');
+
+insert into financas.autoridades (nome)
+	select 'ADMINISTRADOR' where not exists (select 1 from financas.autoridades where nome = 'ADMINISTRADOR');
@@ -0,0 +1,6 @@
+-- versão dos dados de cada usuário, incrementada a cada escrita de lançamento (ETag das consultas).
+create table if not exists financas.versoes_usuarios (
+	id_usuario bigint not null,
+	versao bigint not null,
+	constraint pk_versoes_usuarios primary key (id_usuario)
+);
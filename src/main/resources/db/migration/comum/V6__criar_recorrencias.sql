@@ -0,0 +1,24 @@
+-- recorrências (parcelamentos e contas mensais) que geram os lançamentos futuros até o horizonte configurado.
+create table financas.recorrencias (
+	id bigint generated by default as identity,
+	descricao varchar(240) not null,
+	valor decimal(18,2) not null,
+	tipo varchar(20) not null,
+	ano integer not null,
+	mes integer not null check (mes >= 1 and mes <= 12),
+	parcelas integer,
+	ano_final integer,
+	mes_final integer,
+	ultima_parcela integer not null,
+	id_usuario bigint not null,
+	data_cadastro timestamp,
+	constraint pk_recorrencias primary key (id),
+	constraint fk_recorrencias_usuario foreign key (id_usuario) references financas.usuarios (id)
+);
+
+-- cada parcela de uma recorrência existe no máximo uma vez, o que torna a geração idempotente.
+alter table financas.lancamentos add column id_recorrencia bigint;
+alter table financas.lancamentos add column parcela integer;
+alter table financas.lancamentos add constraint uk_lancamentos_recorrencia_parcela unique (id_recorrencia, parcela);
+alter table financas.lancamentos add constraint fk_lancamentos_recorrencia 
+	foreign key (id_recorrencia) references financas.recorrencias (id);
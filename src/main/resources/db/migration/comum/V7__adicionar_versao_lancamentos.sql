@@ -0,0 +1,2 @@
+-- versão de cada lançamento para o controle de concorrência otimista (@Version).
+alter table financas.lancamentos add column versao bigint not null default 0;
@@ -0,0 +1,10 @@
+-- identificadores (jti) dos tokens JWT revogados antes da expiração; removidos depois que o token expira.
+create table financas.tokens_revogados (
+	jti varchar(36) not null,
+	id_usuario bigint not null,
+	expira_em timestamp not null,
+	revogado_em timestamp not null,
+	constraint pk_tokens_revogados primary key (jti)
+);
+
+create index idx_tokens_revogados_expira_em on financas.tokens_revogados (expira_em);
@@ -0,0 +1,14 @@
+-- o h2 cria um índice próprio para a chave estrangeira de usuário, que o otimizador prefere aos compostos;
+-- a chave é recriada depois dos índices para reaproveitar o índice de período, que começa por id_usuario.
+alter table financas.lancamentos drop constraint fk_lancamentos_usuario;
+
+-- busca, paginação e resumos por período: (id_usuario, ano, mes) e o id para a ordenação por keyset.
+create index if not exists financas.idx_lancamentos_usuario_periodo
+	on financas.lancamentos (id_usuario, ano, mes, id);
+
+-- somas por tipo e status (saldos); o h2 não tem include, então o valor entra como última coluna.
+create index if not exists financas.idx_lancamentos_usuario_status_tipo
+	on financas.lancamentos (id_usuario, status, tipo, valor);
+
+alter table financas.lancamentos add constraint fk_lancamentos_usuario
+	foreign key (id_usuario) references financas.usuarios (id);
@@ -0,0 +1,3 @@
+-- sequência dos ids de lançamentos com incremento igual ao allocationSize da entidade (otimizador pooled do hibernate).
+-- o h2 é usado apenas nos testes, sempre com a base vazia, por isso a sequência começa no primeiro bloco.
+create sequence if not exists financas.lancamentos_seq start with 50 increment by 50;
@@ -0,0 +1,7 @@
+-- busca, paginação e resumos por período: (id_usuario, ano, mes) e o id para a ordenação por keyset.
+create index if not exists idx_lancamentos_usuario_periodo
+	on financas.lancamentos (id_usuario, ano, mes, id);
+
+-- somas por tipo e status (saldos) respondidas só pelo índice, sem ler a tabela.
+create index if not exists idx_lancamentos_usuario_status_tipo
+	on financas.lancamentos (id_usuario, status, tipo) include (valor);
@@ -0,0 +1,5 @@
+-- sequência dos ids de lançamentos com incremento igual ao allocationSize da entidade (otimizador pooled do hibernate),
+-- o que permite agrupar os inserts em lotes jdbc. começa após o maior id já gerado pela coluna identity.
+create sequence if not exists financas.lancamentos_seq increment by 50;
+
+select setval('financas.lancamentos_seq', coalesce((select max(id) from financas.lancamentos), 0) + 50, false);
@@ -23,8 +23,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import br.com.hioktec.minhasfinancas.api.dto.UsuarioDTO;
 import br.com.hioktec.minhasfinancas.exception.RegraNegocioException;
 import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+import br.com.hioktec.minhasfinancas.service.AutenticacaoService;
+import br.com.hioktec.minhasfinancas.service.CachePrincipalService;
 import br.com.hioktec.minhasfinancas.service.LancamentoService;
+import br.com.hioktec.minhasfinancas.service.ResumoMensalService;
 import br.com.hioktec.minhasfinancas.service.UsuarioService;
+import br.com.hioktec.minhasfinancas.service.VersaoUsuarioService;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -44,6 +48,18 @@ public class UsuarioResourceTest {
 	@MockBean
 	LancamentoService lancamentoService;
 	
+	@MockBean
+	ResumoMensalService resumoMensalService;
+	
+	@MockBean
+	VersaoUsuarioService versaoUsuarioService;
+	
+	@MockBean
+	CachePrincipalService cachePrincipalService;
+	
+	@MockBean
+	AutenticacaoService autenticacaoService;
+	
 	/* refatorado para usar segurança JWT
 	@Test
 	public void deveAutenticarUmUsuario() throws Exception {
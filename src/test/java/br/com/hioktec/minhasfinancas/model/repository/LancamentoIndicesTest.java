@@ -0,0 +1,88 @@
+package br.com.hioktec.minhasfinancas.model.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+
+// verifica pelo plano de execução (explain) que as consultas principais usam os índices criados pelas migrações.
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+public class LancamentoIndicesTest {
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveUsarOIndiceDePeriodoNaBuscaPorUsuarioAnoEMes() {
+		String plano = explicar(
+				"select id, descricao, valor from financas.lancamentos "
+				+ "where id_usuario = 1 and ano = 2020 and mes = 1 order by ano, mes, id");
+		
+		assertThat(plano).containsIgnoringCase("idx_lancamentos_usuario_periodo");
+	}
+	
+	@Test
+	public void deveUsarOIndiceDeStatusETipoNaSomaDoSaldo() {
+		String plano = explicar(
+				"select sum(valor) from financas.lancamentos "
+				+ "where id_usuario = 1 and status = 'EFETIVADO' and tipo = 'RECEITA'");
+		
+		assertThat(plano).containsIgnoringCase("idx_lancamentos_usuario_status_tipo");
+	}
+	
+	@Test
+	public void deveLerNaPaginaProfundaTantasLinhasQuantoNaPrimeira() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		for (int ano = 2010; ano < 2020; ano++) {
+			for (int mes = 1; mes <= 12; mes++) {
+				Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+				lancamento.setUsuario(usuario);
+				lancamento.setAno(ano);
+				lancamento.setMes(mes);
+				entityManager.persist(lancamento);
+			}
+		}
+		entityManager.flush();
+		String pagina = "select id from financas.lancamentos where id_usuario = " + usuario.getId() + " %s "
+				+ "order by ano, mes, id limit 5";
+		
+		// a mesma condição gerada pela busca paginada, com o cursor em junho do último ano.
+		long primeira = contarLinhasLidas(String.format(pagina, ""));
+		long profunda = contarLinhasLidas(String.format(pagina, 
+				"and ano >= 2019 and (ano > 2019 or (ano = 2019 and mes > 6) or (ano = 2019 and mes = 6 and id > 0))"));
+		
+		// sem o limite em ano, a página profunda leria as 114 linhas anteriores ao cursor.
+		assertThat(primeira).isLessThan(20);
+		assertThat(profunda).isLessThan(20);
+	}
+	
+	// linhas lidas da tabela, informadas pelo explain analyze do H2 ("scanCount").
+	private long contarLinhasLidas(String sql) {
+		Matcher contagem = Pattern.compile("scanCount: (\\d+)").matcher(explicar("analyze " + sql));
+		assertThat(contagem.find()).isTrue();
+		return Long.parseLong(contagem.group(1));
+	}
+	
+	private String explicar(String sql) {
+		return entityManager.getEntityManager()
+				.createNativeQuery("explain " + sql)
+				.getSingleResult()
+				.toString();
+	}
+}
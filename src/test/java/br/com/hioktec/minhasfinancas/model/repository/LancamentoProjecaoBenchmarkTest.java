@@ -0,0 +1,120 @@
+package br.com.hioktec.minhasfinancas.model.repository;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+import br.com.hioktec.minhasfinancas.model.vo.FiltroLancamento;
+import br.com.hioktec.minhasfinancas.repository.LancamentoRepository;
+import br.com.hioktec.minhasfinancas.repository.LancamentoSpecifications;
+
+/**
+ * Compara a busca por exemplo (entidades com o usuário) com a projeção direta no DTO,
+ * medindo bytes alocados pela thread e o tempo médio por busca.
+ * @author rodolfo
+ */
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+public class LancamentoProjecaoBenchmarkTest {
+	
+	private static final Logger logger = LoggerFactory.getLogger(LancamentoProjecaoBenchmarkTest.class);
+	
+	private static final int QUANTIDADE_LANCAMENTOS = 2000;
+	
+	private static final int AQUECIMENTO = 5;
+	
+	private static final int REPETICOES = 20;
+	
+	@Autowired
+	LancamentoRepository repository;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveAlocarMenosComAProjecaoNoDTO() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		for (int i = 0; i < QUANTIDADE_LANCAMENTOS; i++) {
+			Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+			lancamento.setUsuario(usuario);
+			lancamento.setMes(i % 12 + 1);
+			entityManager.persist(lancamento);
+		}
+		entityManager.flush();
+		entityManager.clear();
+		
+		Lancamento filtro = new Lancamento();
+		filtro.setDataCadastro(null);
+		filtro.setAno(2020);
+		filtro.setUsuario(usuario);
+		Example<Lancamento> example = Example.of(filtro, 
+				ExampleMatcher.matching().withIgnoreCase().withStringMatcher(StringMatcher.CONTAINING));
+		
+		Medicao entidades = medir(() -> repository.findAll(example));
+		Medicao projecao = medir(() -> repository.buscarDTO(
+				LancamentoSpecifications.filtrar(FiltroLancamento.de(filtro)), Sort.unsorted()));
+		
+		logger.info("Entidades: {} bytes e {} us por busca", entidades.bytes, entidades.micros);
+		logger.info("Projeção no DTO: {} bytes e {} us por busca", projecao.bytes, projecao.micros);
+		
+		assertThat(projecao.bytes).isLessThan(entidades.bytes);
+	}
+	
+	private Medicao medir(Supplier<List<?>> busca) {
+		for (int i = 0; i < AQUECIMENTO; i++) {
+			executar(busca);
+		}
+		
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long bytesInicio = threadMXBean.getThreadAllocatedBytes(threadId);
+		long inicio = System.nanoTime();
+		for (int i = 0; i < REPETICOES; i++) {
+			executar(busca);
+		}
+		long nanos = System.nanoTime() - inicio;
+		long bytes = threadMXBean.getThreadAllocatedBytes(threadId) - bytesInicio;
+		
+		return new Medicao(bytes / REPETICOES, nanos / REPETICOES / 1000);
+	}
+	
+	private void executar(Supplier<List<?>> busca) {
+		assertThat(busca.get()).hasSize(QUANTIDADE_LANCAMENTOS);
+		// cada busca parte de um contexto de persistência vazio, como em uma nova requisição.
+		entityManager.clear();
+	}
+	
+	private static class Medicao {
+		
+		private final long bytes;
+		
+		private final long micros;
+		
+		private Medicao(long bytes, long micros) {
+			this.bytes = bytes;
+			this.micros = micros;
+		}
+	}
+}
@@ -2,10 +2,14 @@ package br.com.hioktec.minhasfinancas.model.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,14 +17,21 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO;
 import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
 import br.com.hioktec.minhasfinancas.model.entity.Usuario;
 import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
 import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.CursorLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.FiltroLancamento;
 import br.com.hioktec.minhasfinancas.repository.LancamentoRepository;
+import br.com.hioktec.minhasfinancas.repository.LancamentoSpecifications;
+import br.com.hioktec.minhasfinancas.security.UsuarioPrincipal;
 
 @ExtendWith(SpringExtension.class)
 @DataJpaTest
@@ -80,6 +91,93 @@ public class LancamentoRepositoryTest {
 		assertThat(lancamentoEncontrado.isPresent()).isTrue();
 	}
 	
+	@Test
+	public void deveBuscarAsPaginasAPartirDoCursor() {
+		Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+		Lancamento marco = persistirLancamento(usuario, 2020, 3);
+		Lancamento janeiro = persistirLancamento(usuario, 2020, 1);
+		Lancamento outroJaneiro = persistirLancamento(usuario, 2020, 1);
+		Lancamento anoSeguinte = persistirLancamento(usuario, 2021, 1);
+		Specification<Lancamento> filtro = LancamentoSpecifications.doUsuario(usuario.getId());
+		
+		List<LancamentoDTO> primeiraPagina = repository.buscarPagina(filtro, null, 2);
+		List<LancamentoDTO> segundaPagina = repository.buscarPagina(filtro, CursorLancamento.de(primeiraPagina.get(1)), 2);
+		
+		assertThat(primeiraPagina).extracting(LancamentoDTO::getId).containsExactly(janeiro.getId(), outroJaneiro.getId());
+		assertThat(segundaPagina).extracting(LancamentoDTO::getId).containsExactly(marco.getId(), anoSeguinte.getId());
+	}
+	
+	@Test
+	public void deveFiltrarPorPeriodoValorEListaDeStatusOrdenando() {
+		Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+		Lancamento antesDoPeriodo = persistirLancamento(usuario, 2019, 5);
+		Lancamento inicioDoPeriodo = persistirLancamento(usuario, 2019, 6);
+		Lancamento fimDoPeriodo = persistirLancamento(usuario, 2020, 3);
+		Lancamento depoisDoPeriodo = persistirLancamento(usuario, 2020, 4);
+		Lancamento cancelado = persistirLancamento(usuario, 2019, 12);
+		cancelado.setStatus(StatusLancamento.CANCELADO);
+		Lancamento caro = persistirLancamento(usuario, 2019, 8);
+		caro.setValor(BigDecimal.valueOf(1000));
+		fimDoPeriodo.setValor(BigDecimal.valueOf(20));
+		entityManager.flush();
+		
+		FiltroLancamento filtro = FiltroLancamento.builder()
+				.usuario(usuario.getId())
+				.periodoInicial(YearMonth.of(2019, 6))
+				.periodoFinal(YearMonth.of(2020, 3))
+				.valorMaximo(BigDecimal.valueOf(100))
+				.status(EnumSet.of(StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO))
+				.build();
+		
+		List<LancamentoDTO> lancamentos = repository.buscarDTO(LancamentoSpecifications.filtrar(filtro), 
+				Sort.by(Sort.Order.desc("valor"), Sort.Order.asc("id")));
+		
+		assertThat(lancamentos).extracting(LancamentoDTO::getId)
+			.containsExactly(fimDoPeriodo.getId(), inicioDoPeriodo.getId())
+			.doesNotContain(antesDoPeriodo.getId(), depoisDoPeriodo.getId());
+	}
+	
+	@Test
+	public void deveObterUmLancamentoProjetadoNoDTO() {
+		Lancamento lancamento = criarLancamento();
+		entityManager.persist(lancamento.getUsuario());
+		entityManager.persist(lancamento);
+		entityManager.flush();
+		entityManager.clear();
+		
+		LancamentoDTO dto = repository.obterDTOPorId(lancamento.getId()).get();
+		
+		assertThat(dto.getDescricao()).isEqualTo(lancamento.getDescricao());
+		assertThat(dto.getTipo()).isEqualTo(TipoLancamento.RECEITA.name());
+		assertThat(dto.getUsuario()).isEqualTo(lancamento.getUsuario().getId());
+		// nenhuma entidade foi carregada no contexto de persistência.
+		assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+	}
+	
+	@Test
+	public void deveSalvarReferenciandoOUsuarioAutenticadoSemCarregaLo() {
+		Usuario usuario = entityManager.persist(criarLancamento().getUsuario());
+		entityManager.flush();
+		entityManager.clear();
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(UsuarioPrincipal.criar(usuario).obterUsuario());
+		
+		repository.saveAndFlush(lancamento);
+		
+		// somente o lançamento foi para o contexto de persistência: o usuário não foi consultado.
+		assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(1);
+		entityManager.clear();
+		assertThat(entityManager.find(Lancamento.class, lancamento.getId()).getUsuario().getId()).isEqualTo(usuario.getId());
+	}
+	
+	private Lancamento persistirLancamento(Usuario usuario, int ano, int mes) {
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setAno(ano);
+		lancamento.setMes(mes);
+		return entityManager.persist(lancamento);
+	}
+	
 	private Lancamento criarEPersistirUmLancamento() {
 		Lancamento lancamento = criarLancamento();
 		entityManager.persist(lancamento);
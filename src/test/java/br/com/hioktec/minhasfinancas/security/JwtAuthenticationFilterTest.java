@@ -0,0 +1,111 @@
+package br.com.hioktec.minhasfinancas.security;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.hioktec.minhasfinancas.repository.TokenRevogadoRepository;
+import br.com.hioktec.minhasfinancas.service.RevogacaoTokenService;
+import br.com.hioktec.minhasfinancas.service.impl.RevogacaoTokenServiceImpl;
+
+public class JwtAuthenticationFilterTest {
+	
+	private JwtTokenProvider tokenProvider = new JwtTokenProvider();
+	
+	private RevogacaoTokenService revogacaoTokenService = new RevogacaoTokenServiceImpl(900000,
+			Mockito.mock(TokenRevogadoRepository.class), 100, 0.01);
+	
+	private CustomUserDetailsService customUserDetailsService = Mockito.mock(CustomUserDetailsService.class);
+	
+	private JwtAuthenticationFilter filtro = new JwtAuthenticationFilter();
+	
+	@BeforeEach
+	public void setUp() {
+		ReflectionTestUtils.setField(tokenProvider, "jwtSegredo", "segredo");
+		ReflectionTestUtils.setField(tokenProvider, "jwtExpiraEmMs", 604800000);
+		ReflectionTestUtils.setField(tokenProvider, "semEstado", true);
+		ReflectionTestUtils.setField(tokenProvider, "jwtSemEstadoExpiraEmMs", 900000);
+		ReflectionTestUtils.setField(tokenProvider, "revogacaoTokenService", revogacaoTokenService);
+		ReflectionTestUtils.setField(tokenProvider, "verificadorJwt", new VerificadorJwt("segredo", 10));
+		ReflectionTestUtils.setField(filtro, "tokenProvider", tokenProvider);
+		ReflectionTestUtils.setField(filtro, "customUserDetailsService", customUserDetailsService);
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+	
+	@Test
+	public void deveAutenticarSomenteComAsDeclaracoesDoTokenNoModoSemEstado() throws Exception {
+		// cenário
+		String token = gerarToken(1L);
+		
+		// execução
+		filtrar(token);
+		
+		// verificação: nenhuma consulta ao usuário
+		Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+		assertThat(autenticacao).isNotNull();
+		UsuarioPrincipal principal = (UsuarioPrincipal) autenticacao.getPrincipal();
+		assertThat(principal.getId()).isEqualTo(1L);
+		assertThat(principal.getNome()).isEqualTo("nome");
+		assertThat(principal.getEmail()).isEqualTo("email@email.com");
+		assertThat(autenticacao.getAuthorities()).extracting("authority")
+			.containsExactly("USUARIO", "ADMINISTRADOR");
+		Mockito.verifyNoInteractions(customUserDetailsService);
+	}
+	
+	@Test
+	public void naoDeveAutenticarComTokenEmitidoAntesDaRevogacao() throws Exception {
+		// cenário
+		String token = gerarToken(1L);
+		String tokenOutroUsuario = gerarToken(2L);
+		
+		// execução
+		revogacaoTokenService.revogar(1L);
+		filtrar(token);
+		Authentication autenticacaoRevogada = SecurityContextHolder.getContext().getAuthentication();
+		filtrar(tokenOutroUsuario);
+		
+		// verificação
+		assertThat(autenticacaoRevogada).isNull();
+		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+	}
+	
+	@Test
+	public void deveAutenticarComTokenEmitidoLogoDepoisDaRevogacao() throws Exception {
+		// execução: novo login no mesmo segundo (e possivelmente no mesmo milissegundo) da revogação
+		revogacaoTokenService.revogar(1L);
+		filtrar(gerarToken(1L));
+		
+		// verificação
+		assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+	}
+	
+	private String gerarToken(Long usuarioId) {
+		UsuarioPrincipal principal = new UsuarioPrincipal(usuarioId, "nome", "nomeUsuario", "email@email.com", "senha",
+				Arrays.asList(new SimpleGrantedAuthority("USUARIO"), new SimpleGrantedAuthority("ADMINISTRADOR")));
+		return tokenProvider.gerarToken(
+				new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+	}
+	
+	private void filtrar(String token) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("autorizacao", "Portador \"" + token + "\"");
+		filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+	}
+}
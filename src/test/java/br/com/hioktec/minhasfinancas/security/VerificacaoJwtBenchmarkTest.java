@@ -0,0 +1,83 @@
+package br.com.hioktec.minhasfinancas.security;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Date;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+/**
+ * Compara a verificação anterior do filtro JWT (duas leituras do token, cada uma com um parser novo)
+ * com o verificador de leitura única, sem e com o cache de tokens verificados, registrando o tempo médio por requisição.
+ * Os tempos variam com a máquina e com pausas de gc, por isso são apenas registrados; as verificações são funcionais.
+ * @author rodolfo
+ */
+public class VerificacaoJwtBenchmarkTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(VerificacaoJwtBenchmarkTest.class);
+	
+	private static final String SEGREDO = "MinhaChaveJWTSuperSecreta1980";
+	
+	private static final int AQUECIMENTO = 5000;
+	
+	private static final int REPETICOES = 20000;
+	
+	@Test
+	public void deveVerificarOTokenPelosTresCaminhosMedindoOTempo() {
+		String token = Jwts.builder()
+				.setSubject("1")
+				.setIssuedAt(new Date())
+				.setExpiration(new Date(System.currentTimeMillis() + 900000))
+				.signWith(SignatureAlgorithm.HS512, SEGREDO)
+				.compact();
+		VerificadorJwt semCache = new VerificadorJwt(SEGREDO, 0);
+		VerificadorJwt comCache = new VerificadorJwt(SEGREDO, 1000);
+		
+		long anterior = medir(() -> {
+			Jwts.parser().setSigningKey(SEGREDO).parseClaimsJws(token);
+			Claims claims = Jwts.parser().setSigningKey(SEGREDO).parseClaimsJws(token).getBody();
+			return Long.parseLong(claims.getSubject());
+		});
+		long leituraUnica = medir(() -> Long.parseLong(semCache.verificar(token).get().getSubject()));
+		long cache = medir(() -> Long.parseLong(comCache.verificar(token).get().getSubject()));
+		
+		logger.info("Caminho anterior: {} ns por requisição", anterior);
+		logger.info("Leitura única: {} ns por requisição", leituraUnica);
+		logger.info("Leitura única com cache: {} ns por requisição", cache);
+	}
+	
+	@Test
+	public void naoDeveAceitarTokenComAssinaturaAlteradaMesmoComOOriginalEmCache() {
+		String token = Jwts.builder()
+				.setSubject("1")
+				.setExpiration(new Date(System.currentTimeMillis() + 900000))
+				.signWith(SignatureAlgorithm.HS512, SEGREDO)
+				.compact();
+		VerificadorJwt verificador = new VerificadorJwt(SEGREDO, 10);
+		int posicao = token.length() - 10;
+		char original = token.charAt(posicao);
+		String alterado = token.substring(0, posicao) + (original == 'A' ? 'B' : 'A') + token.substring(posicao + 1);
+		
+		assertThat(verificador.verificar(token)).isPresent();
+		assertThat(verificador.verificar(alterado)).isEmpty();
+		assertThat(new VerificadorJwt("OutraChave", 10).verificar(token)).isEmpty();
+	}
+	
+	private long medir(LongSupplier requisicao) {
+		for (int i = 0; i < AQUECIMENTO; i++) {
+			assertThat(requisicao.getAsLong()).isEqualTo(1L);
+		}
+		long inicio = System.nanoTime();
+		for (int i = 0; i < REPETICOES; i++) {
+			requisicao.getAsLong();
+		}
+		return (System.nanoTime() - inicio) / REPETICOES;
+	}
+}
@@ -0,0 +1,82 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import br.com.hioktec.minhasfinancas.exception.SobrecargaException;
+import br.com.hioktec.minhasfinancas.model.vo.EstatisticasAutenticacao;
+import br.com.hioktec.minhasfinancas.security.CustoBCryptPasswordEncoder;
+import br.com.hioktec.minhasfinancas.security.UsuarioPrincipal;
+import br.com.hioktec.minhasfinancas.service.impl.AutenticacaoServiceImpl;
+
+public class AutenticacaoServiceTest {
+
+	@Test
+	public void deveRejeitarOLoginQuandoAFilaDoExecutorEstiverCheia() throws Exception {
+		// cenário: uma thread ocupada e uma vaga na fila
+		CountDownLatch liberar = new CountDownLatch(1);
+		AutenticacaoServiceImpl service = new AutenticacaoServiceImpl(autenticacao -> {
+			try {
+				liberar.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return autenticacao;
+		}, 1, 1);
+		
+		try {
+			// execução
+			CompletableFuture<Authentication> emExecucao = service.autenticar("usuario", "senha");
+			CompletableFuture<Authentication> naFila = service.autenticar("usuario", "senha");
+			Throwable rejeicao = catchThrowable(() -> service.autenticar("usuario", "senha"));
+			liberar.countDown();
+			
+			// verificação
+			assertThat(rejeicao).isInstanceOf(SobrecargaException.class);
+			assertThat(emExecucao.get(5, TimeUnit.SECONDS).getName()).isEqualTo("usuario");
+			assertThat(naFila.get(5, TimeUnit.SECONDS).getName()).isEqualTo("usuario");
+			EstatisticasAutenticacao estatisticas = service.obterEstatisticas();
+			assertThat(estatisticas.getConcluidas()).isEqualTo(2);
+			assertThat(estatisticas.getRejeitadas()).isEqualTo(1);
+		} finally {
+			service.encerrar();
+		}
+	}
+	
+	@Test
+	public void deveRegravarOHashNoLoginQuandoOCustoConfiguradoMudar() {
+		assertThat(autenticarComCusto(4, 5)).startsWith("$2a$05$");
+		assertThat(autenticarComCusto(5, 4)).startsWith("$2a$04$");
+		assertThat(autenticarComCusto(4, 4)).isNull();
+	}
+	
+	// hash regravado pelo provedor de autenticação após um login válido, ou nulo se não houve regravação.
+	private String autenticarComCusto(int custoGravado, int custoConfigurado) {
+		String hash = new BCryptPasswordEncoder(custoGravado).encode("senha");
+		UsuarioPrincipal usuario = new UsuarioPrincipal(1L, "nome", "usuario", "email@email.com", hash,
+				Collections.emptyList());
+		AtomicReference<String> regravado = new AtomicReference<>();
+		
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+		provider.setPasswordEncoder(new CustoBCryptPasswordEncoder(custoConfigurado));
+		provider.setUserDetailsService(nomeUsuario -> usuario);
+		provider.setUserDetailsPasswordService((user, novaSenha) -> {
+			regravado.set(novaSenha);
+			return user;
+		});
+		
+		provider.authenticate(new UsernamePasswordAuthenticationToken("usuario", "senha"));
+		return regravado.get();
+	}
+}
@@ -0,0 +1,171 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+import br.com.hioktec.minhasfinancas.model.enums.AutoridadeNome;
+import br.com.hioktec.minhasfinancas.model.repository.UsuarioRepositoryTest;
+import br.com.hioktec.minhasfinancas.model.vo.EstatisticasCache;
+import br.com.hioktec.minhasfinancas.repository.AutoridadeRepository;
+import br.com.hioktec.minhasfinancas.security.CustomUserDetailsService;
+import br.com.hioktec.minhasfinancas.security.UsuarioPrincipal;
+import br.com.hioktec.minhasfinancas.service.impl.CachePrincipalServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.RevogacaoTokenServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.UsuarioServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+@Import({CustomUserDetailsService.class, CachePrincipalServiceImpl.class, UsuarioServiceImpl.class,
+		RevogacaoTokenServiceImpl.class})
+public class CachePrincipalServiceTest {
+
+	@Autowired
+	CustomUserDetailsService userDetailsService;
+	
+	@Autowired
+	UsuarioService usuarioService;
+	
+	@Autowired
+	CachePrincipalService service;
+	
+	@Autowired
+	RevogacaoTokenService revogacaoTokenService;
+	
+	@Autowired
+	AutoridadeRepository autoridadeRepository;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveConsultarOBancoSomenteNaPrimeiraRequisicaoDoUsuario() {
+		// cenário
+		Usuario usuario = persistirUsuario();
+		Statistics estatisticas = obterEstatisticasHibernate();
+		EstatisticasCache antes = service.obterEstatisticas();
+		
+		// execução: três requisições autenticadas do mesmo usuário
+		UsuarioPrincipal principal = (UsuarioPrincipal) userDetailsService.loadUserById(usuario.getId());
+		long consultasPrimeiraRequisicao = estatisticas.getPrepareStatementCount();
+		userDetailsService.loadUserById(usuario.getId());
+		userDetailsService.loadUserById(usuario.getId());
+		
+		// verificação: usuário e autoridades em uma consulta, nenhuma nas seguintes
+		assertThat(consultasPrimeiraRequisicao).isEqualTo(1);
+		assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(principal.getAuthorities()).extracting("authority").containsExactly("USUARIO");
+		EstatisticasCache depois = service.obterEstatisticas();
+		assertThat(depois.getFalhas() - antes.getFalhas()).isEqualTo(1);
+		assertThat(depois.getAcertos() - antes.getAcertos()).isEqualTo(2);
+	}
+	
+	@Test
+	public void deveRecarregarOPrincipalAposAtualizarOUsuario() {
+		// cenário
+		Usuario usuario = persistirUsuario();
+		userDetailsService.loadUserById(usuario.getId());
+		
+		// execução
+		usuario.setNome("novo nome");
+		usuarioService.atualizar(usuario);
+		UsuarioPrincipal principal = (UsuarioPrincipal) userDetailsService.loadUserById(usuario.getId());
+		
+		// verificação
+		assertThat(principal.getNome()).isEqualTo("novo nome");
+	}
+	
+	@Test
+	public void deveRevogarOsTokensSomenteQuandoASenhaOuAsAutoridadesMudarem() {
+		// cenário
+		Usuario usuario = persistirUsuario();
+		Date emitidoAntes = new Date(System.currentTimeMillis() - 60000);
+		
+		// execução
+		usuario.setNome("novo nome");
+		usuarioService.atualizar(usuario);
+		boolean revogadoAoAlterarONome = revogacaoTokenService.isRevogado(usuario.getId(), emitidoAntes);
+		usuario.getAutoridades().add(autoridadeRepository.findByNome(AutoridadeNome.ADMINISTRADOR).get());
+		usuarioService.atualizar(usuario);
+		
+		// verificação
+		assertThat(revogadoAoAlterarONome).isFalse();
+		assertThat(revogacaoTokenService.isRevogado(usuario.getId(), emitidoAntes)).isTrue();
+	}
+	
+	@Test
+	public void naoDeveGuardarCarregamentoIniciadoAntesDeUmaInvalidacao() {
+		// cenário
+		CachePrincipalService cache = new CachePrincipalServiceImpl(60, 10);
+		AtomicInteger carregamentos = new AtomicInteger();
+		
+		// execução: o usuário é alterado enquanto o principal antigo está sendo lido
+		cache.obter(1L, id -> {
+			carregamentos.incrementAndGet();
+			cache.invalidar(id);
+			return new UsuarioPrincipal(id, "antigo", "antigo", "antigo@email.com", "senha", null);
+		});
+		cache.obter(1L, id -> {
+			carregamentos.incrementAndGet();
+			return new UsuarioPrincipal(id, "novo", "novo", "novo@email.com", "senha", null);
+		});
+		
+		// verificação
+		assertThat(carregamentos.get()).isEqualTo(2);
+		assertThat(cache.obterEstatisticas().getTamanho()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveDescartarOsPrincipaisMaisAntigosAoAtingirACapacidade() {
+		// cenário
+		CachePrincipalService cache = new CachePrincipalServiceImpl(60, 2);
+		
+		// execução
+		for (long id = 1; id <= 3; id++) {
+			cache.obter(id, CachePrincipalServiceTest::criarPrincipal);
+		}
+		cache.obter(1L, CachePrincipalServiceTest::criarPrincipal);
+		
+		// verificação: o usuário 1 foi descartado e precisou ser carregado de novo
+		EstatisticasCache estatisticas = cache.obterEstatisticas();
+		assertThat(estatisticas.getTamanho()).isEqualTo(2);
+		assertThat(estatisticas.getFalhas()).isEqualTo(4);
+		assertThat(estatisticas.getRemocoes()).isEqualTo(2);
+	}
+	
+	private Usuario persistirUsuario() {
+		Usuario usuario = UsuarioRepositoryTest.criarUsuario();
+		usuario.getAutoridades().add(autoridadeRepository.findByNome(AutoridadeNome.USUARIO).get());
+		usuario = entityManager.persist(usuario);
+		entityManager.flush();
+		entityManager.clear();
+		obterEstatisticasHibernate().clear();
+		return usuario;
+	}
+	
+	private Statistics obterEstatisticasHibernate() {
+		return entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+	}
+	
+	private static UsuarioPrincipal criarPrincipal(Long id) {
+		return new UsuarioPrincipal(id, "nome", "nomeUsuario", "email@email.com", "senha", null);
+	}
+}
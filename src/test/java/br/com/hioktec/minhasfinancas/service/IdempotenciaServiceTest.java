@@ -0,0 +1,148 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.hioktec.minhasfinancas.exception.ConflitoIdempotenciaException;
+import br.com.hioktec.minhasfinancas.exception.RegraNegocioException;
+import br.com.hioktec.minhasfinancas.exception.SobrecargaException;
+import br.com.hioktec.minhasfinancas.model.vo.ResultadoIdempotente;
+import br.com.hioktec.minhasfinancas.service.impl.IdempotenciaServiceImpl;
+
+public class IdempotenciaServiceTest {
+	
+	private IdempotenciaService service = new IdempotenciaServiceImpl(60, 2, 5);
+	
+	@Test
+	public void deveDevolverOResultadoOriginalNaRepeticaoSemExecutarDeNovo() {
+		// cenário
+		AtomicInteger execucoes = new AtomicInteger();
+		
+		// execução
+		ResultadoIdempotente<Integer> primeira = service.executar("1:a", "x", execucoes::incrementAndGet);
+		ResultadoIdempotente<Integer> repetida = service.executar("1:a", "x", execucoes::incrementAndGet);
+		
+		// verificação
+		assertThat(primeira.isRepetida()).isFalse();
+		assertThat(repetida.isRepetida()).isTrue();
+		assertThat(repetida.getValor()).isEqualTo(1);
+		assertThat(execucoes.get()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveExecutarUmaUnicaVezComRequisicoesSimultaneas() throws Exception {
+		// cenário
+		AtomicInteger execucoes = new AtomicInteger();
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		Callable<Integer> tarefa = () -> service.executar("1:b", "x", () -> {
+			try {
+				liberar.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return execucoes.incrementAndGet();
+		}).getValor();
+		
+		// execução
+		List<Future<Integer>> resultados = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			resultados.add(executor.submit(tarefa));
+		}
+		Thread.sleep(100);
+		liberar.countDown();
+		
+		// verificação
+		for (Future<Integer> resultado : resultados) {
+			assertThat(resultado.get()).isEqualTo(1);
+		}
+		assertThat(execucoes.get()).isEqualTo(1);
+		executor.shutdown();
+	}
+	
+	@Test
+	public void naoDeveGuardarFalhasNemAceitarOutraAssinatura() {
+		// execução e verificação
+		assertThatThrownBy(() -> service.executar("1:c", "x", () -> { throw new RegraNegocioException("erro"); }))
+				.isInstanceOf(RegraNegocioException.class);
+		assertThat(service.executar("1:c", "x", () -> 2).isRepetida()).isFalse();
+		assertThatThrownBy(() -> service.executar("1:c", "y", () -> 3))
+				.isInstanceOf(ConflitoIdempotenciaException.class);
+	}
+	
+	@Test
+	public void deveDescartarAsChavesMaisAntigasAoAtingirACapacidade() {
+		// execução
+		service.executar("1:d", "x", () -> 1);
+		service.executar("1:e", "x", () -> 2);
+		service.executar("1:f", "x", () -> 3);
+		
+		// verificação
+		assertThat(service.executar("1:d", "x", () -> 4).isRepetida()).isFalse();
+		assertThat(service.executar("1:f", "x", () -> 5).getValor()).isEqualTo(3);
+	}
+	
+	@Test
+	public void naoDeveDescartarChavesEmAndamentoAoAtingirACapacidade() throws Exception {
+		// cenário
+		AtomicInteger execucoes = new AtomicInteger();
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		Callable<Integer> tarefa = () -> service.executar("1:g", "x", () -> {
+			try {
+				liberar.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return execucoes.incrementAndGet();
+		}).getValor();
+		Future<Integer> primeira = executor.submit(tarefa);
+		Thread.sleep(100);
+		
+		// execução: duas chaves novas com capacidade 2 descartariam a chave em andamento
+		service.executar("1:h", "x", () -> 2);
+		service.executar("1:i", "x", () -> 3);
+		Future<Integer> repetida = executor.submit(tarefa);
+		Thread.sleep(100);
+		liberar.countDown();
+		
+		// verificação
+		assertThat(primeira.get()).isEqualTo(1);
+		assertThat(repetida.get()).isEqualTo(1);
+		assertThat(execucoes.get()).isEqualTo(1);
+		executor.shutdown();
+	}
+	
+	@Test
+	public void deveRecusarNovasChavesQuandoTodasEstaoEmAndamento() throws Exception {
+		// cenário
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		for (String chave : new String[] {"1:j", "1:k"}) {
+			executor.submit(() -> service.executar(chave, "x", () -> {
+				try {
+					liberar.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return 1;
+			}));
+		}
+		Thread.sleep(100);
+		
+		// execução e verificação
+		assertThatThrownBy(() -> service.executar("1:l", "x", () -> 2)).isInstanceOf(SobrecargaException.class);
+		liberar.countDown();
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,162 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.hioktec.minhasfinancas.exception.RegraNegocioException;
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+import br.com.hioktec.minhasfinancas.model.enums.FormatoExtrato;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import br.com.hioktec.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.hioktec.minhasfinancas.model.vo.FluxoCaixa;
+import br.com.hioktec.minhasfinancas.model.vo.LinhaImportacao;
+import br.com.hioktec.minhasfinancas.model.vo.ResultadoImportacao;
+import br.com.hioktec.minhasfinancas.service.impl.ImportacaoLancamentoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.LancamentoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.PesquisaLancamentoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.ResumoMensalServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.SaldoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.VersaoUsuarioServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "app.importacao.tamanhoLote=2")
+@Import({LancamentoServiceImpl.class, SaldoServiceImpl.class, ResumoMensalServiceImpl.class,
+		PesquisaLancamentoServiceImpl.class, VersaoUsuarioServiceImpl.class, ImportacaoLancamentoServiceImpl.class,
+		ValidationAutoConfiguration.class})
+public class ImportacaoLancamentoServiceTest {
+	
+	@Autowired
+	ImportacaoLancamentoService service;
+	
+	@Autowired
+	ResumoMensalService resumoMensalService;
+	
+	@Autowired
+	PesquisaLancamentoService pesquisaLancamentoService;
+	
+	@Autowired
+	VersaoUsuarioService versaoUsuarioService;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveImportarCsvEmLotesERelatarAsLinhasRejeitadas() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		String csv = "data;Descrição;valor\n"
+				+ "05/01/2020;Salário;1.500,00\n"
+				+ "2020-01-10;\"Mercado; bairro\";-120,50\n"
+				+ "32/01/2020;Data errada;10,00\n"
+				+ "2020-02-01;Valor zerado;0\n"
+				+ "\n"
+				+ "2020-02-03;Farmácia;-30\n";
+		
+		ResultadoImportacao resultado = service.importar(usuario, FormatoExtrato.CSV, new StringReader(csv));
+		entityManager.clear();
+		
+		assertThat(resultado.getImportados()).isEqualTo(3);
+		assertThat(resultado.getRejeitados()).isEqualTo(2);
+		assertThat(resultado.getLinhas()).extracting(LinhaImportacao::getLinha).containsExactly(2, 3, 4, 5, 7);
+		assertThat(resultado.getLinhas().get(2).getErro()).isEqualTo("Data inválida.");
+		assertThat(resultado.getLinhas().get(3).getErro()).isEqualTo("Informe um Valor válido (número positivo).");
+		
+		Lancamento mercado = entityManager.find(Lancamento.class, resultado.getLinhas().get(1).getLancamento());
+		assertThat(mercado.getDescricao()).isEqualTo("Mercado; bairro");
+		assertThat(mercado.getTipo()).isEqualTo(TipoLancamento.DESPESA);
+		assertThat(mercado.getValor()).isEqualByComparingTo(BigDecimal.valueOf(120.5));
+		
+		// dados derivados atualizados por lote.
+		FluxoCaixa fluxoCaixa = resumoMensalService.obterFluxoCaixa(usuario.getId(), 2020);
+		assertThat(fluxoCaixa.getMeses().get(0).getReceitasPendentes()).isEqualByComparingTo(BigDecimal.valueOf(1500));
+		assertThat(fluxoCaixa.getMeses().get(0).getDespesasPendentes()).isEqualByComparingTo(BigDecimal.valueOf(120.5));
+		assertThat(fluxoCaixa.getMeses().get(1).getDespesasPendentes()).isEqualByComparingTo(BigDecimal.valueOf(30));
+		assertThat(pesquisaLancamentoService.pesquisar(usuario.getId(), "farmacia", 10)).hasSize(1);
+		assertThat(versaoUsuarioService.obterVersao(usuario.getId())).isEqualTo(2L);
+	}
+	
+	@Test
+	public void deveRejeitarALinhaQueViolaAsRestricoesDaEntidadeSemDesfazerAsDemais() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		String descricaoLonga = String.join("", Collections.nCopies(300, "a"));
+		String csv = "data;descricao;valor\n"
+				+ "2020-01-05;Salário;1500\n"
+				+ "2020-01-06;Mercado;-10\n"
+				+ "2020-01-07;" + descricaoLonga + ";-20\n"
+				+ "2020-01-08;Farmácia;-30\n";
+		
+		ResultadoImportacao resultado = service.importar(usuario, FormatoExtrato.CSV, new StringReader(csv));
+		entityManager.flush();
+		entityManager.clear();
+		
+		assertThat(resultado.getImportados()).isEqualTo(3);
+		assertThat(resultado.getRejeitados()).isEqualTo(1);
+		assertThat(resultado.getLinhas()).extracting(LinhaImportacao::getLinha).containsExactly(2, 3, 4, 5);
+		assertThat(resultado.getLinhas().get(2).getLancamento()).isNull();
+		assertThat(resultado.getLinhas().get(2).getErro()).startsWith("descricao ");
+		assertThat(entityManager.find(Lancamento.class, resultado.getLinhas().get(3).getLancamento())).isNotNull();
+	}
+	
+	@Test
+	public void deveImportarOfx() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		String ofx = "OFXHEADER:100\n"
+				+ "DATA:OFXSGML\n"
+				+ "<OFX>\n"
+				+ "<BANKTRANLIST>\n"
+				+ "<STMTTRN>\n"
+				+ "<TRNTYPE>DEBIT\n"
+				+ "<DTPOSTED>20200315120000[-3:BRT]\n"
+				+ "<TRNAMT>-89.90\n"
+				+ "<MEMO>Conta de luz &amp; água\n"
+				+ "</STMTTRN>\n"
+				+ "<STMTTRN><TRNTYPE>CREDIT</TRNTYPE><DTPOSTED>20200401</DTPOSTED><TRNAMT>250.00</TRNAMT>"
+				+ "<NAME>Reembolso</NAME></STMTTRN>\n"
+				+ "<STMTTRN><TRNAMT>10.00</TRNAMT></STMTTRN>\n"
+				+ "</BANKTRANLIST>\n"
+				+ "</OFX>\n";
+		
+		ResultadoImportacao resultado = service.importar(usuario, FormatoExtrato.OFX, new StringReader(ofx));
+		entityManager.clear();
+		
+		assertThat(resultado.getImportados()).isEqualTo(2);
+		assertThat(resultado.getLinhas()).extracting(LinhaImportacao::getLinha).containsExactly(5, 11, 12);
+		
+		Lancamento luz = entityManager.find(Lancamento.class, resultado.getLinhas().get(0).getLancamento());
+		assertThat(luz.getDescricao()).isEqualTo("Conta de luz & água");
+		assertThat(luz.getMes()).isEqualTo(3);
+		assertThat(luz.getTipo()).isEqualTo(TipoLancamento.DESPESA);
+		Lancamento reembolso = entityManager.find(Lancamento.class, resultado.getLinhas().get(1).getLancamento());
+		assertThat(reembolso.getTipo()).isEqualTo(TipoLancamento.RECEITA);
+		assertThat(reembolso.getAno()).isEqualTo(2020);
+	}
+	
+	@Test
+	public void deveRejeitarCsvSemAsColunasObrigatorias() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		
+		Throwable erro = catchThrowable(() -> 
+			service.importar(usuario, FormatoExtrato.CSV, new StringReader("descricao,valor\nMercado,10\n")));
+		
+		assertThat(erro).isInstanceOf(RegraNegocioException.class);
+	}
+}
@@ -0,0 +1,160 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.hioktec.minhasfinancas.model.enums.FormatoExportacao;
+import br.com.hioktec.minhasfinancas.model.vo.FiltroLancamento;
+import br.com.hioktec.minhasfinancas.service.exportacao.EscritorPlanilha;
+import br.com.hioktec.minhasfinancas.service.impl.LancamentoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.PesquisaLancamentoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.ResumoMensalServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.SaldoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.VersaoUsuarioServiceImpl;
+
+/**
+ * Exporta um milhão de lançamentos em csv e xlsx, medindo o tempo, os bytes gravados
+ * e o pico de memória usada durante a gravação. Fora do build padrão: mvn test -Pbenchmark.
+ * @author rodolfo
+ */
+@Tag("benchmark")
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = 
+		"spring.datasource.url=jdbc:h2:mem:exportacao;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas")
+// sem a transação do teste: os lançamentos são gravados de uma vez e a exportação abre a sua própria transação.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({LancamentoServiceImpl.class, SaldoServiceImpl.class, ResumoMensalServiceImpl.class,
+		PesquisaLancamentoServiceImpl.class, VersaoUsuarioServiceImpl.class})
+public class LancamentoExportacaoBenchmarkTest {
+	
+	private static final Logger logger = LoggerFactory.getLogger(LancamentoExportacaoBenchmarkTest.class);
+	
+	private static final int QUANTIDADE_LANCAMENTOS = 1_000_000;
+	
+	// a cada amostra um gc completo: mede a memória retida, não o lixo ainda não coletado.
+	private static final int INTERVALO_AMOSTRAGEM = 250_000;
+	
+	// em blocos, como autocommits separados: uma única transação de um milhão de linhas é muito mais lenta no H2.
+	private static final int TAMANHO_BLOCO = 50_000;
+	
+	// bem abaixo do que um milhão de lançamentos ocupariam se fossem mantidos em memória.
+	private static final long LIMITE_MEMORIA = 128L * 1024 * 1024;
+	
+	@Autowired
+	LancamentoService service;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Test
+	public void deveExportarUmMilhaoDeLancamentosComMemoriaLimitada() throws IOException {
+		jdbcTemplate.update("insert into financas.usuarios (nome, nome_usuario, email, senha) values (?, ?, ?, ?)", 
+				"usuario", "nomeUsuario", "test@email.com", "senha");
+		Long usuario = jdbcTemplate.queryForObject("select id from financas.usuarios", Long.class);
+		// ids negativos: abaixo do valor atual da identidade da coluna, o H2 não a atualiza a cada linha.
+		long inicio = System.nanoTime();
+		for (int bloco = 0; bloco < QUANTIDADE_LANCAMENTOS; bloco += TAMANHO_BLOCO) {
+			jdbcTemplate.update(
+					"insert into financas.lancamentos (id, descricao, mes, ano, valor, tipo, status, id_usuario, data_cadastro, versao) "
+					+ "select -x, 'lancamento ' || x, mod(x, 12) + 1, 2020, 10.5, 'RECEITA', 'PENDENTE', ?, current_date, 0 "
+					+ "from system_range(?, ?)", usuario, bloco + 1, bloco + TAMANHO_BLOCO);
+		}
+		logger.info("{} lançamentos gravados em {} ms", QUANTIDADE_LANCAMENTOS, (System.nanoTime() - inicio) / 1_000_000);
+		FiltroLancamento filtro = FiltroLancamento.builder().usuario(usuario).ano(2020).build();
+		
+		for (FormatoExportacao formato : new FormatoExportacao[] {FormatoExportacao.CSV, FormatoExportacao.XLSX}) {
+			Medicao medicao = exportar(filtro, formato);
+			
+			logger.info("Exportação {}: {} linhas, {} bytes em {} ms, pico de {} MB acima do inicial", formato, 
+					medicao.linhas, medicao.saida.bytes, medicao.millis, medicao.pico / 1024 / 1024);
+			
+			assertThat(medicao.linhas).isEqualTo(QUANTIDADE_LANCAMENTOS);
+			assertThat(medicao.saida.bytes).isPositive();
+			assertThat(medicao.pico).isLessThan(LIMITE_MEMORIA);
+		}
+	}
+	
+	// o banco é exclusivo deste teste; descartá-lo é bem mais rápido que desfazer um milhão de inserts.
+	@AfterEach
+	public void descartarBanco() {
+		jdbcTemplate.execute("drop all objects");
+	}
+	
+	private Medicao exportar(FiltroLancamento filtro, FormatoExportacao formato) throws IOException {
+		MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+		memoria.gc();
+		long inicial = memoria.getHeapMemoryUsage().getUsed();
+		Medicao medicao = new Medicao();
+		
+		long inicio = System.nanoTime();
+		try (EscritorPlanilha escritor = EscritorPlanilha.de(formato, medicao.saida)) {
+			service.exportar(filtro, lancamento -> {
+				try {
+					escritor.escrever(lancamento);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				if (++medicao.linhas % INTERVALO_AMOSTRAGEM == 0) {
+					memoria.gc();
+					medicao.pico = Math.max(medicao.pico, memoria.getHeapMemoryUsage().getUsed() - inicial);
+				}
+			});
+		}
+		// o tempo inclui os gcs das amostras.
+		medicao.millis = (System.nanoTime() - inicio) / 1_000_000;
+		return medicao;
+	}
+	
+	private static class Medicao {
+		
+		private final SaidaContada saida = new SaidaContada();
+		
+		private long linhas;
+		
+		private long millis;
+		
+		private long pico;
+	}
+	
+	// descarta o conteúdo, como um cliente lendo o download, contando apenas os bytes.
+	private static class SaidaContada extends OutputStream {
+		
+		private long bytes;
+
+		@Override
+		public void write(int b) {
+			bytes++;
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) {
+			bytes += len;
+		}
+	}
+}
@@ -9,10 +9,13 @@ import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
-import org.springframework.data.domain.Example;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -22,6 +25,9 @@ import br.com.hioktec.minhasfinancas.model.entity.Usuario;
 import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
 import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
 import br.com.hioktec.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.hioktec.minhasfinancas.model.vo.EstadoLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.ResultadoAtualizacaoStatus;
+import br.com.hioktec.minhasfinancas.model.vo.TotalLancamento;
 import br.com.hioktec.minhasfinancas.repository.LancamentoRepository;
 import br.com.hioktec.minhasfinancas.service.impl.LancamentoServiceImpl;
 
@@ -35,6 +41,18 @@ public class LancamentoServiceTest {
 	@MockBean
 	LancamentoRepository repository;
 	
+	@MockBean
+	SaldoService saldoService;
+	
+	@MockBean
+	ResumoMensalService resumoMensalService;
+	
+	@MockBean
+	PesquisaLancamentoService pesquisaLancamentoService;
+	
+	@MockBean
+	VersaoUsuarioService versaoUsuarioService;
+	
 	@Test
 	public void deveSalvarUmLancamento() {
 		Lancamento lancamentoASalvar = LancamentoRepositoryTest.criarLancamento();
@@ -49,6 +67,7 @@ public class LancamentoServiceTest {
 		
 		assertThat(lancamento.getId()).isEqualTo(lancamentoSalvo.getId());
 		assertThat(lancamento.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+		Mockito.verify(saldoService).registrarAlteracao(null, lancamentoSalvo.obterEstado());
 	}
 	
 	@Test //(expected = RegraNegocioException.class)
@@ -74,6 +93,43 @@ public class LancamentoServiceTest {
 		Mockito.verify(repository, Mockito.times(1)).save(lancamentoSalvo);
 	}
 	
+	@Test
+	public void deveAtualizarOLancamentoCarregadoSemMerge() {
+		Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
+		lancamentoSalvo.setId(1l);
+		lancamentoSalvo.getUsuario().setId(1l);
+		lancamentoSalvo.setVersao(0l);
+		lancamentoSalvo.registrarEstadoPersistido();
+		EstadoLancamento estadoAnterior = lancamentoSalvo.getEstadoPersistido();
+		Mockito.when(repository.findById(1l)).thenReturn(Optional.of(lancamentoSalvo));
+		Lancamento atualizacao = LancamentoRepositoryTest.criarLancamento();
+		atualizacao.setValor(BigDecimal.valueOf(20));
+		atualizacao.setVersao(0l);
+		
+		Lancamento lancamento = service.atualizar(1l, 1l, atualizacao);
+		
+		assertThat(lancamento).isSameAs(lancamentoSalvo);
+		assertThat(lancamento.getValor()).isEqualTo(BigDecimal.valueOf(20));
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(Lancamento.class));
+		Mockito.verify(saldoService).registrarAlteracao(estadoAnterior, lancamento.obterEstado());
+	}
+	
+	@Test
+	public void naoDeveAtualizarUmLancamentoDeOutroUsuarioOuComVersaoDesatualizada() {
+		Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
+		lancamentoSalvo.setId(1l);
+		lancamentoSalvo.getUsuario().setId(1l);
+		lancamentoSalvo.setVersao(1l);
+		Mockito.when(repository.findById(1l)).thenReturn(Optional.of(lancamentoSalvo));
+		Lancamento atualizacao = LancamentoRepositoryTest.criarLancamento();
+		atualizacao.setVersao(0l);
+		
+		assertThat(catchThrowable(() -> service.atualizar(2l, 1l, atualizacao))).isInstanceOf(AccessDeniedException.class);
+		assertThat(catchThrowable(() -> service.atualizar(1l, 1l, atualizacao)))
+				.isInstanceOf(OptimisticLockingFailureException.class);
+		Mockito.verify(saldoService, Mockito.never()).registrarAlteracao(Mockito.any(), Mockito.any());
+	}
+	
 	@Test //(expected = RegraNegocioException.class)
 	public void naoDeveAtualizarUmLancamentoQuandoHouverErroDeValidacao() {
 		Lancamento lancamentoAAtualizar = LancamentoRepositoryTest.criarLancamento();
@@ -103,6 +159,31 @@ public class LancamentoServiceTest {
 		Mockito.verify(repository, Mockito.times(1)).delete(lancamentoADeletar);
 	}
 	
+	@Test
+	public void deveDeletarOLancamentoDoUsuarioPeloId() {
+		Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
+		lancamentoSalvo.setId(1l);
+		lancamentoSalvo.getUsuario().setId(1l);
+		Mockito.when(repository.findById(1l)).thenReturn(Optional.of(lancamentoSalvo));
+		
+		service.deletar(1l, 1l);
+		
+		Mockito.verify(repository).delete(lancamentoSalvo);
+	}
+	
+	@Test
+	public void naoDeveDeletarUmLancamentoDeOutroUsuarioOuInexistente() {
+		Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
+		lancamentoSalvo.setId(1l);
+		lancamentoSalvo.getUsuario().setId(1l);
+		Mockito.when(repository.findById(1l)).thenReturn(Optional.of(lancamentoSalvo));
+		Mockito.when(repository.findById(2l)).thenReturn(Optional.empty());
+		
+		assertThat(catchThrowable(() -> service.deletar(2l, 1l))).isInstanceOf(AccessDeniedException.class);
+		assertThat(catchThrowable(() -> service.deletar(1l, 2l))).isInstanceOf(RegraNegocioException.class);
+		Mockito.verify(repository, Mockito.never()).delete(Mockito.any(Lancamento.class));
+	}
+	
 	@Test
 	public void deveLancarUmErroAoTentarDeletarUmLancamentoQueAindaNaoFoiSalvo() {
 		Lancamento lancamentoADeletar = LancamentoRepositoryTest.criarLancamento();
@@ -117,7 +198,7 @@ public class LancamentoServiceTest {
 		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
 		lancamento.setId(1l);
 		List<Lancamento> lista = Arrays.asList(lancamento);
-		Mockito.when(repository.findAll(Mockito.any(Example.class))).thenReturn(lista);
+		Mockito.when(repository.findAll(Mockito.any(Specification.class))).thenReturn(lista);
 		
 		List<Lancamento> resultado= service.buscar(lancamento);
 		
@@ -221,17 +302,46 @@ public class LancamentoServiceTest {
 		assertThat(exception).isNull();
 	}
 	
+	@Test
+	public void deveRegistrarODeltaDoSaldoAoDeletarUmLancamento() {
+		Lancamento lancamentoADeletar = LancamentoRepositoryTest.criarLancamento();
+		lancamentoADeletar.setId(1l);
+		lancamentoADeletar.setStatus(StatusLancamento.EFETIVADO);
+		lancamentoADeletar.registrarEstadoPersistido();
+		
+		service.deletar(lancamentoADeletar);
+		
+		Mockito.verify(saldoService).registrarAlteracao(lancamentoADeletar.getEstadoPersistido(), null);
+	}
+	
+	@Test
+	public void deveBloquearOsLancamentosDoPeriodoAntesDeSomarOsTotais() {
+		Long usuarioId = 1l;
+		Mockito.when(repository.obterTotaisPorUsuarioEPeriodo(usuarioId, 2019, 6)).thenReturn(Arrays.asList(
+				new TotalLancamento(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.valueOf(100), 2L)));
+		Mockito.when(repository.atualizarStatusNoPeriodo(Mockito.eq(usuarioId), Mockito.eq(2019), Mockito.eq(6), 
+				Mockito.anyCollection(), Mockito.eq(StatusLancamento.EFETIVADO))).thenReturn(2);
+		
+		ResultadoAtualizacaoStatus resultado = service.atualizarStatusNoPeriodo(usuarioId, 2019, 6, StatusLancamento.EFETIVADO);
+		
+		assertThat(resultado.getAtualizados()).isEqualTo(2);
+		InOrder ordem = Mockito.inOrder(repository);
+		ordem.verify(repository).bloquearPorUsuarioEPeriodo(usuarioId, 2019, 6);
+		ordem.verify(repository).obterTotaisPorUsuarioEPeriodo(usuarioId, 2019, 6);
+		ordem.verify(repository).atualizarStatusNoPeriodo(Mockito.eq(usuarioId), Mockito.eq(2019), Mockito.eq(6), 
+				Mockito.anyCollection(), Mockito.eq(StatusLancamento.EFETIVADO));
+	}
+	
 	@Test
 	public void deveObterSaldoPorUsuario() {
 		Long id = 1l;
-		Mockito.when(repository.obterSaldoPorTipoLancamentoEUsuarioEStatus(id, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO))
-			.thenReturn(BigDecimal.valueOf(200));
-		Mockito.when(repository.obterSaldoPorTipoLancamentoEUsuarioEStatus(id, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO))
-			.thenReturn(BigDecimal.valueOf(100));
+		Mockito.when(saldoService.obterSaldo(id)).thenReturn(BigDecimal.valueOf(100));
 		
 		BigDecimal saldo = service.obterSaldoPorUsuario(id);
 		
 		assertThat(saldo).isEqualTo(BigDecimal.valueOf(100));
+		Mockito.verify(repository, Mockito.never())
+			.obterSaldoPorTipoLancamentoEUsuarioEStatus(Mockito.anyLong(), Mockito.any(TipoLancamento.class), Mockito.any(StatusLancamento.class));
 		}
 	
 }
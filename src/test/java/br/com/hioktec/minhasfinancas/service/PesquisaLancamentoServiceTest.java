@@ -0,0 +1,131 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+import br.com.hioktec.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.hioktec.minhasfinancas.service.impl.LancamentoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.PesquisaLancamentoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.ResumoMensalServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.SaldoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.VersaoUsuarioServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+@Import({LancamentoServiceImpl.class, SaldoServiceImpl.class, ResumoMensalServiceImpl.class,
+		PesquisaLancamentoServiceImpl.class, VersaoUsuarioServiceImpl.class})
+public class PesquisaLancamentoServiceTest {
+	
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@Autowired
+	PesquisaLancamentoService service;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void devePesquisarOrdenandoPelaQuantidadeDeTermosEncontrados() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		Lancamento mercado = lancamentoService.salvar(criarLancamento(usuario, "Mercado do bairro"));
+		Lancamento mercadoCartao = lancamentoService.salvar(criarLancamento(usuario, "Cartão: mercado e farmácia"));
+		lancamentoService.salvar(criarLancamento(usuario, "Aluguel"));
+		
+		List<LancamentoDTO> encontrados = service.pesquisar(usuario.getId(), "MERCADO cartao", 10);
+		
+		assertThat(encontrados).extracting(LancamentoDTO::getId).containsExactly(mercadoCartao.getId(), mercado.getId());
+		assertThat(encontrados.get(0).getDescricao()).isEqualTo("Cartão: mercado e farmácia");
+	}
+	
+	@Test
+	public void deveReindexarADescricaoAoAtualizarEDesindexarAoDeletar() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		Lancamento lancamento = lancamentoService.salvar(criarLancamento(usuario, "Conta de luz"));
+		Lancamento outro = lancamentoService.salvar(criarLancamento(usuario, "Conta de água"));
+		
+		lancamento.setDescricao("Energia elétrica");
+		lancamentoService.atualizar(lancamento);
+		lancamentoService.deletar(outro);
+		entityManager.flush();
+		entityManager.clear();
+		
+		assertThat(service.pesquisar(usuario.getId(), "conta", 10)).isEmpty();
+		assertThat(service.pesquisar(usuario.getId(), "eletrica", 10))
+			.extracting(LancamentoDTO::getId).containsExactly(lancamento.getId());
+	}
+	
+	@Test
+	public void deveReindexarADescricaoNaAlteracaoParcial() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		Lancamento lancamento = lancamentoService.salvar(criarLancamento(usuario, "Conta de luz"));
+		entityManager.flush();
+		
+		Lancamento alteracoes = new Lancamento();
+		alteracoes.setDescricao("Energia elétrica");
+		LancamentoDTO alterado = lancamentoService.alterar(usuario.getId(), lancamento.getId(), null, alteracoes);
+		
+		Lancamento gravado = entityManager.find(Lancamento.class, lancamento.getId());
+		assertThat(alterado.getVersao()).isEqualTo(lancamento.getVersao() + 1);
+		assertThat(gravado.getDescricao()).isEqualTo("Energia elétrica");
+		assertThat(gravado.getValor()).isEqualByComparingTo(lancamento.getValor());
+		assertThat(service.pesquisar(usuario.getId(), "luz", 10)).isEmpty();
+		assertThat(service.pesquisar(usuario.getId(), "energia", 10))
+			.extracting(LancamentoDTO::getId).containsExactly(lancamento.getId());
+	}
+	
+	@Test
+	public void deveDesindexarAoExcluirEmLote() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		Lancamento luz = lancamentoService.salvar(criarLancamento(usuario, "Conta de luz"));
+		Lancamento agua = lancamentoService.salvar(criarLancamento(usuario, "Conta de água"));
+		
+		lancamentoService.deletar(usuario.getId(), Arrays.asList(luz.getId()), false);
+		
+		assertThat(service.pesquisar(usuario.getId(), "conta", 10))
+			.extracting(LancamentoDTO::getId).containsExactly(agua.getId());
+	}
+	
+	@Test
+	public void deveReconstruirOIndiceEmPaginasSemMisturarUsuarios() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		Usuario outroUsuario = entityManager.persist(new Usuario("outro", "outroUsuario", "outro@email.com", "senha"));
+		for (int i = 0; i < 501; i++) {
+			lancamentoService.salvar(criarLancamento(usuario, "Conta " + i));
+		}
+		Lancamento outro = lancamentoService.salvar(criarLancamento(outroUsuario, "Conta do outro"));
+		entityManager.flush();
+		
+		service.reconstruir(usuario.getId());
+		
+		assertThat(service.pesquisar(usuario.getId(), "conta", 1000)).hasSize(501);
+		assertThat(service.pesquisar(usuario.getId(), "500", 10)).extracting(LancamentoDTO::getDescricao).containsExactly("Conta 500");
+		assertThat(service.pesquisar(outroUsuario.getId(), "conta", 10))
+			.extracting(LancamentoDTO::getId).containsExactly(outro.getId());
+	}
+	
+	private Lancamento criarLancamento(Usuario usuario, String descricao) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setDescricao(descricao);
+		return lancamento;
+	}
+}
@@ -0,0 +1,137 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.hioktec.minhasfinancas.exception.RegraNegocioException;
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.entity.Recorrencia;
+import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import br.com.hioktec.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.hioktec.minhasfinancas.service.impl.LancamentoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.PesquisaLancamentoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.RecorrenciaServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.ResumoMensalServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.SaldoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.VersaoUsuarioServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "app.recorrencias.horizonteMeses=3")
+@Import({LancamentoServiceImpl.class, SaldoServiceImpl.class, ResumoMensalServiceImpl.class,
+		PesquisaLancamentoServiceImpl.class, VersaoUsuarioServiceImpl.class, RecorrenciaServiceImpl.class})
+public class RecorrenciaServiceTest {
+	
+	@Autowired
+	RecorrenciaService service;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveGerarAsParcelasApenasAteOHorizonteSemDuplicar() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		YearMonth inicio = YearMonth.now().minusMonths(1);
+		
+		Recorrencia recorrencia = service.salvar(criarRecorrencia(usuario, inicio).parcelas(12).build());
+		int geradasNovamente = service.gerar(recorrencia.getId());
+		entityManager.flush();
+		entityManager.clear();
+		
+		// mês anterior, mês atual e os três meses do horizonte.
+		List<Lancamento> parcelas = obterParcelas(recorrencia);
+		assertThat(parcelas).hasSize(5);
+		assertThat(geradasNovamente).isZero();
+		assertThat(parcelas.get(0).getDescricao()).isEqualTo("Notebook (1/12)");
+		assertThat(parcelas.get(4).getParcela()).isEqualTo(5);
+		assertThat(YearMonth.of(parcelas.get(4).getAno(), parcelas.get(4).getMes())).isEqualTo(YearMonth.now().plusMonths(3));
+		assertThat(service.obterPendentes()).doesNotContain(recorrencia.getId());
+	}
+	
+	@Test
+	public void deveGerarAsParcelasQueEntraramNoHorizonte() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		Recorrencia recorrencia = service.salvar(criarRecorrencia(usuario, YearMonth.now()).build());
+		
+		// simula o calendário andando: a recorrência parou dois meses antes do horizonte atual.
+		recorrencia.setUltimaParcela(2);
+		entityManager.getEntityManager().createQuery("delete from Lancamento l where l.recorrencia = :id and l.parcela > 2")
+			.setParameter("id", recorrencia.getId())
+			.executeUpdate();
+		entityManager.flush();
+		
+		assertThat(service.obterPendentes()).contains(recorrencia.getId());
+		assertThat(service.gerar(recorrencia.getId())).isEqualTo(2);
+		assertThat(obterParcelas(recorrencia)).extracting(Lancamento::getParcela).containsExactly(1, 2, 3, 4);
+	}
+	
+	@Test
+	public void deveGerarAteOMesFinal() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		YearMonth fim = YearMonth.now().plusMonths(1);
+		
+		Recorrencia recorrencia = service.salvar(criarRecorrencia(usuario, YearMonth.now())
+				.anoFinal(fim.getYear()).mesFinal(fim.getMonthValue()).build());
+		
+		assertThat(obterParcelas(recorrencia)).hasSize(2);
+		assertThat(obterParcelas(recorrencia).get(0).getDescricao()).isEqualTo("Notebook");
+	}
+	
+	@Test
+	public void deveRejeitarParcelasEMesFinalJuntos() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		
+		Throwable erro = catchThrowable(() -> service.salvar(criarRecorrencia(usuario, YearMonth.now())
+				.parcelas(3).anoFinal(2030).mesFinal(1).build()));
+		
+		assertThat(erro).isInstanceOf(RegraNegocioException.class);
+	}
+	
+	@Test
+	public void deveRejeitarAGeracaoPeloUsuarioQueNaoEODono() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		Usuario outroUsuario = entityManager.persist(new Usuario("outro", "outroUsuario", "outro@email.com", "senha"));
+		Recorrencia recorrencia = service.salvar(criarRecorrencia(usuario, YearMonth.now()).build());
+		
+		Throwable erro = catchThrowable(() -> service.gerar(outroUsuario.getId(), recorrencia.getId()));
+		
+		assertThat(erro).isInstanceOf(AccessDeniedException.class);
+		assertThat(service.gerar(usuario.getId(), recorrencia.getId())).isZero();
+	}
+	
+	private List<Lancamento> obterParcelas(Recorrencia recorrencia) {
+		return entityManager.getEntityManager()
+				.createQuery("select l from Lancamento l where l.recorrencia = :id order by l.parcela", Lancamento.class)
+				.setParameter("id", recorrencia.getId())
+				.getResultList();
+	}
+	
+	private Recorrencia.RecorrenciaBuilder criarRecorrencia(Usuario usuario, YearMonth inicio) {
+		return Recorrencia.builder()
+				.descricao("Notebook")
+				.valor(BigDecimal.valueOf(150))
+				.tipo(TipoLancamento.DESPESA)
+				.ano(inicio.getYear())
+				.mes(inicio.getMonthValue())
+				.usuario(usuario);
+	}
+}
@@ -0,0 +1,112 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.entity.ResumoMensal;
+import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import br.com.hioktec.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.hioktec.minhasfinancas.model.vo.FluxoCaixa;
+import br.com.hioktec.minhasfinancas.repository.ResumoMensalRepository;
+import br.com.hioktec.minhasfinancas.service.impl.LancamentoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.PesquisaLancamentoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.ResumoMensalServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.SaldoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.VersaoUsuarioServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+@Import({LancamentoServiceImpl.class, SaldoServiceImpl.class, ResumoMensalServiceImpl.class,
+		PesquisaLancamentoServiceImpl.class, VersaoUsuarioServiceImpl.class})
+public class ResumoMensalServiceTest {
+	
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@Autowired
+	ResumoMensalService service;
+	
+	@Autowired
+	ResumoMensalRepository repository;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveObterOFluxoDeCaixaDosDozeMesesPelosResumos() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		
+		Lancamento receita = lancamentoService.salvar(criarLancamento(usuario, 1, TipoLancamento.RECEITA, 300));
+		lancamentoService.salvar(criarLancamento(usuario, 1, TipoLancamento.DESPESA, 40));
+		Lancamento despesa = lancamentoService.salvar(criarLancamento(usuario, 2, TipoLancamento.DESPESA, 100));
+		lancamentoService.atualizarStatus(receita, StatusLancamento.EFETIVADO);
+		lancamentoService.atualizarStatus(despesa, StatusLancamento.EFETIVADO);
+		
+		despesa.setMes(3);
+		lancamentoService.atualizar(despesa);
+		
+		FluxoCaixa fluxoCaixa = service.obterFluxoCaixa(usuario.getId(), 2020);
+		
+		assertThat(fluxoCaixa.getMeses()).hasSize(12);
+		assertThat(fluxoCaixa.getMeses().get(0).getReceitas()).isEqualByComparingTo(BigDecimal.valueOf(300));
+		assertThat(fluxoCaixa.getMeses().get(0).getDespesasPendentes()).isEqualByComparingTo(BigDecimal.valueOf(40));
+		assertThat(fluxoCaixa.getMeses().get(1).getDespesas()).isEqualByComparingTo(BigDecimal.ZERO);
+		assertThat(fluxoCaixa.getMeses().get(2).getDespesas()).isEqualByComparingTo(BigDecimal.valueOf(100));
+		assertThat(fluxoCaixa.getMeses().get(2).getSaldo()).isEqualByComparingTo(BigDecimal.valueOf(-100));
+	}
+	
+	@Test
+	public void deveReconstruirOsMesmosResumosMantidosPelasEscritas() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		
+		Lancamento receita = lancamentoService.salvar(criarLancamento(usuario, 5, TipoLancamento.RECEITA, 10));
+		lancamentoService.salvar(criarLancamento(usuario, 5, TipoLancamento.RECEITA, 15));
+		Lancamento despesa = lancamentoService.salvar(criarLancamento(usuario, 6, TipoLancamento.DESPESA, 20));
+		lancamentoService.atualizarStatus(receita, StatusLancamento.CANCELADO);
+		lancamentoService.deletar(despesa);
+		entityManager.flush();
+		
+		List<ResumoMensal> incrementais = resumosComLancamentos(usuario);
+		
+		service.reconstruir(usuario.getId());
+		entityManager.clear();
+		
+		assertThat(resumosComLancamentos(usuario)).isEqualTo(incrementais);
+	}
+	
+	private List<ResumoMensal> resumosComLancamentos(Usuario usuario) {
+		List<ResumoMensal> resumos = repository.obterPorUsuarioEAno(usuario.getId(), 2020);
+		resumos.removeIf(resumo -> resumo.getQuantidade() == 0);
+		resumos.forEach(resumo -> resumo.setValor(resumo.getValor().stripTrailingZeros()));
+		resumos.sort(Comparator.comparing(resumo -> resumo.getId().toString()));
+		return resumos;
+	}
+	
+	private Lancamento criarLancamento(Usuario usuario, int mes, TipoLancamento tipo, long valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setMes(mes);
+		lancamento.setTipo(tipo);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		return lancamento;
+	}
+}
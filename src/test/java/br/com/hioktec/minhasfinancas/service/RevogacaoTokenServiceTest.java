@@ -0,0 +1,137 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.hioktec.minhasfinancas.model.entity.TokenRevogado;
+import br.com.hioktec.minhasfinancas.repository.TokenRevogadoRepository;
+import br.com.hioktec.minhasfinancas.service.impl.RevogacaoTokenServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+		"app.revogacao.capacidadeMinima=1000"})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+@Import(RevogacaoTokenServiceImpl.class)
+public class RevogacaoTokenServiceTest {
+	
+	@Autowired
+	RevogacaoTokenService service;
+	
+	@Autowired
+	TokenRevogadoRepository repository;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveConsultarOBancoSomenteNosPositivosDoFiltro() {
+		// cenário
+		service.revogarToken("revogado", 1L, daquiUmaHora());
+		service.reconstruirFiltro();
+		entityManager.flush();
+		Statistics estatisticas = obterEstatisticasHibernate();
+		estatisticas.clear();
+		
+		// execução
+		int aceitos = 0;
+		for (int i = 0; i < 1000; i++) {
+			if (!service.isTokenRevogado("valido-" + i)) {
+				aceitos++;
+			}
+		}
+		long consultasValidos = estatisticas.getPrepareStatementCount();
+		boolean revogado = service.isTokenRevogado("revogado");
+		
+		// verificação: só os falsos positivos (cerca de 1%) foram ao banco, e nenhum válido foi recusado
+		assertThat(aceitos).isEqualTo(1000);
+		assertThat(consultasValidos).isLessThan(50);
+		assertThat(revogado).isTrue();
+	}
+	
+	@Test
+	public void deveIncluirNoFiltroAsRevogacoesFeitasDepoisDaReconstrucao() {
+		// cenário
+		service.reconstruirFiltro();
+		
+		// execução
+		service.revogarToken("revogado-depois", 1L, daquiUmaHora());
+		
+		// verificação
+		assertThat(service.isTokenRevogado("revogado-depois")).isTrue();
+		assertThat(service.isTokenRevogado(null)).isFalse();
+	}
+	
+	@Test
+	public void deveDescartarOsTokensExpiradosNaReconstrucao() {
+		// cenário
+		repository.save(new TokenRevogado("expirado", 1L, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().minusDays(1)));
+		service.revogarToken("valido", 1L, daquiUmaHora());
+		
+		// execução
+		int revogados = service.reconstruirFiltro();
+		
+		// verificação
+		assertThat(revogados).isEqualTo(1);
+		assertThat(repository.existsById("expirado")).isFalse();
+		assertThat(service.isTokenRevogado("valido")).isTrue();
+	}
+	
+	@Test
+	public void deveVoltarAConsultarOBancoQuandoAsRevogacoesExcederemAFolgaDoFiltro() {
+		// cenário: folga para duas revogações entre reconstruções
+		RevogacaoTokenService limitado = new RevogacaoTokenServiceImpl(900000, repository, 2, 0.01);
+		limitado.reconstruirFiltro();
+		
+		// execução: a terceira revogação sem reconstrução descarta o filtro
+		for (int i = 0; i < 3; i++) {
+			limitado.revogarToken("excedente-" + i, 1L, daquiUmaHora());
+		}
+		entityManager.flush();
+		long consultasSemFiltro = contarConsultas(limitado);
+		limitado.reconstruirFiltro();
+		long consultasAposDescarte = contarConsultas(limitado);
+		limitado.reconstruirFiltro();
+		long consultasComFiltro = contarConsultas(limitado);
+		
+		// verificação
+		assertThat(consultasSemFiltro).isEqualTo(100);
+		assertThat(consultasAposDescarte).isEqualTo(100);
+		assertThat(consultasComFiltro).isLessThan(10);
+		assertThat(limitado.isTokenRevogado("excedente-2")).isTrue();
+	}
+	
+	// consultas ao banco para verificar cem tokens nunca revogados.
+	private long contarConsultas(RevogacaoTokenService verificador) {
+		Statistics estatisticas = obterEstatisticasHibernate();
+		estatisticas.clear();
+		for (int i = 0; i < 100; i++) {
+			assertThat(verificador.isTokenRevogado("valido-" + i)).isFalse();
+		}
+		return estatisticas.getPrepareStatementCount();
+	}
+	
+	private Date daquiUmaHora() {
+		return new Date(System.currentTimeMillis() + 3600000);
+	}
+	
+	private Statistics obterEstatisticasHibernate() {
+		return entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+	}
+}
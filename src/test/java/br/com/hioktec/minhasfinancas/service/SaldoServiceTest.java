@@ -0,0 +1,258 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.entity.SaldoUsuario;
+import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+import br.com.hioktec.minhasfinancas.model.enums.StatusLancamento;
+import br.com.hioktec.minhasfinancas.model.enums.TipoLancamento;
+import br.com.hioktec.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.hioktec.minhasfinancas.model.vo.FiltroLancamento;
+import br.com.hioktec.minhasfinancas.model.vo.ReconciliacaoSaldo;
+import br.com.hioktec.minhasfinancas.model.vo.ResultadoAtualizacaoStatus;
+import br.com.hioktec.minhasfinancas.model.vo.ResultadoExclusao;
+import br.com.hioktec.minhasfinancas.model.vo.SaldoDetalhado;
+import br.com.hioktec.minhasfinancas.service.impl.LancamentoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.PesquisaLancamentoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.ResumoMensalServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.SaldoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.VersaoUsuarioServiceImpl;
+
+// usa o banco de testes pois o objetivo é provar que o saldo materializado bate com a varredura.
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+@Import({LancamentoServiceImpl.class, SaldoServiceImpl.class, ResumoMensalServiceImpl.class,
+		PesquisaLancamentoServiceImpl.class, VersaoUsuarioServiceImpl.class})
+public class SaldoServiceTest {
+	
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@Autowired
+	SaldoService service;
+	
+	@Autowired
+	ResumoMensalService resumoMensalService;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveManterOSaldoMaterializadoConsistenteAposAsEscritas() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		
+		Lancamento receita = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.RECEITA, 200));
+		Lancamento despesa = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.DESPESA, 50));
+		Lancamento outraDespesa = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.DESPESA, 30));
+		
+		lancamentoService.atualizarStatus(receita, StatusLancamento.EFETIVADO);
+		lancamentoService.atualizarStatus(despesa, StatusLancamento.EFETIVADO);
+		lancamentoService.atualizarStatus(outraDespesa, StatusLancamento.EFETIVADO);
+		
+		despesa.setValor(BigDecimal.valueOf(70));
+		lancamentoService.atualizar(despesa);
+		lancamentoService.deletar(outraDespesa);
+		entityManager.flush();
+		entityManager.clear();
+		
+		SaldoUsuario saldo = entityManager.find(SaldoUsuario.class, usuario.getId());
+		assertThat(saldo.getSaldo()).isEqualByComparingTo(BigDecimal.valueOf(130));
+		assertThat(service.obterSaldo(usuario.getId())).isEqualByComparingTo(BigDecimal.valueOf(130));
+		assertThat(service.reconciliar(usuario.getId()).isConsistente()).isTrue();
+	}
+	
+	@Test
+	public void deveCalcularPelaVarreduraQuandoNaoHouverSaldoMaterializado() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		Lancamento lancamento = criarLancamento(usuario, TipoLancamento.RECEITA, 80);
+		lancamento.setStatus(StatusLancamento.EFETIVADO);
+		entityManager.persist(lancamento);
+		
+		assertThat(service.obterSaldo(usuario.getId())).isEqualByComparingTo(BigDecimal.valueOf(80));
+		assertThat(entityManager.find(SaldoUsuario.class, usuario.getId())).isNull();
+	}
+	
+	@Test
+	public void deveCorrigirOSaldoDivergenteAoReconciliar() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		Lancamento lancamento = criarLancamento(usuario, TipoLancamento.RECEITA, 80);
+		lancamento.setStatus(StatusLancamento.EFETIVADO);
+		entityManager.persist(lancamento);
+		entityManager.persist(new SaldoUsuario(usuario.getId(), BigDecimal.TEN, BigDecimal.ZERO));
+		
+		ReconciliacaoSaldo reconciliacao = service.reconciliar(usuario.getId());
+		
+		assertThat(reconciliacao.isConsistente()).isFalse();
+		assertThat(reconciliacao.getReceitasArmazenadas()).isEqualByComparingTo(BigDecimal.TEN);
+		assertThat(reconciliacao.getReceitasCalculadas()).isEqualByComparingTo(BigDecimal.valueOf(80));
+		assertThat(service.reconciliar(usuario.getId()).isConsistente()).isTrue();
+	}
+	
+	@Test
+	public void deveObterOSaldoAcumuladoAteOPeriodo() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		
+		Lancamento janeiro = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.RECEITA, 100, 2020, 1));
+		Lancamento marco = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.DESPESA, 40, 2020, 3));
+		Lancamento fevereiro = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.RECEITA, 25, 2020, 2));
+		lancamentoService.atualizarStatus(janeiro, StatusLancamento.EFETIVADO);
+		lancamentoService.atualizarStatus(marco, StatusLancamento.EFETIVADO);
+		lancamentoService.atualizarStatus(fevereiro, StatusLancamento.EFETIVADO);
+		
+		// mover o lançamento de mês altera apenas os períodos entre a origem e o destino.
+		marco.setMes(5);
+		lancamentoService.atualizar(marco);
+		entityManager.flush();
+		entityManager.clear();
+		
+		assertThat(service.obterSaldoAte(usuario.getId(), 2019, 12)).isEqualByComparingTo(BigDecimal.ZERO);
+		assertThat(service.obterSaldoAte(usuario.getId(), 2020, 1)).isEqualByComparingTo(BigDecimal.valueOf(100));
+		assertThat(service.obterSaldoAte(usuario.getId(), 2020, 4)).isEqualByComparingTo(BigDecimal.valueOf(125));
+		assertThat(service.obterSaldoAte(usuario.getId(), 2020, 5)).isEqualByComparingTo(BigDecimal.valueOf(85));
+		assertThat(service.obterSaldoAte(usuario.getId(), 2021, 1)).isEqualByComparingTo(BigDecimal.valueOf(85));
+		assertThat(service.reconciliar(usuario.getId()).isConsistente()).isTrue();
+	}
+	
+	@Test
+	public void deveAtualizarOStatusEmLoteApenasDasTransicoesPermitidas() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		Usuario outroUsuario = entityManager.persist(new Usuario("outro", "outroUsuario", "outro@email.com", "senha"));
+		
+		Lancamento receita = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.RECEITA, 200, 2020, 1));
+		Lancamento despesa = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.DESPESA, 50, 2020, 2));
+		Lancamento cancelado = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.DESPESA, 10, 2020, 2));
+		lancamentoService.atualizarStatus(cancelado, StatusLancamento.CANCELADO);
+		Lancamento deOutroUsuario = lancamentoService.salvar(criarLancamento(outroUsuario, TipoLancamento.RECEITA, 90));
+		
+		ResultadoAtualizacaoStatus resultado = lancamentoService.atualizarStatus(usuario.getId(), 
+				Arrays.asList(receita.getId(), despesa.getId(), cancelado.getId(), deOutroUsuario.getId()), 
+				StatusLancamento.EFETIVADO);
+		entityManager.clear();
+		
+		assertThat(resultado.getSolicitados()).isEqualTo(4);
+		assertThat(resultado.getAtualizados()).isEqualTo(2);
+		assertThat(resultado.getIgnorados()).isEqualTo(2);
+		assertThat(entityManager.find(Lancamento.class, cancelado.getId()).getStatus()).isEqualTo(StatusLancamento.CANCELADO);
+		assertThat(entityManager.find(Lancamento.class, deOutroUsuario.getId()).getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+		assertThat(service.obterSaldo(usuario.getId())).isEqualByComparingTo(BigDecimal.valueOf(150));
+		assertThat(service.obterSaldoAte(usuario.getId(), 2020, 1)).isEqualByComparingTo(BigDecimal.valueOf(200));
+		assertThat(service.reconciliar(usuario.getId()).isConsistente()).isTrue();
+		
+		// reabrir o mês de fevereiro devolve a despesa para pendente.
+		ResultadoAtualizacaoStatus reabertura = lancamentoService.atualizarStatusNoPeriodo(
+				usuario.getId(), 2020, 2, StatusLancamento.PENDENTE);
+		
+		assertThat(reabertura.getSolicitados()).isEqualTo(2);
+		assertThat(reabertura.getAtualizados()).isEqualTo(2);
+		assertThat(resumoMensalService.obterFluxoCaixa(usuario.getId(), 2020).getMeses().get(1).getDespesasPendentes())
+			.isEqualByComparingTo(BigDecimal.valueOf(60));
+		assertThat(service.obterSaldo(usuario.getId())).isEqualByComparingTo(BigDecimal.valueOf(200));
+		assertThat(service.obterSaldoAte(usuario.getId(), 2020, 2)).isEqualByComparingTo(BigDecimal.valueOf(200));
+		assertThat(service.reconciliar(usuario.getId()).isConsistente()).isTrue();
+	}
+	
+	@Test
+	public void deveExcluirEmLotePeloFiltroMantendoOsSaldos() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		
+		Lancamento receita = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.RECEITA, 300, 2020, 1));
+		Lancamento despesa = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.DESPESA, 40, 2020, 2));
+		Lancamento outraDespesa = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.DESPESA, 60, 2020, 2));
+		lancamentoService.atualizarStatus(usuario.getId(), 
+				Arrays.asList(receita.getId(), despesa.getId(), outraDespesa.getId()), StatusLancamento.EFETIVADO);
+		FiltroLancamento fevereiro = FiltroLancamento.builder().usuario(usuario.getId()).ano(2020).mes(2).build();
+		
+		ResultadoExclusao simulacao = lancamentoService.deletar(fevereiro, true);
+		ResultadoExclusao exclusao = lancamentoService.deletar(fevereiro, false);
+		entityManager.clear();
+		
+		assertThat(simulacao.getQuantidade()).isEqualTo(2L);
+		assertThat(simulacao.getSimulacao()).isTrue();
+		assertThat(exclusao.getQuantidade()).isEqualTo(2L);
+		assertThat(entityManager.find(Lancamento.class, despesa.getId())).isNull();
+		assertThat(entityManager.find(Lancamento.class, receita.getId())).isNotNull();
+		assertThat(service.obterSaldo(usuario.getId())).isEqualByComparingTo(BigDecimal.valueOf(300));
+		assertThat(service.obterSaldoAte(usuario.getId(), 2020, 2)).isEqualByComparingTo(BigDecimal.valueOf(300));
+		assertThat(service.reconciliar(usuario.getId()).isConsistente()).isTrue();
+	}
+	
+	@Test
+	public void deveAtualizarOStatusPelaVersaoERejeitarVersaoDesatualizada() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		Lancamento receita = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.RECEITA, 120));
+		Long versaoLida = receita.getVersao();
+		entityManager.flush();
+		
+		LancamentoDTO efetivado = lancamentoService.atualizarStatus(usuario.getId(), receita.getId(), versaoLida, StatusLancamento.EFETIVADO);
+		entityManager.clear();
+		
+		assertThat(efetivado.getVersao()).isEqualTo(versaoLida + 1);
+		assertThat(entityManager.find(Lancamento.class, receita.getId()).getVersao()).isEqualTo(versaoLida + 1);
+		assertThat(service.obterSaldo(usuario.getId())).isEqualByComparingTo(BigDecimal.valueOf(120));
+		assertThatThrownBy(() -> lancamentoService.atualizarStatus(usuario.getId(), receita.getId(), versaoLida, StatusLancamento.CANCELADO))
+				.isInstanceOf(OptimisticLockingFailureException.class);
+		assertThatThrownBy(() -> lancamentoService.atualizarStatus(usuario.getId() + 1, receita.getId(), versaoLida + 1, StatusLancamento.CANCELADO))
+				.isInstanceOf(AccessDeniedException.class);
+		assertThat(entityManager.find(Lancamento.class, receita.getId()).getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		assertThat(service.reconciliar(usuario.getId()).isConsistente()).isTrue();
+	}
+	
+	@Test
+	public void deveObterOSaldoDetalhadoIgnorandoCancelados() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		persistirLancamento(usuario, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 300);
+		persistirLancamento(usuario, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 100);
+		persistirLancamento(usuario, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 50);
+		persistirLancamento(usuario, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 20);
+		persistirLancamento(usuario, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 10);
+		persistirLancamento(usuario, TipoLancamento.RECEITA, StatusLancamento.CANCELADO, 1000);
+		
+		SaldoDetalhado saldo = service.obterSaldoDetalhado(usuario.getId());
+		
+		assertThat(saldo.getSaldoRealizado()).isEqualByComparingTo(BigDecimal.valueOf(200));
+		assertThat(saldo.getSaldoPendente()).isEqualByComparingTo(BigDecimal.valueOf(20));
+		assertThat(saldo.getSaldoProjetado()).isEqualByComparingTo(BigDecimal.valueOf(220));
+		assertThat(saldo.getDespesasPendentes()).isEqualByComparingTo(BigDecimal.valueOf(30));
+	}
+	
+	private void persistirLancamento(Usuario usuario, TipoLancamento tipo, StatusLancamento status, long valor) {
+		Lancamento lancamento = criarLancamento(usuario, tipo, valor);
+		lancamento.setStatus(status);
+		entityManager.persist(lancamento);
+	}
+	
+	private Lancamento criarLancamento(Usuario usuario, TipoLancamento tipo, long valor, int ano, int mes) {
+		Lancamento lancamento = criarLancamento(usuario, tipo, valor);
+		lancamento.setAno(ano);
+		lancamento.setMes(mes);
+		return lancamento;
+	}
+	
+	private Lancamento criarLancamento(Usuario usuario, TipoLancamento tipo, long valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setTipo(tipo);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		return lancamento;
+	}
+}
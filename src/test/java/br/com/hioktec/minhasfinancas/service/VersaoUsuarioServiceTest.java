@@ -0,0 +1,76 @@
+package br.com.hioktec.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.hioktec.minhasfinancas.model.entity.Lancamento;
+import br.com.hioktec.minhasfinancas.model.entity.Usuario;
+import br.com.hioktec.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.hioktec.minhasfinancas.service.impl.LancamentoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.PesquisaLancamentoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.ResumoMensalServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.SaldoServiceImpl;
+import br.com.hioktec.minhasfinancas.service.impl.VersaoUsuarioServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("test")
+@Import({LancamentoServiceImpl.class, SaldoServiceImpl.class, ResumoMensalServiceImpl.class,
+		PesquisaLancamentoServiceImpl.class, VersaoUsuarioServiceImpl.class})
+public class VersaoUsuarioServiceTest {
+	
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@Autowired
+	VersaoUsuarioService service;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	@Test
+	public void deveIncrementarAVersaoACadaEscritaDeLancamento() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		assertThat(service.obterVersao(usuario.getId())).isEqualTo(0L);
+		
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento = lancamentoService.salvar(lancamento);
+		String etagAposSalvar = service.obterEtag(usuario.getId(), "saldo");
+		
+		lancamento.setValor(BigDecimal.valueOf(20));
+		lancamentoService.atualizar(lancamento);
+		lancamento.setDescricao("Apenas a descrição");
+		lancamentoService.atualizar(lancamento);
+		lancamentoService.deletar(lancamento);
+		
+		assertThat(etagAposSalvar).isEqualTo("\"saldo-" + usuario.getId() + "-1\"");
+		assertThat(service.obterVersao(usuario.getId())).isEqualTo(4L);
+	}
+	
+	@Test
+	public void naoDeveAlterarAVersaoDeOutrosUsuarios() {
+		Usuario usuario = entityManager.persist(LancamentoRepositoryTest.criarLancamento().getUsuario());
+		Usuario outro = entityManager.persist(new Usuario("outro", "outroUsuario", "outro@email.com", "senha"));
+		
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamentoService.salvar(lancamento);
+		
+		assertThat(service.obterVersao(usuario.getId())).isEqualTo(1L);
+		assertThat(service.obterVersao(outro.getId())).isEqualTo(0L);
+	}
+}
@@ -0,0 +1,53 @@
+package br.com.hioktec.minhasfinancas.service.exportacao;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.hioktec.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.hioktec.minhasfinancas.model.enums.FormatoExportacao;
+
+public class EscritorPlanilhaCsvTest {
+	
+	@Test
+	public void deveNeutralizarDescricoesQueSeriamLidasComoFormula() throws IOException {
+		// cenário
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		
+		// execução
+		try (EscritorPlanilha escritor = EscritorPlanilha.de(FormatoExportacao.CSV, saida)) {
+			escritor.escrever(criarLancamento(1L, "=HYPERLINK(\"http://exemplo.com\")", "10"));
+			escritor.escrever(criarLancamento(2L, "+1", "10"));
+			escritor.escrever(criarLancamento(3L, "-2+3", "10"));
+			escritor.escrever(criarLancamento(4L, "@SUM(A1)", "10"));
+			escritor.escrever(criarLancamento(5L, "Salário", "-10.5"));
+		}
+		
+		// verificação
+		String[] linhas = new String(saida.toByteArray(), StandardCharsets.UTF_8).split("\r\n");
+		assertThat(linhas).hasSize(6);
+		assertThat(linhas[1]).isEqualTo("1;\"'=HYPERLINK(\"\"http://exemplo.com\"\")\";2020;1;RECEITA;PENDENTE;10,00");
+		assertThat(linhas[2]).isEqualTo("2;'+1;2020;1;RECEITA;PENDENTE;10,00");
+		assertThat(linhas[3]).isEqualTo("3;'-2+3;2020;1;RECEITA;PENDENTE;10,00");
+		assertThat(linhas[4]).isEqualTo("4;'@SUM(A1);2020;1;RECEITA;PENDENTE;10,00");
+		// o valor negativo continua numérico.
+		assertThat(linhas[5]).isEqualTo("5;Salário;2020;1;RECEITA;PENDENTE;-10,50");
+	}
+	
+	private LancamentoDTO criarLancamento(Long id, String descricao, String valor) {
+		return LancamentoDTO.builder()
+				.id(id)
+				.descricao(descricao)
+				.ano(2020)
+				.mes(1)
+				.valor(new BigDecimal(valor))
+				.tipo("RECEITA")
+				.status("PENDENTE")
+				.build();
+	}
+}